@@ -0,0 +1,276 @@
+package org.translation.build;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.translation.PerfectHash;
+
+/**
+ * Generates the constant tables of package org.translation from the data files in src/main/resources,
+ * so that the converters and GeneratedTranslator start without reading or parsing anything.<br/>
+ * For country-codes.txt, language-codes.txt and sample.json it writes CountryCodeData, LanguageCodeData
+ * and TranslationData: the columns of each file as arrays, and a minimal perfect hash (see PerfectHash)
+ * over every key the converters look up, built by PerfectHash itself. The arrays are packed into string
+ * constants, which PackedData decodes. Each file is read exactly as the runtime loaders read it, with
+ * org.json for sample.json.<br/>
+ * Maven runs it in the generate-sources phase: it first compiles this class together with PerfectHash
+ * into target/build-classes, and then runs it with org.json on the classpath, before the rest of the
+ * sources, which use the generated classes, are compiled.
+ */
+public final class TableGenerator {
+
+    private static final String PACKAGE = "org.translation";
+    private static final int CHUNK = 8000;
+    private static final int HALF = 16;
+    private static final int LOW_MASK = 0xFFFF;
+    private static final int ABSENT = -1;
+    private static final int COUNTRY_COLUMNS = 4;
+    private static final int PRINTABLE_FIRST = 0x20;
+    private static final int PRINTABLE_LAST = 0x7E;
+    private static final int LATIN_1_LAST = 0xFF;
+
+    private TableGenerator() {
+    }
+
+    /**
+     * Generates the tables.
+     * @param args the resources directory and the root directory of the generated sources
+     * @throws IOException if a data file can't be read or a source file can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: TableGenerator RESOURCES_DIR OUTPUT_DIR");
+            System.exit(2);
+        }
+        Path resources = Paths.get(args[0]);
+        Path output = Paths.get(args[1]).resolve(PACKAGE.replace('.', '/'));
+        Files.createDirectories(output);
+        write(output, countryCodes(resources.resolve("country-codes.txt")));
+        write(output, languageCodes(resources.resolve("language-codes.txt")));
+        write(output, translations(resources.resolve("sample.json")));
+    }
+
+    private static void write(Path output, Source source) throws IOException {
+        Files.writeString(output.resolve(source.className + ".java"), source.finish(), StandardCharsets.US_ASCII);
+    }
+
+    // country-codes.txt, read as CountryCodeTable.fromLines does
+
+    private static Source countryCodes(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        List<String> names = new ArrayList<>();
+        List<String> alpha2 = new ArrayList<>();
+        List<String> alpha3 = new ArrayList<>();
+        List<Integer> numeric = new ArrayList<>();
+        for (int i = 1; i < lines.size(); i++) {
+            String[] parts = lines.get(i).split("\t");
+            if (parts.length >= COUNTRY_COLUMNS) {
+                names.add(parts[0].trim());
+                alpha2.add(parts[1].trim());
+                alpha3.add(parts[2].trim());
+                numeric.add(Integer.parseInt(parts[3].trim()));
+            }
+        }
+        Source source = new Source("CountryCodeData", file);
+        source.strings("NAMES", names);
+        source.strings("ALPHA2", alpha2);
+        source.strings("ALPHA3", alpha3);
+        source.ints("NUMERIC", toArray(numeric));
+        source.perfectHash("NAME", names, false);
+        return source;
+    }
+
+    // language-codes.txt, read as LanguageCodeConverter does
+
+    private static Source languageCodes(Path file) throws IOException {
+        Map<String, List<String>> namesByCode = new LinkedHashMap<>();
+        Map<String, String> codesByName = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            int index = line.indexOf('\t');
+            if (index != -1) {
+                String code = line.substring(index + 1).trim();
+                List<String> names = Arrays.asList(line.substring(0, index).split(",\\s*"));
+                namesByCode.put(code, names);
+                for (String name : names) {
+                    codesByName.put(name.trim(), code);
+                }
+            }
+        }
+        List<String> codes = new ArrayList<>(namesByCode.keySet());
+        List<String> codeNames = new ArrayList<>();
+        List<Integer> nameCounts = new ArrayList<>();
+        for (List<String> names : namesByCode.values()) {
+            codeNames.addAll(names);
+            nameCounts.add(names.size());
+        }
+        List<String> names = new ArrayList<>(codesByName.keySet());
+        Source source = new Source("LanguageCodeData", file);
+        source.strings("CODES", codes);
+        source.strings("CODE_NAMES", codeNames);
+        source.ints("NAME_COUNTS", toArray(nameCounts));
+        source.perfectHash("CODE", codes, false);
+        source.strings("NAMES", names);
+        source.strings("NAME_CODES", new ArrayList<>(codesByName.values()));
+        source.perfectHash("NAME", names, false);
+        return source;
+    }
+
+    // sample.json, read as TranslationTable.Builder.addCountry does
+
+    private static Source translations(Path file) throws IOException {
+        JSONArray json = new JSONArray(Files.readString(file, StandardCharsets.UTF_8));
+        List<String> countries = new ArrayList<>();
+        Map<String, Integer> countryIndex = new HashMap<>();
+        List<String> languages = new ArrayList<>();
+        Map<String, Integer> languageIndex = new HashMap<>();
+        List<String> pool = new ArrayList<>();
+        Map<String, Integer> poolIndex = new HashMap<>();
+        List<Map<Integer, Integer>> rows = new ArrayList<>();
+        for (int i = 0; i < json.length(); i++) {
+            JSONObject country = json.getJSONObject(i);
+            String code = country.getString("alpha3");
+            Integer row = countryIndex.get(code.toLowerCase(Locale.ROOT));
+            if (row == null) {
+                row = countries.size();
+                countryIndex.put(code.toLowerCase(Locale.ROOT), row);
+                countries.add(code);
+                rows.add(new HashMap<>());
+            }
+            // keys are visited in JSONObject's order, as the runtime loader visits them
+            for (String key : country.keySet()) {
+                if (!"id".equals(key) && !"alpha2".equals(key) && !"alpha3".equals(key)) {
+                    int column = intern(languageIndex, languages, key);
+                    rows.get(row).put(column, intern(poolIndex, pool, country.getString(key)));
+                }
+            }
+        }
+        int[] cells = new int[countries.size() * languages.size()];
+        Arrays.fill(cells, ABSENT);
+        for (int row = 0; row < rows.size(); row++) {
+            for (Map.Entry<Integer, Integer> cell : rows.get(row).entrySet()) {
+                cells[row * languages.size() + cell.getKey()] = cell.getValue();
+            }
+        }
+        Source source = new Source("TranslationData", file);
+        source.strings("COUNTRIES", countries);
+        source.strings("LANGUAGES", languages);
+        source.strings("POOL", pool);
+        source.ints("CELLS", cells);
+        source.perfectHash("COUNTRY", countries, true);
+        source.perfectHash("LANGUAGE", languages, false);
+        return source;
+    }
+
+    private static int intern(Map<String, Integer> index, List<String> values, String value) {
+        Integer id = index.get(value);
+        if (id == null) {
+            id = values.size();
+            index.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * The source of one generated class, holding packed constants in the layout PackedData decodes.
+     */
+    private static final class Source {
+        private final String className;
+        private final StringBuilder text = new StringBuilder();
+
+        Source(String className, Path dataFile) {
+            this.className = className;
+            text.append("// Generated by TableGenerator from ").append(dataFile.getFileName())
+                    .append(". Do not edit.\n")
+                    .append("package ").append(PACKAGE).append(";\n\n")
+                    .append("final class ").append(className).append(" {\n");
+        }
+
+        void strings(String name, List<String> values) {
+            StringBuilder packed = new StringBuilder();
+            for (String value : values) {
+                if (value.length() > LOW_MASK) {
+                    throw new IllegalArgumentException("String too long to pack: " + value.length() + " chars");
+                }
+                packed.append((char) value.length()).append(value);
+            }
+            constant("String[]", name, "strings", packed);
+        }
+
+        void ints(String name, int[] values) {
+            StringBuilder packed = new StringBuilder();
+            for (int value : values) {
+                packed.append((char) (value >>> HALF)).append((char) (value & LOW_MASK));
+            }
+            constant("int[]", name, "ints", packed);
+        }
+
+        void perfectHash(String name, List<String> keys, boolean ignoreCase) {
+            PerfectHash hash = PerfectHash.build(keys.toArray(new String[0]), ignoreCase);
+            ints(name + "_DISPLACEMENTS", hash.getDisplacements());
+            ints(name + "_ORDER", hash.getOrder());
+        }
+
+        private void constant(String type, String name, String decoder, CharSequence packed) {
+            text.append("\n    static final ").append(type).append(' ').append(name)
+                    .append(" = PackedData.").append(decoder).append('(');
+            // separate constants, so that javac never folds them into one longer than a class file allows
+            for (int start = 0; start < packed.length(); start += CHUNK) {
+                if (start > 0) {
+                    text.append(',');
+                }
+                text.append("\n            \"");
+                escape(packed.subSequence(start, Math.min(packed.length(), start + CHUNK)));
+                text.append('"');
+            }
+            text.append(");\n");
+        }
+
+        /**
+         * Writes chars as an ASCII string literal. Chars below 0x100 which are not printable are written
+         * as octal escapes rather than unicode escapes, because javac translates unicode escapes before
+         * it reads string literals, so an escaped line break or quote would end the literal.
+         */
+        private void escape(CharSequence chars) {
+            for (int i = 0; i < chars.length(); i++) {
+                char c = chars.charAt(i);
+                if (c == '"' || c == '\\') {
+                    text.append('\\').append(c);
+                }
+                else if (c >= PRINTABLE_FIRST && c <= PRINTABLE_LAST) {
+                    text.append(c);
+                }
+                else if (c <= LATIN_1_LAST) {
+                    text.append(String.format("\\%03o", (int) c));
+                }
+                else {
+                    text.append(String.format("\\u%04x", (int) c));
+                }
+            }
+        }
+
+        String finish() {
+            return text.append("\n    private ").append(className).append("() {\n    }\n}\n").toString();
+        }
+    }
+}
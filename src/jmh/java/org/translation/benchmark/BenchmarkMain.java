@@ -0,0 +1,59 @@
+package org.translation.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of target/benchmarks.jar.<br/>
+ * With arguments, it behaves exactly like the standard JMH command line. Without arguments,
+ * it runs every benchmark with the GC profiler (so each result reports allocated bytes per
+ * operation), then re-runs the translate hit benchmark at 1, 2, 4, ... threads, and finally at the
+ * number of cores, to show multithreaded scaling.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     * @param args standard JMH arguments, or none for the default suite
+     * @throws Exception if JMH fails to run
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        Options all = new OptionsBuilder()
+                .include(BenchmarkMain.class.getPackageName() + ".*")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(all).run();
+        runScaling();
+    }
+
+    private static void runScaling() throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(cores);
+        for (int threads : threadCounts) {
+            Options scaling = new OptionsBuilder()
+                    .include(TranslateBenchmark.class.getName() + ".hit")
+                    .param("countries", "10000")
+                    .param("languages", "35")
+                    .threads(threads)
+                    .build();
+            new Runner(scaling).run();
+        }
+    }
+}
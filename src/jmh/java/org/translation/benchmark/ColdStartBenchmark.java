@@ -0,0 +1,159 @@
+package org.translation.benchmark;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.translation.CountryCodeConverter;
+import org.translation.GeneratedTranslator;
+import org.translation.JSONTranslator;
+import org.translation.LanguageCodeConverter;
+import org.translation.TranslationBootstrap;
+import org.translation.TranslationLoader;
+import org.translation.TranslationTable;
+
+/**
+ * Measures construction cost: how long each class takes to read and parse its data.
+ * Each measurement is a single construction, so the numbers include the cold parse.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ColdStartBenchmark {
+
+    private static final int FRESH_FORKS = 10;
+    private static final int TEXT_LANGUAGES = 35;
+
+    /**
+     * The size of the synthetic dataset, kept in its own state so that only the
+     * synthetic benchmark is repeated for every size.
+     */
+    @State(Scope.Benchmark)
+    public static class Size {
+        @Param({"200", "10000", "100000"})
+        private int countries;
+
+        @Param({"35", "200"})
+        private int languages;
+    }
+
+    /**
+     * A synthetic dataset already rendered to JSON text, so that the serial and parallel
+     * parsers are compared on the same input without measuring its generation.
+     */
+    @State(Scope.Benchmark)
+    public static class Text {
+        @Param({"10000", "100000"})
+        private int countries;
+
+        private String json;
+
+        /**
+         * Renders the dataset to a string.
+         * @throws IOException never, since the dataset is generated in memory
+         */
+        @Setup
+        public void setUp() throws IOException {
+            StringWriter writer = new StringWriter();
+            try (Reader reader = SyntheticDataset.json(countries, TEXT_LANGUAGES)) {
+                reader.transferTo(writer);
+            }
+            json = writer.toString();
+        }
+    }
+
+    /**
+     * Constructs a JSONTranslator from sample.json.
+     * @return the translator
+     */
+    @Benchmark
+    public JSONTranslator jsonTranslatorSample() {
+        return new JSONTranslator();
+    }
+
+    /**
+     * Loads the synthetic dataset of the current size.
+     * @param size the size of the dataset
+     * @return the loaded table
+     */
+    @Benchmark
+    public TranslationTable jsonTranslatorSynthetic(Size size) {
+        return SyntheticDataset.table(size.countries, size.languages);
+    }
+
+    /**
+     * Constructs a CountryCodeConverter from country-codes.txt.
+     * @return the converter
+     */
+    @Benchmark
+    public CountryCodeConverter countryCodeConverter() {
+        return new CountryCodeConverter("country-codes.txt");
+    }
+
+    /**
+     * Constructs a LanguageCodeConverter from language-codes.txt.
+     * @return the converter
+     */
+    @Benchmark
+    public LanguageCodeConverter languageCodeConverter() {
+        return new LanguageCodeConverter("language-codes.txt");
+    }
+
+    /**
+     * Constructs a GeneratedTranslator and both code converters from the tables generated at build time.
+     * The tables are decoded once per JVM, so every measurement runs in a fresh fork with no warmup.
+     * @return the translator
+     */
+    @Benchmark
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(value = FRESH_FORKS, jvmArgsAppend = "-Xmx2g")
+    public Object[] generatedTables() {
+        return new Object[] {new GeneratedTranslator(), new CountryCodeConverter(), new LanguageCodeConverter()};
+    }
+
+    /**
+     * Loads sample.json and both code converters at the same time on the common pool.
+     * @return the loaded data
+     */
+    @Benchmark
+    public TranslationBootstrap bootstrap() {
+        return TranslationBootstrap.load();
+    }
+
+    /**
+     * Parses the JSON text on one thread.
+     * @param text the JSON text
+     * @return the loaded table
+     */
+    @Benchmark
+    public TranslationTable parseSerial(Text text) {
+        return TranslationLoader.load(new StringReader(text.json));
+    }
+
+    /**
+     * Parses the JSON text in chunks on the common pool.
+     * @param text the JSON text
+     * @return the loaded table
+     */
+    @Benchmark
+    public TranslationTable parseParallel(Text text) {
+        return TranslationLoader.loadParallel(text.json, ForkJoinPool.commonPool());
+    }
+}
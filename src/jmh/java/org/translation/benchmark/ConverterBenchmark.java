@@ -0,0 +1,95 @@
+package org.translation.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.translation.CountryCodeConverter;
+import org.translation.LanguageCodeConverter;
+
+/**
+ * Measures warm lookup throughput and latency of the code converters, for hits, misses
+ * and keys in a different case from the data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private CountryCodeConverter countryCodes;
+    private LanguageCodeConverter languageCodes;
+
+    /**
+     * Loads both converters from their resource files.
+     */
+    @Setup
+    public void setUp() {
+        countryCodes = new CountryCodeConverter();
+        languageCodes = new LanguageCodeConverter();
+    }
+
+    /**
+     * Looks up the code of a known country name.
+     * @return the country code
+     */
+    @Benchmark
+    public String fromCountryHit() {
+        return countryCodes.fromCountry("Canada");
+    }
+
+    /**
+     * Looks up the code of an unknown country name.
+     * @return null
+     */
+    @Benchmark
+    public String fromCountryMiss() {
+        return countryCodes.fromCountry("Atlantis");
+    }
+
+    /**
+     * Looks up a country by its code, given in the same case as the data.
+     * @return the country name
+     */
+    @Benchmark
+    public String fromCountryCodeHit() {
+        return countryCodes.fromCountryCode("CAN");
+    }
+
+    /**
+     * Looks up a country by its code, given in lower case while the data is in upper case.
+     * @return the country name
+     */
+    @Benchmark
+    public String fromCountryCodeMixedCase() {
+        return countryCodes.fromCountryCode("can");
+    }
+
+    /**
+     * Looks up the code of a known language name.
+     * @return the language code
+     */
+    @Benchmark
+    public String fromLanguageHit() {
+        return languageCodes.fromLanguage("German");
+    }
+
+    /**
+     * Looks up the code of an unknown language name.
+     * @return null
+     */
+    @Benchmark
+    public String fromLanguageMiss() {
+        return languageCodes.fromLanguage("Klingon");
+    }
+}
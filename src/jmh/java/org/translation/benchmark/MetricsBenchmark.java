@@ -0,0 +1,104 @@
+package org.translation.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.translation.JSONTranslator;
+import org.translation.TranslationTable;
+
+/**
+ * Measures what the opt-in instrumentation of {@link JSONTranslator} costs.<br/>
+ * "table" calls the TranslationTable directly and is the baseline; "disabled" goes through
+ * JSONTranslator.translate without -Dtranslation.metrics and should match the baseline;
+ * "enabled" forks with the metrics on, to show what the counters and histogram add.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MetricsBenchmark {
+
+    private static final int COUNTRIES = 10000;
+    private static final int LANGUAGES = 35;
+    private static final int KEYS = 1 << 12;
+    private static final int MASK = KEYS - 1;
+    private static final long SEED = 42;
+
+    private JSONTranslator translator;
+    private TranslationTable table;
+    private final String[] keyCountries = new String[KEYS];
+    private final String[] keyLanguages = new String[KEYS];
+
+    /**
+     * Loads the dataset and picks random keys up front, so that key generation is not measured.
+     */
+    @Setup
+    public void setUp() {
+        table = SyntheticDataset.table(COUNTRIES, LANGUAGES);
+        translator = new JSONTranslator(table);
+        Random random = new Random(SEED);
+        for (int i = 0; i < KEYS; i++) {
+            keyCountries[i] = SyntheticDataset.countryCode(random.nextInt(COUNTRIES));
+            keyLanguages[i] = SyntheticDataset.languageCode(random.nextInt(LANGUAGES));
+        }
+    }
+
+    /**
+     * Walks the key arrays independently in each thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next() {
+            next = (next + 1) & MASK;
+            return next;
+        }
+    }
+
+    /**
+     * Translates straight from the table, with no instrumentation at all.
+     * @param cursor the key position of this thread
+     * @return the translation
+     */
+    @Benchmark
+    public String table(Cursor cursor) {
+        int i = cursor.next();
+        return table.translate(keyCountries[i], keyLanguages[i]);
+    }
+
+    /**
+     * Translates through JSONTranslator with the metrics off.
+     * @param cursor the key position of this thread
+     * @return the translation
+     */
+    @Benchmark
+    public String disabled(Cursor cursor) {
+        int i = cursor.next();
+        return translator.translate(keyCountries[i], keyLanguages[i]);
+    }
+
+    /**
+     * Translates through JSONTranslator with the metrics on.
+     * @param cursor the key position of this thread
+     * @return the translation
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Dtranslation.metrics=true"})
+    public String enabled(Cursor cursor) {
+        int i = cursor.next();
+        return translator.translate(keyCountries[i], keyLanguages[i]);
+    }
+}
@@ -0,0 +1,129 @@
+package org.translation.benchmark;
+
+import java.io.Reader;
+
+import org.translation.TranslationLoader;
+import org.translation.TranslationTable;
+
+/**
+ * Generates translation data in the layout of sample.json, at any size.<br/>
+ * The JSON is produced lazily by a Reader, one country object at a time, so even the
+ * 100k countries by 200 languages dataset never exists as one String. Like the real data,
+ * many languages share a spelling, so each country only has a few distinct names.
+ */
+public final class SyntheticDataset {
+
+    private static final int NAME_VARIANTS = 8;
+    private static final int RADIX = 36;
+
+    private SyntheticDataset() {
+    }
+
+    /**
+     * Returns the code of the i-th synthetic country.
+     * @param country the index of the country
+     * @return the country code
+     */
+    public static String countryCode(int country) {
+        return "c" + Integer.toString(country, RADIX);
+    }
+
+    /**
+     * Returns the code of the j-th synthetic language.
+     * @param language the index of the language
+     * @return the language code
+     */
+    public static String languageCode(int language) {
+        return "l" + Integer.toString(language, RADIX);
+    }
+
+    /**
+     * Returns the name of the i-th synthetic country in the j-th synthetic language.
+     * @param country the index of the country
+     * @param language the index of the language
+     * @return the translated name
+     */
+    public static String name(int country, int language) {
+        return "Country " + country + " variant " + language % NAME_VARIANTS;
+    }
+
+    /**
+     * Returns a Reader producing a JSON array of the given number of countries, each translated
+     * into the given number of languages.
+     * @param countries the number of countries
+     * @param languages the number of languages per country
+     * @return a reader over the generated JSON
+     */
+    public static Reader json(int countries, int languages) {
+        return new JsonReader(countries, languages);
+    }
+
+    /**
+     * Builds a table holding the synthetic dataset of the given size.
+     * @param countries the number of countries
+     * @param languages the number of languages per country
+     * @return the loaded table
+     */
+    public static TranslationTable table(int countries, int languages) {
+        return TranslationLoader.load(json(countries, languages));
+    }
+
+    /**
+     * Generates the JSON text of one country at a time as it is read.
+     */
+    private static final class JsonReader extends Reader {
+        private final int countries;
+        private final int languages;
+        private final StringBuilder chunk = new StringBuilder();
+        private int nextCountry;
+        private int position;
+        private boolean finished;
+
+        JsonReader(int countries, int languages) {
+            this.countries = countries;
+            this.languages = languages;
+            chunk.append('[');
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == chunk.length() && !fill()) {
+                return -1;
+            }
+            int count = Math.min(length, chunk.length() - position);
+            chunk.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        private boolean fill() {
+            if (finished) {
+                return false;
+            }
+            chunk.setLength(0);
+            position = 0;
+            if (nextCountry == countries) {
+                chunk.append(']');
+                finished = true;
+                return true;
+            }
+            if (nextCountry > 0) {
+                chunk.append(",\n");
+            }
+            chunk.append("{\"id\": ").append(nextCountry)
+                    .append(", \"alpha3\": \"").append(countryCode(nextCountry)).append('"');
+            for (int language = 0; language < languages; language++) {
+                chunk.append(", \"").append(languageCode(language)).append("\": \"")
+                        .append(name(nextCountry, language)).append('"');
+            }
+            chunk.append('}');
+            nextCountry++;
+            return true;
+        }
+
+        @Override
+        public void close() {
+            finished = true;
+        }
+    }
+}
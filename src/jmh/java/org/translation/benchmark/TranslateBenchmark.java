@@ -0,0 +1,136 @@
+package org.translation.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.translation.FallbackChains;
+import org.translation.FallbackTranslator;
+import org.translation.JSONTranslator;
+
+/**
+ * Measures warm JSONTranslator.translate throughput and latency on synthetic data, for hits,
+ * misses and keys in a different case from the data. Run with "-prof gc" (as BenchmarkMain does)
+ * to see the allocation rate per operation, and with "-t N" for multithreaded scaling.
+ * "fallback" asks a FallbackTranslator for regional variants which are not in the data, so that
+ * every lookup falls back to the base language; it should cost the same as "hit".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TranslateBenchmark {
+
+    private static final int KEYS = 1 << 12;
+    private static final int MASK = KEYS - 1;
+    private static final long SEED = 42;
+    private static final String REGION = "-xx";
+
+    @Param({"200", "10000", "100000"})
+    private int countries;
+
+    @Param({"35", "200"})
+    private int languages;
+
+    private JSONTranslator translator;
+    private FallbackTranslator fallbackTranslator;
+    private final String[] hitCountries = new String[KEYS];
+    private final String[] missCountries = new String[KEYS];
+    private final String[] upperCaseCountries = new String[KEYS];
+    private final String[] keyLanguages = new String[KEYS];
+    private final String[] regionalLanguages = new String[KEYS];
+
+    /**
+     * Loads the dataset and picks random keys up front, so that key generation is not measured.
+     */
+    @Setup
+    public void setUp() {
+        translator = new JSONTranslator(SyntheticDataset.table(countries, languages));
+        List<String> regions = new ArrayList<>();
+        for (int language = 0; language < languages; language++) {
+            regions.add(SyntheticDataset.languageCode(language) + REGION);
+        }
+        fallbackTranslator = new FallbackTranslator(translator.getTable(), FallbackChains.standard(), regions);
+        Random random = new Random(SEED);
+        for (int i = 0; i < KEYS; i++) {
+            int country = random.nextInt(countries);
+            hitCountries[i] = SyntheticDataset.countryCode(country);
+            missCountries[i] = SyntheticDataset.countryCode(countries + country);
+            upperCaseCountries[i] = hitCountries[i].toUpperCase(Locale.ROOT);
+            keyLanguages[i] = SyntheticDataset.languageCode(random.nextInt(languages));
+            regionalLanguages[i] = keyLanguages[i] + REGION;
+        }
+    }
+
+    /**
+     * Walks the key arrays independently in each thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next() {
+            next = (next + 1) & MASK;
+            return next;
+        }
+    }
+
+    /**
+     * Translates a country and language which are both in the data.
+     * @param cursor the key position of this thread
+     * @return the translation
+     */
+    @Benchmark
+    public String hit(Cursor cursor) {
+        int i = cursor.next();
+        return translator.translate(hitCountries[i], keyLanguages[i]);
+    }
+
+    /**
+     * Translates a country which is not in the data.
+     * @param cursor the key position of this thread
+     * @return null
+     */
+    @Benchmark
+    public String miss(Cursor cursor) {
+        int i = cursor.next();
+        return translator.translate(missCountries[i], keyLanguages[i]);
+    }
+
+    /**
+     * Translates a country given in upper case while the data is in lower case.
+     * @param cursor the key position of this thread
+     * @return the translation
+     */
+    @Benchmark
+    public String mixedCase(Cursor cursor) {
+        int i = cursor.next();
+        return translator.translate(upperCaseCountries[i], keyLanguages[i]);
+    }
+
+    /**
+     * Translates into a regional variant missing from the data, which falls back to its base language.
+     * @param cursor the key position of this thread
+     * @return the translation
+     */
+    @Benchmark
+    public String fallback(Cursor cursor) {
+        int i = cursor.next();
+        return fallbackTranslator.translate(hitCountries[i], regionalLanguages[i]);
+    }
+}
@@ -0,0 +1,499 @@
+package org.translation;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Translates a whole file of (country, language) rows without any prompts, for batch jobs.<br/>
+ * Input is CSV with a header naming a "country" and a "language" column, or JSONL with one
+ * {"country": ..., "language": ...} object per line; either may be gzip-compressed. Countries and
+ * languages may be given as codes or as names, which are resolved through the code converters.
+ * Each output row repeats the input country and language and adds the translation, as CSV or JSONL
+ * depending on the output file name, gzip-compressed if it ends in ".gz".<br/>
+ * The input is read in chunks of lines which are parsed, translated and formatted in parallel, and
+ * written in input order. Only a fixed number of chunks is ever in flight, so memory use does not
+ * grow with the size of the file. A CSV field may be quoted, but may not span lines.
+ */
+public final class BatchTranslator {
+
+    /** The number of input lines handed to a worker at a time. */
+    public static final int DEFAULT_CHUNK_LINES = 4096;
+
+    private static final String COUNTRY = "country";
+    private static final String LANGUAGE = "language";
+    private static final String TRANSLATION = "translation";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // enough queued chunks that no worker waits on the reader, few enough to bound memory
+    private static final int CHUNKS_PER_WORKER = 2;
+
+    /**
+     * The file formats a batch can be read from and written to.
+     */
+    public enum Format {
+        /** Comma separated values with a header row. */
+        CSV,
+        /** One JSON object per line. */
+        JSONL;
+
+        /**
+         * Picks the format from a file name, ignoring any ".gz" suffix.
+         * @param file the file
+         * @return JSONL for names ending in ".jsonl" or ".json", otherwise CSV
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(GZIP_SUFFIX)) {
+                name = name.substring(0, name.length() - GZIP_SUFFIX.length());
+            }
+            if (name.endsWith(".jsonl") || name.endsWith(".json")) {
+                return JSONL;
+            }
+            return CSV;
+        }
+    }
+
+    private final Translator translator;
+    private final CountryCodeConverter countryCodes;
+    private final LanguageCodeConverter languageCodes;
+    private final int threads;
+    private final int chunkLines;
+
+    /**
+     * Creates a batch translator using the shared code converters, one worker per processor
+     * and the default chunk size.
+     * @param translator the translator to translate with
+     */
+    public BatchTranslator(Translator translator) {
+        this(translator, ConverterRegistry.countryCodes(), ConverterRegistry.languageCodes(),
+                Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_LINES);
+    }
+
+    /**
+     * Creates a batch translator.
+     * @param translator the translator to translate with
+     * @param countryCodes the converter resolving country names to codes
+     * @param languageCodes the converter resolving language names to codes
+     * @param threads the number of workers
+     * @param chunkLines the number of input lines handed to a worker at a time
+     */
+    public BatchTranslator(Translator translator, CountryCodeConverter countryCodes,
+                           LanguageCodeConverter languageCodes, int threads, int chunkLines) {
+        this.translator = translator;
+        this.countryCodes = countryCodes;
+        this.languageCodes = languageCodes;
+        this.threads = threads;
+        this.chunkLines = chunkLines;
+    }
+
+    /**
+     * Translates an input file into an output file, replacing the output and printing a report.
+     * @param args the input file and the output file
+     * @throws IOException if a file can't be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("usage: BatchTranslator <input.csv|.jsonl[.gz]> <output.csv|.jsonl[.gz]>");
+            return;
+        }
+        Report report = new BatchTranslator(TranslationBootstrap.load().getTranslator())
+                .translate(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println(report);
+    }
+
+    /**
+     * Translates every row of the input file into the output file, choosing each format from its name.
+     * @param input the input file, CSV or JSONL, optionally gzip-compressed
+     * @param output the output file, CSV or JSONL, gzip-compressed if its name ends in ".gz"
+     * @return the number of rows translated and how long it took
+     * @throws IOException if a file can't be read or written
+     * @throws RuntimeException if a row can't be parsed
+     */
+    public Report translate(Path input, Path output) throws IOException {
+        try (BufferedReader reader = ResourceLoader.open(input);
+             OutputStream out = openOutput(output)) {
+            return translate(reader, Format.of(input), out, Format.of(output));
+        }
+    }
+
+    private static OutputStream openOutput(Path output) throws IOException {
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(output), BUFFER_SIZE);
+        if (output.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(GZIP_SUFFIX)) {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        return out;
+    }
+
+    /**
+     * Translates every row read from the reader and writes the results to the stream, in input order.
+     * Neither the reader nor the stream is closed.
+     * @param reader the input
+     * @param inputFormat the format of the input
+     * @param out the output, written as UTF-8
+     * @param outputFormat the format to write
+     * @return the number of rows translated and how long it took
+     * @throws IOException if the input can't be read or the output can't be written
+     * @throws RuntimeException if a row can't be parsed
+     */
+    public Report translate(BufferedReader reader, Format inputFormat, OutputStream out, Format outputFormat)
+            throws IOException {
+        long start = System.nanoTime();
+        int[] columns = null;
+        long lineNumber = 1;
+        if (inputFormat == Format.CSV) {
+            columns = headerColumns(reader.readLine());
+            lineNumber++;
+        }
+        if (outputFormat == Format.CSV) {
+            out.write((COUNTRY + ',' + LANGUAGE + ',' + TRANSLATION + '\n').getBytes(StandardCharsets.UTF_8));
+        }
+        long rows = 0;
+        long misses = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<Chunk>> inFlight = new ArrayDeque<>();
+        try {
+            List<String> lines = readChunk(reader);
+            while (!lines.isEmpty()) {
+                Chunk chunk = new Chunk(lines, lineNumber, inputFormat, columns, outputFormat);
+                lineNumber += lines.size();
+                inFlight.add(pool.submit(() -> process(chunk)));
+                if (inFlight.size() >= threads * CHUNKS_PER_WORKER) {
+                    Chunk done = await(inFlight.poll());
+                    out.write(done.output);
+                    rows += done.rows;
+                    misses += done.misses;
+                }
+                lines = readChunk(reader);
+            }
+            while (!inFlight.isEmpty()) {
+                Chunk done = await(inFlight.poll());
+                out.write(done.output);
+                rows += done.rows;
+                misses += done.misses;
+            }
+        }
+        finally {
+            pool.shutdownNow();
+        }
+        out.flush();
+        return new Report(rows, misses, System.nanoTime() - start);
+    }
+
+    private List<String> readChunk(BufferedReader reader) throws IOException {
+        List<String> lines = new ArrayList<>(chunkLines);
+        String line = reader.readLine();
+        while (line != null) {
+            lines.add(line);
+            if (lines.size() == chunkLines) {
+                break;
+            }
+            line = reader.readLine();
+        }
+        return lines;
+    }
+
+    private static Chunk await(Future<Chunk> task) throws IOException {
+        try {
+            return task.get();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) ex.getCause()).getCause();
+            }
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new RuntimeException(ex.getCause());
+        }
+    }
+
+    /**
+     * Parses, resolves, translates and formats one chunk, on a worker.
+     */
+    private Chunk process(Chunk chunk) {
+        List<String> inputCountries = new ArrayList<>(chunk.lines.size());
+        List<String> inputLanguages = new ArrayList<>(chunk.lines.size());
+        for (int i = 0; i < chunk.lines.size(); i++) {
+            String line = chunk.lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                if (chunk.inputFormat == Format.CSV) {
+                    List<String> fields = splitCsv(line);
+                    inputCountries.add(field(fields, chunk.columns[0]));
+                    inputLanguages.add(field(fields, chunk.columns[1]));
+                }
+                else {
+                    JSONObject row = new JSONObject(line);
+                    inputCountries.add(row.optString(COUNTRY, null));
+                    inputLanguages.add(row.optString(LANGUAGE, null));
+                }
+            }
+            catch (JSONException | IllegalArgumentException ex) {
+                throw new RuntimeException("Line " + (chunk.firstLine + i) + ": " + ex.getMessage(), ex);
+            }
+        }
+        List<String> countries = new ArrayList<>(inputCountries.size());
+        List<String> languages = new ArrayList<>(inputLanguages.size());
+        for (int i = 0; i < inputCountries.size(); i++) {
+            countries.add(countryCode(inputCountries.get(i)));
+            languages.add(languageCode(inputLanguages.get(i)));
+        }
+        String[] translations = translator.translateAll(countries, languages);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            for (int i = 0; i < translations.length; i++) {
+                if (translations[i] == null) {
+                    chunk.misses++;
+                }
+                write(out, chunk.outputFormat, inputCountries.get(i), inputLanguages.get(i), translations[i]);
+            }
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        chunk.rows = translations.length;
+        chunk.output = out.toByteArray();
+        return chunk;
+    }
+
+    private String countryCode(String country) {
+        if (country == null) {
+            return null;
+        }
+        String code = countryCodes.fromCountry(country);
+        if (code == null) {
+            // not a name, so take it as a code; the translator ignores its case
+            return country;
+        }
+        return code;
+    }
+
+    private String languageCode(String language) {
+        if (language == null) {
+            return null;
+        }
+        String code = languageCodes.fromLanguage(language);
+        if (code == null) {
+            return language;
+        }
+        return code;
+    }
+
+    private static void write(OutputStream out, Format format, String country, String language,
+                              String translation) throws IOException {
+        if (format == Format.JSONL) {
+            new JsonWriter(out).beginObject().name(COUNTRY).value(country).name(LANGUAGE).value(language)
+                    .name(TRANSLATION).value(translation).endObject();
+        }
+        else {
+            StringBuilder line = new StringBuilder();
+            appendCsv(line, country);
+            line.append(',');
+            appendCsv(line, language);
+            line.append(',');
+            appendCsv(line, translation);
+            out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        out.write('\n');
+    }
+
+    private static int[] headerColumns(String header) {
+        if (header == null) {
+            return new int[] {0, 1};
+        }
+        List<String> names = splitCsv(header);
+        int country = names.indexOf(COUNTRY);
+        int language = names.indexOf(LANGUAGE);
+        if (country < 0 || language < 0) {
+            throw new RuntimeException("Line 1: the CSV header must name a \"" + COUNTRY + "\" and a \""
+                    + LANGUAGE + "\" column but was " + names);
+        }
+        return new int[] {country, language};
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column >= fields.size() || fields.get(column).isEmpty()) {
+            return null;
+        }
+        return fields.get(column);
+    }
+
+    /**
+     * Splits one CSV line into fields, unquoting quoted fields.
+     * @throws IllegalArgumentException if a quoted field is not closed
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (i <= line.length()) {
+            field.setLength(0);
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= line.length()) {
+                        throw new IllegalArgumentException("unterminated quoted field");
+                    }
+                    char c = line.charAt(i++);
+                    if (c == '"') {
+                        if (i < line.length() && line.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        }
+                        else {
+                            break;
+                        }
+                    }
+                    else {
+                        field.append(c);
+                    }
+                }
+                // skip anything between the closing quote and the next comma
+                while (i < line.length() && line.charAt(i) != ',') {
+                    i++;
+                }
+            }
+            else {
+                int end = line.indexOf(',', i);
+                if (end < 0) {
+                    end = line.length();
+                }
+                field.append(line, i, end);
+                i = end;
+            }
+            fields.add(field.toString().trim());
+            i++;
+        }
+        return fields;
+    }
+
+    private static void appendCsv(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    /**
+     * One chunk of input lines and, once processed, its formatted output.
+     */
+    private static final class Chunk {
+        private final List<String> lines;
+        private final long firstLine;
+        private final Format inputFormat;
+        private final int[] columns;
+        private final Format outputFormat;
+        private byte[] output;
+        private int rows;
+        private int misses;
+
+        Chunk(List<String> lines, long firstLine, Format inputFormat, int[] columns, Format outputFormat) {
+            this.lines = lines;
+            this.firstLine = firstLine;
+            this.inputFormat = inputFormat;
+            this.columns = columns;
+            this.outputFormat = outputFormat;
+        }
+    }
+
+    /**
+     * The outcome of one batch: how many rows were translated, how many had no translation,
+     * and how long it took.
+     */
+    public static final class Report {
+        private final long rows;
+        private final long misses;
+        private final long nanos;
+
+        Report(long rows, long misses, long nanos) {
+            this.rows = rows;
+            this.misses = misses;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns how many rows were translated.
+         * @return the number of rows
+         */
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * Returns how many rows had no translation.
+         * @return the number of rows without a translation
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Returns how long the batch took, from the first read to the last write.
+         * @return the elapsed time in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the throughput of the batch.
+         * @return the rows translated per second
+         */
+        public double rowsPerSecond() {
+            if (nanos == 0) {
+                return 0;
+            }
+            return rows * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Translated %d rows (%d without a translation) in %.2f s: %.0f rows/s", rows,
+                    misses, nanos / (double) TimeUnit.SECONDS.toNanos(1), rowsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package org.translation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A Translator decorator which caches the results of translate for another Translator,
+ * for backends where a lookup is expensive.<br/>
+ * The cache holds at most a fixed number of translations, split W-TinyLFU style into a small admission
+ * window (1%) and a main space. A new translation always enters the window, which is kept in LRU order.
+ * When it leaves the window, it only moves into a full main space if it has recently been asked for
+ * more often than the main space's least recently used probationary entry, which it then evicts, so a
+ * burst of one-off lookups cannot flush the few hot pairs that dominate real traffic. Entries read again
+ * while probationary are promoted to a protected segment of the main space (80% of it).<br/>
+ * Reads never lock and never write shared state beyond a per-thread slot: hits are recorded in a striped,
+ * lossy buffer which is drained into the frequency sketch and the LRU order under the eviction lock,
+ * whenever a ring of the buffer fills or a translation is added.<br/>
+ * Pairs without a translation are remembered in a separate, equally bounded set, for a limited time,
+ * so that a miss is asked for again once the underlying data may have been reloaded. Call
+ * {@link #invalidate} or {@link #invalidateAll} after changing the underlying data to drop cached
+ * answers at once. getCountries and getCountryLanguages are passed straight through.
+ */
+public class CachingTranslator implements Translator {
+
+    /** How long a pair without a translation is remembered, unless the constructor says otherwise. */
+    public static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofMinutes(1);
+
+    private static final int PERCENT = 100;
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+
+    private final Translator delegate;
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int mainMaximum;
+    private final int protectedMaximum;
+    private final int maximumNegativeSize;
+    private final long negativeTtlNanos;
+    private final LongSupplier ticker;
+    // keyed by country, then by language, so that a lookup allocates nothing
+    private final Map<String, Map<String, Node>> data = new ConcurrentHashMap<>();
+    private final ReadBuffer<Node> readBuffer = new ReadBuffer<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    // only used while holding evictionLock
+    private final FrequencySketch sketch;
+    private final AccessOrder window = new AccessOrder();
+    private final AccessOrder probation = new AccessOrder();
+    private final AccessOrder protectedOrder = new AccessOrder();
+    private final AccessOrder negative = new AccessOrder();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder negativeHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder rejectionCount = new LongAdder();
+
+    /**
+     * Constructs a cache of at most maximumSize translations and maximumSize missing pairs.
+     * @param delegate the Translator whose results are cached
+     * @param maximumSize the maximum number of entries of each kind
+     */
+    public CachingTranslator(Translator delegate, int maximumSize) {
+        this(delegate, maximumSize, maximumSize);
+    }
+
+    /**
+     * Constructs a cache with separate bounds for translations and for missing pairs, which are
+     * remembered for {@link #DEFAULT_NEGATIVE_TTL}.
+     * @param delegate the Translator whose results are cached
+     * @param maximumSize the maximum number of cached translations
+     * @param maximumNegativeSize the maximum number of cached pairs without a translation
+     * @throws IllegalArgumentException if either bound is negative
+     */
+    public CachingTranslator(Translator delegate, int maximumSize, int maximumNegativeSize) {
+        this(delegate, maximumSize, maximumNegativeSize, DEFAULT_NEGATIVE_TTL);
+    }
+
+    /**
+     * Constructs a cache with separate bounds for translations and for missing pairs, and a time
+     * after which a missing pair is asked for again.
+     * @param delegate the Translator whose results are cached
+     * @param maximumSize the maximum number of cached translations
+     * @param maximumNegativeSize the maximum number of cached pairs without a translation
+     * @param negativeTtl how long a pair without a translation is remembered
+     * @throws IllegalArgumentException if either bound is negative, or the time is negative
+     */
+    public CachingTranslator(Translator delegate, int maximumSize, int maximumNegativeSize, Duration negativeTtl) {
+        this(delegate, maximumSize, maximumNegativeSize, negativeTtl, System::nanoTime);
+    }
+
+    CachingTranslator(Translator delegate, int maximumSize, int maximumNegativeSize, Duration negativeTtl,
+                      LongSupplier ticker) {
+        if (maximumSize < 0 || maximumNegativeSize < 0) {
+            throw new IllegalArgumentException("Cache sizes must not be negative");
+        }
+        if (negativeTtl.isNegative()) {
+            throw new IllegalArgumentException("The negative entry lifetime must not be negative");
+        }
+        this.delegate = delegate;
+        this.maximumSize = maximumSize;
+        this.windowMaximum = maximumSize == 0 ? 0 : Math.max(1, maximumSize * WINDOW_PERCENT / PERCENT);
+        this.mainMaximum = maximumSize - windowMaximum;
+        this.protectedMaximum = mainMaximum * PROTECTED_PERCENT / PERCENT;
+        this.maximumNegativeSize = maximumNegativeSize;
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.ticker = ticker;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    @Override
+    public List<String> getCountryLanguages(String country) {
+        return delegate.getCountryLanguages(country);
+    }
+
+    @Override
+    public List<String> getCountries() {
+        return delegate.getCountries();
+    }
+
+    @Override
+    public SortedListing getSortedCountries(String language, Locale locale) {
+        return delegate.getSortedCountries(language, locale);
+    }
+
+    @Override
+    public String translate(String country, String language) {
+        if (country == null || language == null) {
+            return delegate.translate(country, language);
+        }
+        Node node = find(country, language);
+        if (node != null) {
+            if (node.value != null) {
+                hitCount.increment();
+                afterRead(node);
+                return node.value;
+            }
+            if (!node.isExpired(ticker.getAsLong())) {
+                negativeHitCount.increment();
+                return null;
+            }
+        }
+        missCount.increment();
+        String translation = delegate.translate(country, language);
+        long expiresAt = 0;
+        if (translation == null) {
+            expiresAt = ticker.getAsLong() + negativeTtlNanos;
+        }
+        afterWrite(new Node(country, language, translation, expiresAt));
+        return translation;
+    }
+
+    /**
+     * Drops any cached answer for the given pair, so that the next lookup asks the underlying Translator.
+     * @param country the country code
+     * @param language the language code
+     */
+    public void invalidate(String country, String language) {
+        if (country == null || language == null) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            drainReads();
+            Node node = find(country, language);
+            if (node != null) {
+                remove(node);
+            }
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Drops every cached answer, for example after the underlying data was reloaded.
+     */
+    public void invalidateAll() {
+        evictionLock.lock();
+        try {
+            drainReads();
+            for (AccessOrder order : List.of(window, probation, protectedOrder, negative)) {
+                while (order.head != null) {
+                    remove(order.head);
+                }
+            }
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private Node find(String country, String language) {
+        Map<String, Node> languages = data.get(country);
+        if (languages == null) {
+            return null;
+        }
+        return languages.get(language);
+    }
+
+    private void afterRead(Node node) {
+        if (readBuffer.offer(node) == ReadBuffer.FULL && evictionLock.tryLock()) {
+            try {
+                drainReads();
+            }
+            finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void afterWrite(Node node) {
+        if ((node.value == null ? maximumNegativeSize : maximumSize) == 0) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            drainReads();
+            expireNegatives();
+            Node existing = find(node.country, node.language);
+            if (existing != null) {
+                if (existing.value != null || !existing.isExpired(ticker.getAsLong())) {
+                    // another thread added the pair while this one asked the underlying Translator
+                    return;
+                }
+                remove(existing);
+            }
+            data.computeIfAbsent(node.country, key -> new ConcurrentHashMap<>()).put(node.language, node);
+            if (node.value == null) {
+                negative.addLast(node);
+                while (negative.size > maximumNegativeSize) {
+                    remove(negative.head);
+                }
+            }
+            else {
+                sketch.increment(node.hash);
+                window.addLast(node);
+                evict();
+            }
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void drainReads() {
+        readBuffer.drain(this::onAccess);
+    }
+
+    /**
+     * Records one read of a cached translation: counts it in the sketch and moves the entry up its LRU
+     * order, promoting a probationary entry to the protected segment.
+     */
+    private void onAccess(Node node) {
+        if (node.order == null) {
+            // evicted or invalidated since it was read
+            return;
+        }
+        sketch.increment(node.hash);
+        if (node.order == window || node.order == protectedOrder) {
+            node.order.moveToLast(node);
+            return;
+        }
+        probation.remove(node);
+        protectedOrder.addLast(node);
+        while (protectedOrder.size > protectedMaximum) {
+            Node demoted = protectedOrder.head;
+            protectedOrder.remove(demoted);
+            probation.addLast(demoted);
+        }
+    }
+
+    /**
+     * Moves entries from the window into the main space while the window is over its size. Once the main
+     * space is full, each one competes with the least recently used probationary entry, and the one asked
+     * for less often is evicted.
+     */
+    private void evict() {
+        while (window.size > windowMaximum) {
+            Node candidate = window.head;
+            window.remove(candidate);
+            probation.addLast(candidate);
+            if (probation.size + protectedOrder.size <= mainMaximum) {
+                continue;
+            }
+            Node victim = probation.head;
+            if (victim != candidate && sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+                remove(victim);
+                evictionCount.increment();
+            }
+            else {
+                remove(candidate);
+                rejectionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * Drops pairs without a translation whose time is up. They all live equally long, so the oldest
+     * come first.
+     */
+    private void expireNegatives() {
+        long now = ticker.getAsLong();
+        while (negative.head != null && negative.head.isExpired(now)) {
+            remove(negative.head);
+        }
+    }
+
+    private void remove(Node node) {
+        node.order.remove(node);
+        Map<String, Node> languages = data.get(node.country);
+        if (languages != null) {
+            languages.remove(node.language, node);
+            if (languages.isEmpty()) {
+                data.remove(node.country, languages);
+            }
+        }
+    }
+
+    /**
+     * Returns how many translate calls were answered with a cached translation.
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns how many translate calls were answered from the cache of pairs without a translation.
+     * @return the number of negative hits
+     */
+    public long getNegativeHitCount() {
+        return negativeHitCount.sum();
+    }
+
+    /**
+     * Returns how many translate calls had to ask the underlying Translator.
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns how many cached translations were evicted to make room for more frequent ones.
+     * @return the number of evictions
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Returns how many translations left the cache on leaving the admission window, because they were
+     * less frequent than the entry they would have evicted.
+     * @return the number of rejected translations
+     */
+    public long getRejectionCount() {
+        return rejectionCount.sum();
+    }
+
+    /**
+     * Returns how many translations are currently cached.
+     * @return the number of cached translations
+     */
+    public int size() {
+        evictionLock.lock();
+        try {
+            return window.size + probation.size + protectedOrder.size;
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * One cached answer. The key and answer are fixed; the links, which place it in one of the
+     * access orders, are only touched while holding the eviction lock.
+     */
+    private static final class Node {
+        private final String country;
+        private final String language;
+        private final String value;
+        private final long expiresAt;
+        private final int hash;
+        private AccessOrder order;
+        private Node previous;
+        private Node next;
+
+        Node(String country, String language, String value, long expiresAt) {
+            this.country = country;
+            this.language = language;
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.hash = 31 * country.hashCode() + language.hashCode();
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * A doubly linked list of nodes, least recently used first.
+     */
+    private static final class AccessOrder {
+        private Node head;
+        private Node tail;
+        private int size;
+
+        void addLast(Node node) {
+            node.order = this;
+            node.previous = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            }
+            else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        void remove(Node node) {
+            if (node.previous == null) {
+                head = node.next;
+            }
+            else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.previous;
+            }
+            else {
+                node.next.previous = node.previous;
+            }
+            node.order = null;
+            node.previous = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.translation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A Translator layering several sources, for example manual overrides on top of a JSONTranslator
+ * dataset. For each (country, language) pair, the first source in the list with a translation wins.<br/>
+ * The sources are merged once, when the composite is built, into a single index; so translate
+ * is one lookup and getCountries/getCountryLanguages return precomputed lists, however many
+ * layers there are. When one source changes, {@link #replaceSource} re-reads only that source and
+ * re-merges only the countries it had or has, then publishes the new index atomically.
+ * Country codes are matched ignoring case, and getCountries lists each code as the highest priority
+ * source which has it spells it. Reads never lock.
+ */
+public class CompositeTranslator implements Translator {
+
+    private final List<Translator> sources;
+    private final List<Contribution> contributions = new ArrayList<>();
+    private volatile Index index;
+
+    /**
+     * Builds a composite of the given sources, highest priority first.
+     * @param sources the sources, highest priority first
+     */
+    public CompositeTranslator(List<? extends Translator> sources) {
+        this.sources = new ArrayList<>(sources);
+        Map<String, Entry> entries = new HashMap<>();
+        Set<String> countries = new LinkedHashSet<>();
+        for (Translator source : this.sources) {
+            Contribution contribution = read(source);
+            contributions.add(contribution);
+            countries.addAll(contribution.names.keySet());
+        }
+        for (String country : countries) {
+            entries.put(country, merge(country));
+        }
+        this.index = new Index(entries, countryOrder());
+    }
+
+    /**
+     * Replaces the source at the given position, or re-reads it if it is the same object whose
+     * data changed, and updates the merged index for the countries that source covers.
+     * @param position the position of the source in the list given to the constructor
+     * @param source the new source
+     */
+    public synchronized void replaceSource(int position, Translator source) {
+        sources.set(position, source);
+        Contribution oldContribution = contributions.get(position);
+        Contribution newContribution = read(source);
+        contributions.set(position, newContribution);
+
+        Set<String> affected = new LinkedHashSet<>(oldContribution.names.keySet());
+        affected.addAll(newContribution.names.keySet());
+        // copy-on-write: unaffected countries keep their existing entries
+        Map<String, Entry> entries = new HashMap<>(index.entries);
+        for (String country : affected) {
+            Entry entry = merge(country);
+            if (entry == null) {
+                entries.remove(country);
+            }
+            else {
+                entries.put(country, entry);
+            }
+        }
+        index = new Index(entries, countryOrder());
+    }
+
+    /**
+     * Re-reads the source at the given position after its data changed. Holds the same lock as
+     * replaceSource, so a concurrent replacement is never undone by re-reading the source it replaced.
+     * @param position the position of the source in the list given to the constructor
+     */
+    public synchronized void refreshSource(int position) {
+        replaceSource(position, sources.get(position));
+    }
+
+    @Override
+    public List<String> getCountryLanguages(String country) {
+        Entry entry = index.get(country);
+        if (entry == null) {
+            return List.of();
+        }
+        return entry.languages;
+    }
+
+    @Override
+    public List<String> getCountries() {
+        return index.countries;
+    }
+
+    @Override
+    public String translate(String country, String language) {
+        Entry entry = index.get(country);
+        if (entry == null) {
+            return null;
+        }
+        return entry.names.get(language);
+    }
+
+    @Override
+    public Map<String, String> translateCountry(String country) {
+        Entry entry = index.get(country);
+        if (entry == null) {
+            return new LinkedHashMap<>();
+        }
+        return new LinkedHashMap<>(entry.names);
+    }
+
+    private static Contribution read(Translator source) {
+        Contribution contribution = new Contribution();
+        for (String country : source.getCountries()) {
+            Map<String, String> names = new LinkedHashMap<>();
+            for (Map.Entry<String, String> name : source.translateCountry(country).entrySet()) {
+                if (name.getValue() != null) {
+                    names.put(name.getKey(), name.getValue());
+                }
+            }
+            if (!names.isEmpty()) {
+                String key = country.toLowerCase(Locale.ROOT);
+                contribution.codes.putIfAbsent(key, country);
+                contribution.names.computeIfAbsent(key, unused -> new LinkedHashMap<>()).putAll(names);
+            }
+        }
+        return contribution;
+    }
+
+    /**
+     * Merges one country across all sources, letting earlier sources win.
+     * @return the merged entry, or null if no source has the country any more
+     */
+    private Entry merge(String country) {
+        Map<String, String> names = new LinkedHashMap<>();
+        for (Contribution contribution : contributions) {
+            Map<String, String> sourceNames = contribution.names.get(country);
+            if (sourceNames != null) {
+                for (Map.Entry<String, String> name : sourceNames.entrySet()) {
+                    names.putIfAbsent(name.getKey(), name.getValue());
+                }
+            }
+        }
+        if (names.isEmpty()) {
+            return null;
+        }
+        return new Entry(names);
+    }
+
+    private List<String> countryOrder() {
+        Map<String, String> countries = new LinkedHashMap<>();
+        for (Contribution contribution : contributions) {
+            for (Map.Entry<String, String> code : contribution.codes.entrySet()) {
+                countries.putIfAbsent(code.getKey(), code.getValue());
+            }
+        }
+        return Collections.unmodifiableList(new ArrayList<>(countries.values()));
+    }
+
+    /**
+     * The translations read from one source, keyed by lower case country code, plus the code as
+     * the source spells it.
+     */
+    private static final class Contribution {
+        private final Map<String, String> codes = new LinkedHashMap<>();
+        private final Map<String, Map<String, String>> names = new LinkedHashMap<>();
+    }
+
+    /**
+     * The merged translations of one country.
+     */
+    private static final class Entry {
+        private final List<String> languages;
+        private final Map<String, String> names;
+
+        Entry(Map<String, String> names) {
+            this.names = Collections.unmodifiableMap(names);
+            this.languages = Collections.unmodifiableList(new ArrayList<>(names.keySet()));
+        }
+    }
+
+    /**
+     * One published version of the merged index.
+     */
+    private static final class Index {
+        private final Map<String, Entry> entries;
+        private final List<String> countries;
+
+        Index(Map<String, Entry> entries, List<String> countries) {
+            this.entries = entries;
+            this.countries = countries;
+        }
+
+        Entry get(String country) {
+            if (country == null) {
+                return null;
+            }
+            Entry entry = entries.get(country);
+            if (entry == null) {
+                entry = entries.get(country.toLowerCase(Locale.ROOT));
+            }
+            return entry;
+        }
+    }
+}
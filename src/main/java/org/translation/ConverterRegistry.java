@@ -0,0 +1,101 @@
+package org.translation;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A shared registry of code converters, so that each resource file is read and parsed
+ * at most once per process instead of once per use.<br/>
+ * Converters are loaded lazily on first use and cached per filename. Lookups of a converter
+ * which is already loaded never lock; concurrent first uses of the same file wait for a single
+ * load rather than parsing it twice, and only ever see a fully constructed converter.<br/>
+ * The default files are first served from the tables generated from them at build time, which reads
+ * nothing. Once a default file is invalidated, for example because it changed on disk, it is read from
+ * the file like any other, so that the next use sees the new contents.
+ */
+public final class ConverterRegistry {
+
+    private static final String COUNTRY_CODES = "country-codes.txt";
+    private static final String LANGUAGE_CODES = "language-codes.txt";
+
+    private static final Map<String, CountryCodeConverter> COUNTRY_CONVERTERS = new ConcurrentHashMap<>();
+    private static final Map<String, LanguageCodeConverter> LANGUAGE_CONVERTERS = new ConcurrentHashMap<>();
+    // default files which were invalidated, and so may no longer match the generated tables
+    private static final Set<String> INVALIDATED = ConcurrentHashMap.newKeySet();
+
+    private ConverterRegistry() {
+    }
+
+    /**
+     * Returns the shared converter for "country-codes.txt", loading it on first use.
+     * Until the file is invalidated, it is built from the tables generated from that file at build time,
+     * so it reads nothing.
+     * @return the shared country code converter
+     */
+    public static CountryCodeConverter countryCodes() {
+        return countryCodes(COUNTRY_CODES);
+    }
+
+    /**
+     * Returns the shared converter for the given resource file, loading it on first use.
+     * @param filename the name of the file in the resources folder to load the data from
+     * @return the shared country code converter for that file
+     * @throws RuntimeException if the resource file can't be loaded properly
+     */
+    public static CountryCodeConverter countryCodes(String filename) {
+        return COUNTRY_CONVERTERS.computeIfAbsent(filename, name -> {
+            if (COUNTRY_CODES.equals(name) && !INVALIDATED.contains(name)) {
+                return new CountryCodeConverter();
+            }
+            return new CountryCodeConverter(name);
+        });
+    }
+
+    /**
+     * Returns the shared converter for "language-codes.txt", loading it on first use.
+     * Until the file is invalidated, it is built from the tables generated from that file at build time,
+     * so it reads nothing.
+     * @return the shared language code converter
+     */
+    public static LanguageCodeConverter languageCodes() {
+        return languageCodes(LANGUAGE_CODES);
+    }
+
+    /**
+     * Returns the shared converter for the given resource file, loading it on first use.
+     * @param filename the name of the file in the resources folder to load the data from
+     * @return the shared language code converter for that file
+     * @throws RuntimeException if the resource file can't be loaded properly
+     */
+    public static LanguageCodeConverter languageCodes(String filename) {
+        return LANGUAGE_CONVERTERS.computeIfAbsent(filename, name -> {
+            if (LANGUAGE_CODES.equals(name) && !INVALIDATED.contains(name)) {
+                return new LanguageCodeConverter();
+            }
+            return new LanguageCodeConverter(name);
+        });
+    }
+
+    /**
+     * Drops any cached converter for the given file, so that the next use reloads it from the file,
+     * even for a default file first served from generated tables.
+     * Callers already holding the old converter keep using it unchanged.
+     * @param filename the name of the file in the resources folder
+     */
+    public static void invalidate(String filename) {
+        INVALIDATED.add(filename);
+        COUNTRY_CONVERTERS.remove(filename);
+        LANGUAGE_CONVERTERS.remove(filename);
+    }
+
+    /**
+     * Drops every cached converter, so that each is reloaded from its file on next use.
+     */
+    public static void invalidateAll() {
+        INVALIDATED.add(COUNTRY_CODES);
+        INVALIDATED.add(LANGUAGE_CODES);
+        COUNTRY_CONVERTERS.clear();
+        LANGUAGE_CONVERTERS.clear();
+    }
+}
@@ -1,56 +1,61 @@
 package org.translation;
 
 import java.io.IOException;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.List;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class provides the service of converting country codes to their names.
+ * The data is held in a {@link CountryCodeTable}, so lookups by code ignore case without allocating.
  */
 public class CountryCodeConverter {
-    private static final int MIN_PARTS_LENGTH = 4;
-    private final Map<String, String> countryCode = new HashMap<>();
-    private final Map<String, String> reverseMap = new HashMap<>();
+    private static final MethodMetrics LOAD = TranslationMetrics.method("CountryCodeConverter.load");
+    private static final MethodMetrics FROM_COUNTRY_CODE =
+            TranslationMetrics.method("CountryCodeConverter.fromCountryCode");
+    private static final MethodMetrics FROM_COUNTRY = TranslationMetrics.method("CountryCodeConverter.fromCountry");
+    private final CountryCodeTable table;
+    private final Map<Locale, SortedListing> sortedNames = new ConcurrentHashMap<>();
 
     /**
-     * Default constructor which will load the country codes from "country-codes.txt"
-     * in the resources folder.
+     * Default constructor which uses the country codes of "country-codes.txt" in the resources folder,
+     * as compiled into constant tables at build time, so it reads and parses nothing.
      */
     public CountryCodeConverter() {
-        this("country-codes.txt");
+        table = CountryCodeTable.generated();
     }
 
     /**
      * Overloaded constructor which allows us to specify the filename to load the country code data from.
+     * The file may also be a filesystem path, and may be gzip-compressed (see {@link ResourceLoader}).
      * @param filename the name of the file in the resources folder to load the data from
      * @throws RuntimeException if the resource file can't be loaded properly
      */
     public CountryCodeConverter(String filename) {
+        long start = System.nanoTime();
         try {
-            var resource = getClass().getClassLoader().getResource(filename);
-
-            if (resource == null) {
-                throw new RuntimeException("Resource not found: " + filename);
-            }
-
-            List<String> lines = Files.readAllLines(Paths.get(resource.toURI()));
-            for (int i = 1; i < lines.size(); i++) {
-                String line = lines.get(i);
-                String[] parts = line.split("\t");
-                if (parts.length >= MIN_PARTS_LENGTH) {
-                    String countryName = parts[0].trim();
-                    String alpha3Code = parts[2].trim();
+            table = CountryCodeTable.fromLines(ResourceLoader.readLines(filename));
+        }
+        catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        if (TranslationMetrics.ENABLED) {
+            LOAD.record(start, true);
+        }
+    }
 
-                    countryCode.put(countryName, alpha3Code);
-                    reverseMap.put(alpha3Code, countryName);
-                }
-            }
+    /**
+     * Overloaded constructor which loads the country code data from a file outside the resources folder.
+     * @param file the path of the file to load the data from
+     * @throws RuntimeException if the file can't be loaded properly
+     */
+    public CountryCodeConverter(Path file) {
+        try {
+            table = CountryCodeTable.fromLines(ResourceLoader.readLines(file));
         }
-        catch (IOException | URISyntaxException ex) {
+        catch (IOException ex) {
             throw new RuntimeException(ex);
         }
     }
@@ -61,7 +66,13 @@ public class CountryCodeConverter {
      * @return the name of the country corresponding to the code
      */
     public String fromCountryCode(String code) {
-        return reverseMap.get(code.toUpperCase());
+        if (!TranslationMetrics.ENABLED) {
+            return table.alpha3ToName(code);
+        }
+        long start = System.nanoTime();
+        String name = table.alpha3ToName(code);
+        FROM_COUNTRY_CODE.record(start, name != null);
+        return name;
     }
 
     /**
@@ -70,7 +81,13 @@ public class CountryCodeConverter {
      * @return the 3-letter code of the country
      */
     public String fromCountry(String country) {
-        return countryCode.get(country);
+        if (!TranslationMetrics.ENABLED) {
+            return table.nameToAlpha3(country);
+        }
+        long start = System.nanoTime();
+        String code = table.nameToAlpha3(country);
+        FROM_COUNTRY.record(start, code != null);
+        return code;
     }
 
     /**
@@ -78,6 +95,42 @@ public class CountryCodeConverter {
      * @return how many countries are included in this code converter.
      */
     public int getNumCountries() {
-        return reverseMap.size();
+        return table.size();
+    }
+
+    /**
+     * Returns the table holding all four columns of the country code data.
+     * @return the country code table
+     */
+    public CountryCodeTable getTable() {
+        return table;
+    }
+
+    /**
+     * Returns the name of every country, sorted for display in the given locale and paired with
+     * its 3-letter code. The listing is built on first use and shared by every later call for the locale.
+     * @param locale the locale to sort for
+     * @return the sorted country names
+     */
+    public SortedListing getSortedNames(Locale locale) {
+        return sortedNames.computeIfAbsent(locale, key -> SortedListing.of(namesByCode(), key));
+    }
+
+    // Note: the next two methods are package-private views used by SnapshotCompiler
+
+    Map<String, String> namesByCode() {
+        Map<String, String> names = new LinkedHashMap<>();
+        for (int i = 0; i < table.size(); i++) {
+            names.put(table.alpha3(i), table.name(i));
+        }
+        return names;
+    }
+
+    Map<String, String> codesByName() {
+        Map<String, String> codes = new LinkedHashMap<>();
+        for (int i = 0; i < table.size(); i++) {
+            codes.put(table.name(i), table.alpha3(i));
+        }
+        return codes;
     }
 }
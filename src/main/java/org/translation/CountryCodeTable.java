@@ -0,0 +1,336 @@
+package org.translation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * All four columns of country-codes.txt (name, alpha-2, alpha-3 and numeric code) in parallel arrays,
+ * with allocation-free conversions between any two of them.<br/>
+ * Letter codes are packed into small integers (base 26, one digit per letter), so each code column is
+ * indexed by a direct-address array: looking a code up is a few arithmetic operations and one array
+ * read, with no hashing and no String created. Case is ignored by masking the ASCII lower-case bit
+ * instead of building an upper-case copy of the key. Names are found through a {@link PerfectHash}.
+ * Instances are immutable once built.
+ */
+public final class CountryCodeTable {
+
+    /** Returned by the index and numeric lookups when a code is unknown or malformed. */
+    public static final int NOT_FOUND = -1;
+
+    private static final int LETTERS = 26;
+    private static final int ALPHA2_KEYS = LETTERS * LETTERS;
+    private static final int ALPHA3_KEYS = LETTERS * LETTERS * LETTERS;
+    private static final int NUMERIC_KEYS = 1000;
+    private static final int UPPER_CASE_MASK = ~0x20;
+    private static final int DECIMAL = 10;
+    private static final int NAME = 0;
+    private static final int ALPHA2 = 1;
+    private static final int ALPHA3 = 2;
+    private static final int NUMERIC = 3;
+    private static final int COLUMNS = 4;
+
+    private final String[] names;
+    private final String[] alpha2Codes;
+    private final String[] alpha3Codes;
+    private final short[] numericCodes;
+    private final short[] byAlpha2 = new short[ALPHA2_KEYS];
+    private final short[] byAlpha3 = new short[ALPHA3_KEYS];
+    private final short[] byNumeric = new short[NUMERIC_KEYS];
+    private final PerfectHash byName;
+
+    private CountryCodeTable(String[] names, String[] alpha2Codes, String[] alpha3Codes, short[] numericCodes,
+                             PerfectHash byName) {
+        this.names = names;
+        this.alpha2Codes = alpha2Codes;
+        this.alpha3Codes = alpha3Codes;
+        this.numericCodes = numericCodes;
+        this.byName = byName;
+        // slots hold index + 1, so that the zero-filled arrays mean "not found"
+        for (int i = 0; i < names.length; i++) {
+            int alpha2 = pack(alpha2Codes[i], 2);
+            if (alpha2 != NOT_FOUND) {
+                byAlpha2[alpha2] = (short) (i + 1);
+            }
+            int alpha3 = pack(alpha3Codes[i], 3);
+            if (alpha3 != NOT_FOUND) {
+                byAlpha3[alpha3] = (short) (i + 1);
+            }
+            byNumeric[numericCodes[i]] = (short) (i + 1);
+        }
+    }
+
+    /**
+     * Returns the table generated from country-codes.txt at build time (see CountryCodeData), which is
+     * built from constant arrays without reading or parsing the file. Every call returns the same table.
+     * @return the generated table
+     */
+    public static CountryCodeTable generated() {
+        return Generated.TABLE;
+    }
+
+    /**
+     * Builds a table from the lines of a file in the layout of country-codes.txt: a header line,
+     * then one tab-separated line per country holding its name, alpha-2, alpha-3 and numeric code.
+     * Lines without all four columns are skipped.
+     * @param lines the lines of the file, including the header
+     * @return the table
+     * @throws IllegalArgumentException if a numeric code is not a number from 0 to 999; the message
+     *     gives the line it is on
+     */
+    public static CountryCodeTable fromLines(List<String> lines) {
+        List<String[]> rows = new ArrayList<>();
+        List<Integer> lineNumbers = new ArrayList<>();
+        for (int i = 1; i < lines.size(); i++) {
+            String[] parts = lines.get(i).split("\t");
+            if (parts.length >= COLUMNS) {
+                String[] row = new String[COLUMNS];
+                for (int column = 0; column < COLUMNS; column++) {
+                    row[column] = parts[column].trim();
+                }
+                rows.add(row);
+                lineNumbers.add(i + 1);
+            }
+        }
+        int size = rows.size();
+        String[] names = new String[size];
+        String[] alpha2Codes = new String[size];
+        String[] alpha3Codes = new String[size];
+        short[] numericCodes = new short[size];
+        for (int i = 0; i < size; i++) {
+            String[] row = rows.get(i);
+            names[i] = row[NAME];
+            alpha2Codes[i] = row[ALPHA2];
+            alpha3Codes[i] = row[ALPHA3];
+            numericCodes[i] = (short) parseNumeric(row[NUMERIC], lineNumbers.get(i));
+        }
+        return new CountryCodeTable(names, alpha2Codes, alpha3Codes, numericCodes, PerfectHash.build(names, false));
+    }
+
+    private static int parseNumeric(String text, int lineNumber) {
+        int code;
+        try {
+            code = Integer.parseInt(text);
+        }
+        catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": numeric code is not a number: " + text, ex);
+        }
+        if (code < 0 || code >= NUMERIC_KEYS) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": numeric code " + code
+                    + " is not between 0 and " + (NUMERIC_KEYS - 1));
+        }
+        return code;
+    }
+
+    /**
+     * Returns the index of the country with the given alpha-2 code, ignoring case.
+     * @param code the 2-letter code
+     * @return the index of the country, or NOT_FOUND
+     */
+    public int indexOfAlpha2(CharSequence code) {
+        return slot(byAlpha2, pack(code, 2));
+    }
+
+    /**
+     * Returns the index of the country with the given alpha-3 code, ignoring case.
+     * @param code the 3-letter code
+     * @return the index of the country, or NOT_FOUND
+     */
+    public int indexOfAlpha3(CharSequence code) {
+        return slot(byAlpha3, pack(code, 3));
+    }
+
+    /**
+     * Returns the index of the country with the given numeric code.
+     * @param code the numeric code
+     * @return the index of the country, or NOT_FOUND
+     */
+    public int indexOfNumeric(int code) {
+        if (code < 0 || code >= NUMERIC_KEYS) {
+            return NOT_FOUND;
+        }
+        return byNumeric[code] - 1;
+    }
+
+    /**
+     * Returns the index of the country with the given numeric code written in decimal, such as "004".
+     * @param code the numeric code as text
+     * @return the index of the country, or NOT_FOUND
+     */
+    public int indexOfNumeric(CharSequence code) {
+        if (code == null || code.length() == 0 || code.length() > 3) {
+            return NOT_FOUND;
+        }
+        int value = 0;
+        for (int i = 0; i < code.length(); i++) {
+            int digit = code.charAt(i) - '0';
+            if (digit < 0 || digit >= DECIMAL) {
+                return NOT_FOUND;
+            }
+            value = value * DECIMAL + digit;
+        }
+        return indexOfNumeric(value);
+    }
+
+    /**
+     * Returns the index of the country with exactly the given name.
+     * @param name the name of the country, as in the file
+     * @return the index of the country, or NOT_FOUND
+     */
+    public int indexOfName(String name) {
+        return byName.indexOf(name);
+    }
+
+    /**
+     * Returns the name of the country at the given index.
+     * @param index the index of the country
+     * @return the name, or null if index is NOT_FOUND
+     */
+    public String name(int index) {
+        if (index == NOT_FOUND) {
+            return null;
+        }
+        return names[index];
+    }
+
+    /**
+     * Returns the upper case alpha-2 code of the country at the given index.
+     * @param index the index of the country
+     * @return the alpha-2 code, or null if index is NOT_FOUND
+     */
+    public String alpha2(int index) {
+        if (index == NOT_FOUND) {
+            return null;
+        }
+        return alpha2Codes[index];
+    }
+
+    /**
+     * Returns the upper case alpha-3 code of the country at the given index.
+     * @param index the index of the country
+     * @return the alpha-3 code, or null if index is NOT_FOUND
+     */
+    public String alpha3(int index) {
+        if (index == NOT_FOUND) {
+            return null;
+        }
+        return alpha3Codes[index];
+    }
+
+    /**
+     * Returns the numeric code of the country at the given index.
+     * @param index the index of the country
+     * @return the numeric code, or NOT_FOUND if index is NOT_FOUND
+     */
+    public int numeric(int index) {
+        if (index == NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        return numericCodes[index];
+    }
+
+    /**
+     * Returns how many countries the table holds.
+     * @return the number of countries
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Converts an alpha-3 code to the country name.
+     * @param code the 3-letter code, in any case
+     * @return the name, or null if the code is unknown
+     */
+    public String alpha3ToName(CharSequence code) {
+        return name(indexOfAlpha3(code));
+    }
+
+    /**
+     * Converts a country name to its alpha-3 code.
+     * @param name the name of the country, as in the file
+     * @return the upper case 3-letter code, or null if the name is unknown
+     */
+    public String nameToAlpha3(String name) {
+        return alpha3(indexOfName(name));
+    }
+
+    /**
+     * Converts an alpha-2 code to the alpha-3 code.
+     * @param code the 2-letter code, in any case
+     * @return the upper case 3-letter code, or null if the code is unknown
+     */
+    public String alpha2ToAlpha3(CharSequence code) {
+        return alpha3(indexOfAlpha2(code));
+    }
+
+    /**
+     * Converts an alpha-3 code to the alpha-2 code.
+     * @param code the 3-letter code, in any case
+     * @return the upper case 2-letter code, or null if the code is unknown
+     */
+    public String alpha3ToAlpha2(CharSequence code) {
+        return alpha2(indexOfAlpha3(code));
+    }
+
+    /**
+     * Converts an alpha-3 code to the numeric code.
+     * @param code the 3-letter code, in any case
+     * @return the numeric code, or NOT_FOUND if the code is unknown
+     */
+    public int alpha3ToNumeric(CharSequence code) {
+        return numeric(indexOfAlpha3(code));
+    }
+
+    /**
+     * Converts a numeric code to the alpha-3 code.
+     * @param code the numeric code
+     * @return the upper case 3-letter code, or null if the code is unknown
+     */
+    public String numericToAlpha3(int code) {
+        return alpha3(indexOfNumeric(code));
+    }
+
+    private static int slot(short[] slots, int key) {
+        if (key == NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        return slots[key] - 1;
+    }
+
+    /**
+     * Packs a letter code into its base-26 key, folding lower case to upper case by masking.
+     * @return the key, or NOT_FOUND if the code is not exactly that many ASCII letters
+     */
+    private static int pack(CharSequence code, int length) {
+        if (code == null || code.length() != length) {
+            return NOT_FOUND;
+        }
+        int key = 0;
+        for (int i = 0; i < length; i++) {
+            int letter = (code.charAt(i) & UPPER_CASE_MASK) - 'A';
+            if (letter < 0 || letter >= LETTERS) {
+                return NOT_FOUND;
+            }
+            key = key * LETTERS + letter;
+        }
+        return key;
+    }
+
+    /**
+     * Holds the generated table, so that it is only decoded once something asks for it.
+     */
+    private static final class Generated {
+        static final CountryCodeTable TABLE = fromColumns();
+
+        private static CountryCodeTable fromColumns() {
+            short[] numericCodes = new short[CountryCodeData.NUMERIC.length];
+            for (int i = 0; i < numericCodes.length; i++) {
+                numericCodes[i] = (short) CountryCodeData.NUMERIC[i];
+            }
+            PerfectHash byName = new PerfectHash(CountryCodeData.NAMES, CountryCodeData.NAME_DISPLACEMENTS,
+                    CountryCodeData.NAME_ORDER, false);
+            return new CountryCodeTable(CountryCodeData.NAMES, CountryCodeData.ALPHA2, CountryCodeData.ALPHA3,
+                    numericCodes, byName);
+        }
+    }
+}
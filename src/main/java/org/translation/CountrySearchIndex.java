@@ -0,0 +1,386 @@
+package org.translation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A search index over country names in every language a Translator knows, plus the English
+ * names of a CountryCodeConverter, so that a user can find a country without typing its
+ * exact name.<br/>
+ * Names are normalized (NFKC and case-folded) and kept in one sorted array, so prefix completion
+ * is a binary search followed by a scan. For fuzzy matching the names are also grouped by length,
+ * and each carries 64-bit signatures of the characters and character pairs it contains: a query only
+ * looks at names whose length is within the allowed edit distance, skips those whose signatures
+ * already differ by too much, and computes a Levenshtein distance restricted to a band around the
+ * diagonal, which stops as soon as it exceeds the limit. The index is immutable once built and safe
+ * to share between threads.
+ */
+public final class CountrySearchIndex {
+
+    /** The edit distance bestMatch allows between a query and a name. */
+    public static final int DEFAULT_MAX_DISTANCE = 2;
+
+    private static final int NOT_FOUND = -1;
+    private static final int SPREAD = 0x9E3779B9;
+    private static final int SIGNATURE_SHIFT = Integer.SIZE - 6;
+
+    private final String[] keys;
+    private final String[] names;
+    private final String[] codes;
+    // entry indexes ordered by key length; those of length n are byLength[lengthStart[n]..lengthStart[n + 1])
+    private final int[] byLength;
+    private final int[] lengthStart;
+    private final long[] characters;
+    private final long[] pairs;
+
+    private CountrySearchIndex(List<String[]> entries) {
+        entries.sort(Comparator.comparing((String[] entry) -> entry[0]).thenComparing(entry -> entry[2]));
+        int size = entries.size();
+        keys = new String[size];
+        names = new String[size];
+        codes = new String[size];
+        characters = new long[size];
+        pairs = new long[size];
+        int maxLength = 0;
+        for (int i = 0; i < size; i++) {
+            keys[i] = entries.get(i)[0];
+            names[i] = entries.get(i)[1];
+            codes[i] = entries.get(i)[2];
+            characters[i] = characterSignature(keys[i]);
+            pairs[i] = pairSignature(keys[i]);
+            maxLength = Math.max(maxLength, keys[i].length());
+        }
+        // counting sort by length, stable so that each length keeps alphabetical order
+        lengthStart = new int[maxLength + 2];
+        for (String key : keys) {
+            lengthStart[key.length() + 1]++;
+        }
+        for (int length = 1; length < lengthStart.length; length++) {
+            lengthStart[length] += lengthStart[length - 1];
+        }
+        byLength = new int[size];
+        int[] next = Arrays.copyOf(lengthStart, lengthStart.length);
+        for (int i = 0; i < size; i++) {
+            byLength[next[keys[i].length()]++] = i;
+        }
+    }
+
+    /**
+     * Builds an index over every translation the given Translator has, plus the English
+     * names known to the given converter. Codes are reported in lower case.
+     * @param translator the translator whose country names are indexed
+     * @param converter the converter whose English country names are indexed
+     * @return the search index
+     */
+    public static CountrySearchIndex build(Translator translator, CountryCodeConverter converter) {
+        List<String[]> entries = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String country : translator.getCountries()) {
+            for (String name : translator.translateCountry(country).values()) {
+                add(entries, seen, name, country);
+            }
+        }
+        for (Map.Entry<String, String> entry : converter.namesByCode().entrySet()) {
+            add(entries, seen, entry.getValue(), entry.getKey());
+        }
+        return new CountrySearchIndex(entries);
+    }
+
+    private static void add(List<String[]> entries, Set<String> seen, String name, String code) {
+        String key = NameNormalizer.normalize(name);
+        String lowerCode = code.toLowerCase(Locale.ROOT);
+        if (!key.isEmpty() && seen.add(key + '\t' + lowerCode)) {
+            entries.add(new String[] {key, name, lowerCode});
+        }
+    }
+
+    /**
+     * Returns the countries having a name which starts with the given prefix, ignoring case,
+     * in alphabetical order of their normalized names.
+     * @param prefix the start of a country name
+     * @param limit the maximum number of matches to return
+     * @return the matching names and their codes
+     */
+    public List<Match> complete(String prefix, int limit) {
+        String key = NameNormalizer.normalize(prefix);
+        List<Match> result = new ArrayList<>();
+        for (int i = lowerBound(key); i < keys.length && result.size() < limit && keys[i].startsWith(key); i++) {
+            result.add(new Match(names[i], codes[i], 0));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the countries having a name within the given edit distance of the query, ignoring case,
+     * closest first.
+     * @param query the (possibly misspelled) country name
+     * @param maxDistance the largest number of single-character edits allowed
+     * @param limit the maximum number of matches to return
+     * @return the matching names and their codes
+     */
+    public List<Match> fuzzy(String query, int maxDistance, int limit) {
+        return fuzzyKey(NameNormalizer.normalize(query), maxDistance, limit);
+    }
+
+    private List<Match> fuzzyKey(String key, int maxDistance, int limit) {
+        List<Match> result = new ArrayList<>();
+        new Search(key, maxDistance).run((entry, distance) ->
+                result.add(new Match(names[entry], codes[entry], distance)));
+        result.sort(Comparator.comparingInt(Match::getDistance).thenComparing(Match::getName));
+        if (result.size() > limit) {
+            return new ArrayList<>(result.subList(0, limit));
+        }
+        return result;
+    }
+
+    /**
+     * Returns how many names a fuzzy query computes an edit distance for, after the length and
+     * signature filters; the rest of the index is skipped without looking at the names.
+     * @param query the (possibly misspelled) country name
+     * @param maxDistance the largest number of single-character edits allowed
+     * @return the number of names compared with the query
+     */
+    int countCompared(String query, int maxDistance) {
+        Search search = new Search(NameNormalizer.normalize(query), maxDistance);
+        search.run((entry, distance) -> { });
+        return search.compared;
+    }
+
+    /**
+     * Returns the single best country for what a user typed: an exact match if there is one,
+     * else the only country starting with the text, else the closest name within
+     * DEFAULT_MAX_DISTANCE edits.
+     * @param query what the user typed
+     * @return the best match, or null if nothing is close enough
+     */
+    public Match bestMatch(String query) {
+        String key = NameNormalizer.normalize(query);
+        int index = lowerBound(key);
+        if (index < keys.length && keys[index].equals(key)) {
+            return new Match(names[index], codes[index], 0);
+        }
+        int completion = onlyCompletion(key, index);
+        if (completion != NOT_FOUND) {
+            return new Match(names[completion], codes[completion], 0);
+        }
+        List<Match> fuzzy = fuzzyKey(key, DEFAULT_MAX_DISTANCE, 1);
+        if (fuzzy.isEmpty()) {
+            return null;
+        }
+        return fuzzy.get(0);
+    }
+
+    /**
+     * Returns how many distinct (name, country) entries the index holds.
+     * @return the number of entries
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the first name starting with the key if every name starting with it belongs to the
+     * same country, else NOT_FOUND. Stops at the first name of a second country.
+     */
+    private int onlyCompletion(String key, int from) {
+        if (from == keys.length || !keys[from].startsWith(key)) {
+            return NOT_FOUND;
+        }
+        for (int i = from + 1; i < keys.length && keys[i].startsWith(key); i++) {
+            if (!codes[i].equals(codes[from])) {
+                return NOT_FOUND;
+            }
+        }
+        return from;
+    }
+
+    private static long characterSignature(String key) {
+        long signature = 0;
+        for (int i = 0; i < key.length(); i++) {
+            signature |= 1L << bucket(key.charAt(i));
+        }
+        return signature;
+    }
+
+    private static long pairSignature(String key) {
+        long signature = 0;
+        for (int i = 1; i < key.length(); i++) {
+            signature |= 1L << bucket(key.charAt(i - 1) * 31 + key.charAt(i));
+        }
+        return signature;
+    }
+
+    private static int bucket(int value) {
+        return (value * SPREAD) >>> SIGNATURE_SHIFT;
+    }
+
+    /**
+     * Receives the entries within the distance limit of a query.
+     */
+    private interface MatchSink {
+        void accept(int entry, int distance);
+    }
+
+    /**
+     * One fuzzy query, holding the rows of the distance table so they are allocated once per query
+     * rather than once per name.
+     */
+    private final class Search {
+        private final String key;
+        private final int maxDistance;
+        private final long keyCharacters;
+        private final long keyPairs;
+        private int[] previous;
+        private int[] current;
+        private int compared;
+
+        Search(String key, int maxDistance) {
+            this.key = key;
+            this.maxDistance = maxDistance;
+            this.keyCharacters = characterSignature(key);
+            this.keyPairs = pairSignature(key);
+            int width = lengthStart.length;
+            this.previous = new int[width];
+            this.current = new int[width];
+        }
+
+        void run(MatchSink sink) {
+            if (maxDistance < 0) {
+                return;
+            }
+            int maxLength = lengthStart.length - 2;
+            int from = Math.max(0, key.length() - maxDistance);
+            int to = Math.min(maxLength, key.length() + maxDistance);
+            for (int i = from <= maxLength ? lengthStart[from] : byLength.length; i < lengthStart[to + 1]; i++) {
+                int entry = byLength[i];
+                if (lowerBound(entry) > maxDistance) {
+                    continue;
+                }
+                compared++;
+                int distance = distance(keys[entry]);
+                if (distance <= maxDistance) {
+                    sink.accept(entry, distance);
+                }
+            }
+        }
+
+        /**
+         * Returns a lower bound on the edit distance to an entry from the signatures alone. Each edit
+         * adds or removes at most one character on either side, and breaks at most two character pairs.
+         */
+        private int lowerBound(int entry) {
+            int missingCharacters = Math.max(Long.bitCount(keyCharacters & ~characters[entry]),
+                    Long.bitCount(characters[entry] & ~keyCharacters));
+            int missingPairs = Math.max(Long.bitCount(keyPairs & ~pairs[entry]),
+                    Long.bitCount(pairs[entry] & ~keyPairs));
+            return Math.max(missingCharacters, (missingPairs + 1) / 2);
+        }
+
+        /**
+         * Returns the Levenshtein distance between the query and a name of length within maxDistance
+         * of the query's, or maxDistance + 1 if it is larger. Only cells within maxDistance of the
+         * diagonal can stay within the limit, so no others are computed, and the computation ends
+         * as soon as a whole row is over the limit.
+         */
+        private int distance(String name) {
+            int over = maxDistance + 1;
+            int length = name.length();
+            for (int j = 0; j <= length; j++) {
+                previous[j] = Math.min(j, over);
+            }
+            for (int i = 1; i <= key.length(); i++) {
+                int from = Math.max(1, i - maxDistance);
+                int to = Math.min(length, i + maxDistance);
+                current[from - 1] = from == 1 ? Math.min(i, over) : over;
+                int rowMinimum = current[from - 1];
+                char c = key.charAt(i - 1);
+                for (int j = from; j <= to; j++) {
+                    int substitution = previous[j - 1];
+                    if (c != name.charAt(j - 1)) {
+                        substitution++;
+                    }
+                    int cell = Math.min(over, Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1));
+                    current[j] = cell;
+                    rowMinimum = Math.min(rowMinimum, cell);
+                }
+                if (to < length) {
+                    // the next row reads one cell past this row's band
+                    current[to + 1] = over;
+                }
+                if (rowMinimum == over) {
+                    return over;
+                }
+                int[] swap = previous;
+                previous = current;
+                current = swap;
+            }
+            return previous[length];
+        }
+    }
+
+    /**
+     * One search result: a country name as it appears in the data, the code of its country,
+     * and how many edits away from the query it is.
+     */
+    public static final class Match {
+        private final String name;
+        private final String code;
+        private final int distance;
+
+        Match(String name, String code, int distance) {
+            this.name = name;
+            this.code = code;
+            this.distance = distance;
+        }
+
+        /**
+         * Returns the matching country name, as it appears in the data.
+         * @return the country name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the lower case 3-letter code of the matching country.
+         * @return the country code
+         */
+        public String getCode() {
+            return code;
+        }
+
+        /**
+         * Returns the edit distance between the query and the name; 0 for exact and prefix matches.
+         * @return the edit distance
+         */
+        public int getDistance() {
+            return distance;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + code + ")";
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.translation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONObject;
+
+/**
+ * An append-only change log of {@link TranslationDelta}s, one JSON object per line, in version order.<br/>
+ * Each append writes the delta with its line break last, and is forced to disk before it returns, so a
+ * delta is either wholly in the log or, after a crash part way through, a last line without its line break.
+ * Reading drops such a line and cuts it from the file, so the next append starts on a clean line.
+ * A DeltaLog does not lock the file; only one process should append to a log at a time.
+ */
+public final class DeltaLog {
+
+    private static final byte NEWLINE = '\n';
+
+    private final Path file;
+
+    /**
+     * Creates a log stored in the given file, which is created on the first append.
+     * @param file the log file
+     */
+    public DeltaLog(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads every delta in the log, in the order they were appended.
+     * @return the deltas, or an empty list if the file does not exist
+     * @throws IOException if the file can't be read or holds a line which is not a delta
+     */
+    public List<TranslationDelta> read() throws IOException {
+        List<TranslationDelta> deltas = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return deltas;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        int start = 0;
+        int lineNumber = 1;
+        for (int end = 0; end < bytes.length; end++) {
+            if (bytes[end] == NEWLINE) {
+                String line = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+                if (!line.isBlank()) {
+                    deltas.add(parse(line, lineNumber));
+                }
+                start = end + 1;
+                lineNumber++;
+            }
+        }
+        if (start < bytes.length) {
+            // an append cut short by a crash: it was never acknowledged, so drop it
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(start);
+            }
+        }
+        return deltas;
+    }
+
+    private TranslationDelta parse(String line, int lineNumber) throws IOException {
+        try {
+            return TranslationDelta.fromJson(new JSONObject(line));
+        }
+        catch (RuntimeException ex) {
+            throw new IOException(file + ", line " + lineNumber + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Appends a delta to the log and forces it to disk.
+     * @param delta the delta to append
+     * @throws IOException if the file can't be written
+     */
+    public void append(TranslationDelta delta) throws IOException {
+        byte[] line = (delta.toJson().toString() + (char) NEWLINE).getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Returns the file the log is stored in.
+     * @return the log file
+     */
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,174 @@
+package org.translation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A Translator whose data is changed a few entries at a time by applying {@link TranslationDelta}s,
+ * instead of being reloaded from the whole file.<br/>
+ * Applying a delta builds a new {@link TranslationTable} which copies only the rows the delta changes
+ * (see {@link TranslationTable#apply}) and swaps it in atomically, so lookups never block and never
+ * see half a delta. Deltas must be applied in version order, one version at a time. When opened with a
+ * {@link DeltaLog}, each delta is appended to the log before it is applied, and the log is replayed on
+ * top of the base data at startup, so the translator comes back at the version it had.
+ */
+public class DeltaTranslator implements Translator {
+
+    private final DeltaLog log;
+    private volatile State state;
+
+    /**
+     * Serves the given table as version 0, without a change log.
+     * @param table the table of translations
+     */
+    public DeltaTranslator(TranslationTable table) {
+        this(table, 0, null);
+    }
+
+    private DeltaTranslator(TranslationTable table, long version, DeltaLog log) {
+        this.log = log;
+        this.state = new State(table, version, countryCodesOf(table));
+    }
+
+    /**
+     * Serves the given table as version 0, and replays and then appends to the given change log.
+     * @param table the base table of translations, such as one loaded from sample.json
+     * @param logFile the change log file, which need not exist yet
+     * @return the translator, at the version of the last delta in the log
+     * @throws RuntimeException if the log can't be read, or skips a version
+     */
+    public static DeltaTranslator open(TranslationTable table, Path logFile) {
+        return open(table, 0, logFile);
+    }
+
+    /**
+     * Serves the given table, which already holds every delta up to the given version, and replays
+     * the later deltas of the given change log before appending to it.
+     * @param table the base table of translations
+     * @param version the version of the base table
+     * @param logFile the change log file, which need not exist yet
+     * @return the translator, at the version of the last delta in the log
+     * @throws RuntimeException if the log can't be read, or skips a version
+     */
+    public static DeltaTranslator open(TranslationTable table, long version, Path logFile) {
+        DeltaLog log = new DeltaLog(logFile);
+        DeltaTranslator translator = new DeltaTranslator(table, version, log);
+        try {
+            for (TranslationDelta delta : log.read()) {
+                if (delta.getVersion() > translator.getVersion()) {
+                    translator.swap(delta);
+                }
+            }
+        }
+        catch (IOException | IllegalArgumentException ex) {
+            throw new RuntimeException("Can't replay change log " + logFile + ": " + ex.getMessage(), ex);
+        }
+        return translator;
+    }
+
+    /**
+     * Applies a delta: appends it to the change log, if there is one, and then swaps in the changed data.
+     * @param delta the delta, whose version must be one more than the current version
+     * @throws IllegalArgumentException if the delta has the wrong version
+     * @throws RuntimeException if the delta can't be appended to the log; the data is not changed
+     */
+    public synchronized void apply(TranslationDelta delta) {
+        checkVersion(delta);
+        if (log != null) {
+            try {
+                log.append(delta);
+            }
+            catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+        swap(delta);
+    }
+
+    private void checkVersion(TranslationDelta delta) {
+        long expected = state.version + 1;
+        if (delta.getVersion() != expected) {
+            throw new IllegalArgumentException("Expected delta version " + expected + " but got "
+                    + delta.getVersion());
+        }
+    }
+
+    private void swap(TranslationDelta delta) {
+        checkVersion(delta);
+        State current = state;
+        TranslationTable table = current.table.apply(delta);
+        List<String> countries = current.countries;
+        if (table.rowCount() != current.table.rowCount() || removesCountries(delta)) {
+            countries = countryCodesOf(table);
+        }
+        state = new State(table, delta.getVersion(), countries);
+    }
+
+    private static boolean removesCountries(TranslationDelta delta) {
+        for (TranslationDelta.Change change : delta.getChanges()) {
+            if (change.getType() == TranslationDelta.Type.REMOVE_COUNTRY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> countryCodesOf(TranslationTable table) {
+        List<String> codes = new ArrayList<>(table.rowCount());
+        for (int row = 0; row < table.rowCount(); row++) {
+            codes.add(table.countryCode(row));
+        }
+        return Collections.unmodifiableList(codes);
+    }
+
+    /**
+     * Returns the version of the data: 0 (or the base version) before any delta, then the version of the
+     * last delta applied.
+     * @return the current version
+     */
+    public long getVersion() {
+        return state.version;
+    }
+
+    /**
+     * Returns the table holding the current data.
+     * @return the current table
+     */
+    public TranslationTable getTable() {
+        return state.table;
+    }
+
+    @Override
+    public List<String> getCountryLanguages(String country) {
+        TranslationTable table = state.table;
+        return table.languagesOf(table.rowOf(country));
+    }
+
+    @Override
+    public List<String> getCountries() {
+        return state.countries;
+    }
+
+    @Override
+    public String translate(String country, String language) {
+        return state.table.translate(country, language);
+    }
+
+    /**
+     * One version of the data, swapped in as a whole.
+     */
+    private static final class State {
+        private final TranslationTable table;
+        private final long version;
+        private final List<String> countries;
+
+        State(TranslationTable table, long version, List<String> countries) {
+            this.table = table;
+            this.version = version;
+            this.countries = countries;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.translation;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * A growable array of ints held in a direct buffer, outside the Java heap, used while building
+ * {@link OffHeapTranslator}. It doubles its capacity when full. Not thread-safe.
+ */
+final class DirectIntArray {
+
+    private IntBuffer ints;
+    private int size;
+
+    /**
+     * Creates an empty array.
+     * @param capacity the number of ints to make room for up front
+     */
+    DirectIntArray(int capacity) {
+        this.ints = allocate(Math.max(1, capacity));
+    }
+
+    /**
+     * Allocates a zero-filled direct buffer of ints in the platform's byte order.
+     * @param capacity the number of ints
+     * @return the buffer
+     */
+    static IntBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    void add(int value) {
+        if (size == ints.capacity()) {
+            IntBuffer grown = allocate(ints.capacity() * 2);
+            ints.clear();
+            grown.put(ints);
+            ints = grown;
+        }
+        ints.put(size++, value);
+    }
+
+    int get(int index) {
+        return ints.get(index);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns a read-only view of the ints added so far. The view shares the buffer rather than copying it.
+     * @return the ints, from index zero to size
+     */
+    IntBuffer toBuffer() {
+        IntBuffer view = ints.duplicate();
+        view.clear();
+        view.limit(size);
+        return view.slice().asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,130 @@
+package org.translation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The languages to try, in order, when a translation into the requested language is missing.<br/>
+ * The chain of a language is: the language itself, then any fallbacks configured for it, then its
+ * base language if it is a regional variant such as "zh-tw" or "pt_BR" (and regional fallback is on),
+ * then the default languages. A language appears at most once in a chain. Instances are immutable.
+ */
+public final class FallbackChains {
+
+    private static final String ENGLISH = "en";
+
+    private final Map<String, List<String>> fallbacks;
+    private final boolean regionalToBase;
+    private final List<String> defaults;
+
+    private FallbackChains(Builder builder) {
+        Map<String, List<String>> copy = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : builder.fallbacks.entrySet()) {
+            copy.put(entry.getKey(), List.copyOf(entry.getValue()));
+        }
+        this.fallbacks = Map.copyOf(copy);
+        this.regionalToBase = builder.regionalToBase;
+        this.defaults = List.copyOf(builder.defaults);
+    }
+
+    /**
+     * Returns the usual chains: a regional variant falls back to its base language, and every
+     * language falls back to English.
+     * @return the standard chains
+     */
+    public static FallbackChains standard() {
+        return new Builder().defaultTo(ENGLISH).build();
+    }
+
+    /**
+     * Returns chains which never fall back, so that only exact translations are found.
+     * @return the exact-match chains
+     */
+    public static FallbackChains none() {
+        return new Builder().regionalToBase(false).build();
+    }
+
+    /**
+     * Returns the languages to try for the given requested language, starting with the language itself.
+     * @param language the requested language code
+     * @return an unmodifiable list of language codes, in the order to try them
+     */
+    public List<String> chainOf(String language) {
+        Set<String> chain = new LinkedHashSet<>();
+        chain.add(language);
+        chain.addAll(fallbacks.getOrDefault(language, List.of()));
+        if (regionalToBase) {
+            int separator = regionSeparator(language);
+            if (separator > 0) {
+                String base = language.substring(0, separator);
+                chain.add(base);
+                chain.addAll(fallbacks.getOrDefault(base, List.of()));
+            }
+        }
+        chain.addAll(defaults);
+        return Collections.unmodifiableList(new ArrayList<>(chain));
+    }
+
+    private static int regionSeparator(String language) {
+        int dash = language.indexOf('-');
+        if (dash > 0) {
+            return dash;
+        }
+        return language.indexOf('_');
+    }
+
+    /**
+     * Configures FallbackChains. By default regional variants fall back to their base language,
+     * and there are no other fallbacks.
+     */
+    public static final class Builder {
+        private final Map<String, List<String>> fallbacks = new HashMap<>();
+        private boolean regionalToBase = true;
+        private final List<String> defaults = new ArrayList<>();
+
+        /**
+         * Adds languages to try, in order, when the given language is missing.
+         * @param language the requested language code
+         * @param languages the fallback language codes
+         * @return this builder
+         */
+        public Builder fallback(String language, String... languages) {
+            fallbacks.computeIfAbsent(language, key -> new ArrayList<>()).addAll(Arrays.asList(languages));
+            return this;
+        }
+
+        /**
+         * Sets whether a regional variant such as "zh-tw" falls back to its base language "zh".
+         * @param enabled whether regional variants fall back to their base language
+         * @return this builder
+         */
+        public Builder regionalToBase(boolean enabled) {
+            this.regionalToBase = enabled;
+            return this;
+        }
+
+        /**
+         * Adds languages to try, in order, after every other fallback of any language.
+         * @param languages the default language codes
+         * @return this builder
+         */
+        public Builder defaultTo(String... languages) {
+            defaults.addAll(Arrays.asList(languages));
+            return this;
+        }
+
+        /**
+         * Returns the configured chains.
+         * @return the fallback chains
+         */
+        public FallbackChains build() {
+            return new FallbackChains(this);
+        }
+    }
+}
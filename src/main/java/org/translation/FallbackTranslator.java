@@ -0,0 +1,204 @@
+package org.translation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A Translator which falls back along {@link FallbackChains} when a country has no translation
+ * into the requested language, for example from "de-at" to "de" and then to "en".<br/>
+ * The chains are resolved when the translator is built: for every language code the data or the
+ * {@link LanguageCodeConverter} knows, and every row, the column which answers is stored in a table.
+ * A lookup with fallback is then the same two hash probes and array reads as an exact hit.
+ * Languages outside that set still fall back, by walking their chain at lookup time.
+ * {@link #resolve} also reports which language answered. Instances are immutable once built.
+ */
+public class FallbackTranslator implements Translator {
+
+    private final TranslationTable table;
+    private final FallbackChains chains;
+    private final List<String> countries;
+    private final Map<String, Integer> requestedIndex;
+    // resolvedColumns[requested][row] is the column answering for that row, or ABSENT
+    private final int[][] resolvedColumns;
+
+    /**
+     * Builds a translator over the given translator's data, resolving the chains of every
+     * language code in the data and in the shared language code converter.
+     * @param translator the translator holding the data
+     * @param chains the fallback chains
+     */
+    public FallbackTranslator(JSONTranslator translator, FallbackChains chains) {
+        this(translator.getTable(), chains, ConverterRegistry.languageCodes().namesByCode().keySet());
+    }
+
+    /**
+     * Builds a translator over a table, resolving the chains of every language code in the table
+     * and of the given extra language codes.
+     * @param table the table of translations
+     * @param chains the fallback chains
+     * @param languages further language codes which may be requested
+     */
+    public FallbackTranslator(TranslationTable table, FallbackChains chains, Collection<String> languages) {
+        this.table = table;
+        this.chains = chains;
+        List<String> codes = new ArrayList<>(table.rowCount());
+        for (int row = 0; row < table.rowCount(); row++) {
+            codes.add(table.countryCode(row));
+        }
+        this.countries = Collections.unmodifiableList(codes);
+        Set<String> requested = new LinkedHashSet<>();
+        for (int column = 0; column < table.columnCount(); column++) {
+            requested.add(table.languageCode(column));
+        }
+        requested.addAll(languages);
+        Map<String, Integer> index = new HashMap<>();
+        this.resolvedColumns = new int[requested.size()][];
+        for (String language : requested) {
+            int slot = index.size();
+            index.put(language, slot);
+            resolvedColumns[slot] = resolveColumns(chainColumns(language));
+        }
+        this.requestedIndex = Map.copyOf(index);
+    }
+
+    private int[] chainColumns(String language) {
+        List<String> chain = chains.chainOf(language);
+        int[] columns = new int[chain.size()];
+        int count = 0;
+        for (String candidate : chain) {
+            int column = table.columnOf(candidate);
+            if (column != TranslationTable.ABSENT) {
+                columns[count++] = column;
+            }
+        }
+        int[] result = new int[count];
+        System.arraycopy(columns, 0, result, 0, count);
+        return result;
+    }
+
+    private int[] resolveColumns(int[] chainColumns) {
+        int[] resolved = new int[table.rowCount()];
+        for (int row = 0; row < resolved.length; row++) {
+            resolved[row] = firstPresent(row, chainColumns);
+        }
+        return resolved;
+    }
+
+    private int firstPresent(int row, int[] chainColumns) {
+        for (int column : chainColumns) {
+            if (table.name(row, column) != null) {
+                return column;
+            }
+        }
+        return TranslationTable.ABSENT;
+    }
+
+    private int resolvedColumn(int row, String language) {
+        if (row == TranslationTable.ABSENT || language == null) {
+            return TranslationTable.ABSENT;
+        }
+        Integer slot = requestedIndex.get(language);
+        if (slot == null) {
+            // a language nobody configured: walk its chain now rather than fail
+            return firstPresent(row, chainColumns(language));
+        }
+        return resolvedColumns[slot][row];
+    }
+
+    @Override
+    public List<String> getCountryLanguages(String country) {
+        return table.languagesOf(table.rowOf(country));
+    }
+
+    @Override
+    public List<String> getCountries() {
+        return countries;
+    }
+
+    @Override
+    public String translate(String country, String language) {
+        int row = table.rowOf(country);
+        return table.name(row, resolvedColumn(row, language));
+    }
+
+    /**
+     * Translates a country like translate does, and reports which language answered.
+     * @param country the country code
+     * @param language the requested language code
+     * @return the translation and the language it is in, or null if no language in the chain has one
+     */
+    public Resolution resolve(String country, String language) {
+        int row = table.rowOf(country);
+        int column = resolvedColumn(row, language);
+        if (column == TranslationTable.ABSENT) {
+            return null;
+        }
+        return new Resolution(table.name(row, column), language, table.languageCode(column));
+    }
+
+    /**
+     * Returns the fallback chains this translator resolves.
+     * @return the fallback chains
+     */
+    public FallbackChains getChains() {
+        return chains;
+    }
+
+    /**
+     * A translation found by following a fallback chain, with the language which answered.
+     */
+    public static final class Resolution {
+        private final String name;
+        private final String requestedLanguage;
+        private final String language;
+
+        Resolution(String name, String requestedLanguage, String language) {
+            this.name = name;
+            this.requestedLanguage = requestedLanguage;
+            this.language = language;
+        }
+
+        /**
+         * Returns the translated name.
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the language code which was asked for.
+         * @return the requested language code
+         */
+        public String getRequestedLanguage() {
+            return requestedLanguage;
+        }
+
+        /**
+         * Returns the language code of the translation, which differs from the requested one after a fallback.
+         * @return the answering language code
+         */
+        public String getLanguage() {
+            return language;
+        }
+
+        /**
+         * Returns whether the translation came from a fallback rather than the requested language.
+         * @return true if another language answered
+         */
+        public boolean isFallback() {
+            return !requestedLanguage.equals(language);
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + language + ")";
+        }
+    }
+}
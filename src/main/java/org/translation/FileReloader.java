@@ -0,0 +1,176 @@
+package org.translation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Keeps the data loaded from one file up to date while it is in use.<br/>
+ * The file's directory is watched with a {@link WatchService}. When the file is created or modified,
+ * a background thread loads it again and atomically swaps the new value in. Readers always get
+ * one complete value through {@link #current()} and never block; a load which fails (for example
+ * because the file is only half written) leaves the previous value in place.
+ * For example, {@code new FileReloader<>(path, CountryCodeConverter::new)} keeps a country code
+ * converter in step with its file.
+ * @param <T> the type of the loaded data
+ */
+public class FileReloader<T> implements Closeable {
+
+    private final Path file;
+    private final Function<Path, T> loader;
+    private final WatchService watchService;
+    private final Thread watcher;
+    private final AtomicLong failedReloads = new AtomicLong();
+    private volatile Loaded<T> loaded;
+
+    /**
+     * Loads the file once and starts watching it for changes.
+     * @param file the file to load and watch
+     * @param loader the function loading the data from the file
+     * @throws RuntimeException if the initial load fails or the directory can't be watched
+     */
+    public FileReloader(Path file, Function<Path, T> loader) {
+        this.file = file.toAbsolutePath();
+        this.loader = loader;
+        this.loaded = load(0);
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        this.watcher = new Thread(this::watch, "reloader-" + this.file.getFileName());
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Returns the most recently loaded data.
+     * @return the current data
+     */
+    public T current() {
+        return loaded.value;
+    }
+
+    /**
+     * Loads the file again now and swaps the result in, without waiting for a change event.
+     * @throws RuntimeException if the file can't be loaded; the previous data stays current
+     */
+    public synchronized void reload() {
+        loaded = load(loaded.version + 1);
+    }
+
+    /**
+     * Returns the version of the current data: 0 for the initial load, increased by one on
+     * every successful reload.
+     * @return the current version
+     */
+    public long getVersion() {
+        return loaded.version;
+    }
+
+    /**
+     * Returns how long, in milliseconds, the load of the current data took.
+     * @return the load time of the current data
+     */
+    public long getLoadMillis() {
+        return loaded.loadMillis;
+    }
+
+    /**
+     * Returns the wall-clock time, in milliseconds since the epoch, at which the current data was swapped in.
+     * @return when the current data was loaded
+     */
+    public long getLoadedAt() {
+        return loaded.loadedAt;
+    }
+
+    /**
+     * Returns how many reloads triggered by a change event have failed.
+     * @return the number of failed reloads
+     */
+    public long getFailedReloads() {
+        return failedReloads.get();
+    }
+
+    /**
+     * Returns the file this reloader watches.
+     * @return the watched file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Stops watching the file. The current data stays available.
+     * @throws IOException if the watch service can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private Loaded<T> load(long version) {
+        long start = System.nanoTime();
+        T value = loader.apply(file);
+        return new Loaded<>(value, version, (System.nanoTime() - start) / 1_000_000, System.currentTimeMillis());
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (file.getFileName().equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    reloadAfterChange();
+                }
+            }
+        }
+        catch (ClosedWatchServiceException | InterruptedException ex) {
+            // closed: stop watching
+        }
+    }
+
+    private void reloadAfterChange() {
+        try {
+            reload();
+        }
+        catch (RuntimeException ex) {
+            failedReloads.incrementAndGet();
+        }
+    }
+
+    /**
+     * One loaded value with its version and timings, swapped in as a unit.
+     * @param <T> the type of the loaded data
+     */
+    private static final class Loaded<T> {
+        private final T value;
+        private final long version;
+        private final long loadMillis;
+        private final long loadedAt;
+
+        Loaded(T value, long version, long loadMillis, long loadedAt) {
+            this.value = value;
+            this.version = version;
+            this.loadMillis = loadMillis;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.translation;
+
+/**
+ * A count-min sketch estimating how often each key has been seen recently, used by
+ * {@link CachingTranslator} to decide whether a new entry is worth more than the one it would evict.<br/>
+ * Counters saturate at 15 and are all halved once enough increments have been recorded,
+ * so that old popularity fades. Not thread-safe: the cache only touches it while holding its
+ * eviction lock, replaying the reads it buffered in the meantime.
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int SAMPLE_FACTOR = 10;
+    // small caches still need enough counters to tell a hot key from background noise
+    private static final int MIN_WIDTH = 256;
+    private static final int[] SEEDS = {0x97CB3127, 0xB8E1AFED, 0x5A1C2E8B, 0xC2B2AE35};
+
+    private final int[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Creates a sketch sized for a cache holding the given number of entries.
+     * @param maximumSize the number of entries in the cache
+     */
+    FrequencySketch(int maximumSize) {
+        int width = MIN_WIDTH;
+        while (width < maximumSize * DEPTH) {
+            width <<= 1;
+        }
+        this.table = new int[width];
+        this.mask = width - 1;
+        this.sampleSize = SAMPLE_FACTOR * width / DEPTH;
+    }
+
+    /**
+     * Records one occurrence of the key with the given hash.
+     * @param hash the hash of the key
+     */
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = indexOf(hash, i);
+            if (table[index] < MAX_COUNT) {
+                table[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Returns the estimated number of recent occurrences of the key with the given hash.
+     * @param hash the hash of the key
+     * @return the estimated frequency, between 0 and 15
+     */
+    int frequency(int hash) {
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, table[indexOf(hash, i)]);
+        }
+        return frequency;
+    }
+
+    private int indexOf(int hash, int depth) {
+        int h = (hash + SEEDS[depth]) * SEEDS[depth];
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void reset() {
+        additions = 0;
+        for (int i = 0; i < table.length; i++) {
+            table[i] >>>= 1;
+        }
+    }
+}
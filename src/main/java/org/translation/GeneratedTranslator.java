@@ -0,0 +1,89 @@
+package org.translation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An implementation of the Translator interface serving the translations of sample.json as compiled into
+ * constant tables at build time (see TranslationData), so constructing one reads and parses nothing.<br/>
+ * Country codes (ignoring case) and language codes are each found through a {@link PerfectHash}, and
+ * the cells of every row sit in one flat array, so a lookup is two perfect hash probes and two array
+ * reads. The tables are decoded once per process, on first use; instances hold no state of their own
+ * and may be shared by any number of threads.
+ */
+public class GeneratedTranslator implements Translator {
+
+    private static final int ABSENT = TranslationTable.ABSENT;
+
+    /**
+     * Constructs a GeneratedTranslator over the translations generated from sample.json.
+     */
+    public GeneratedTranslator() {
+        // all state is in Tables, which the JVM initializes once on first use
+    }
+
+    @Override
+    public List<String> getCountryLanguages(String country) {
+        int row = Tables.COUNTRIES.indexOf(country);
+        if (row == PerfectHash.NOT_FOUND) {
+            return List.of();
+        }
+        return Tables.ROW_LANGUAGES.get(row);
+    }
+
+    @Override
+    public List<String> getCountries() {
+        return Tables.COUNTRY_CODES;
+    }
+
+    @Override
+    public String translate(String country, String language) {
+        int row = Tables.COUNTRIES.indexOf(country);
+        int column = Tables.LANGUAGES.indexOf(language);
+        if (row == PerfectHash.NOT_FOUND || column == PerfectHash.NOT_FOUND) {
+            return null;
+        }
+        int cell = TranslationData.CELLS[row * TranslationData.LANGUAGES.length + column];
+        if (cell == ABSENT) {
+            return null;
+        }
+        return TranslationData.POOL[cell];
+    }
+
+    /**
+     * The lookup structures over TranslationData, built when the class is first used.
+     */
+    private static final class Tables {
+        static final PerfectHash COUNTRIES = new PerfectHash(TranslationData.COUNTRIES,
+                TranslationData.COUNTRY_DISPLACEMENTS, TranslationData.COUNTRY_ORDER, true);
+        static final PerfectHash LANGUAGES = new PerfectHash(TranslationData.LANGUAGES,
+                TranslationData.LANGUAGE_DISPLACEMENTS, TranslationData.LANGUAGE_ORDER, false);
+        static final List<String> COUNTRY_CODES =
+                Collections.unmodifiableList(Arrays.asList(TranslationData.COUNTRIES));
+        static final List<List<String>> ROW_LANGUAGES = rowLanguages();
+
+        /**
+         * Lists the languages of every row up front, sharing one instance between rows with equal lists,
+         * as TranslationTable does.
+         */
+        private static List<List<String>> rowLanguages() {
+            int columns = TranslationData.LANGUAGES.length;
+            Map<List<String>, List<String>> shared = new HashMap<>();
+            List<List<String>> result = new ArrayList<>(TranslationData.COUNTRIES.length);
+            for (int row = 0; row < TranslationData.COUNTRIES.length; row++) {
+                List<String> rowLanguages = new ArrayList<>();
+                for (int column = 0; column < columns; column++) {
+                    if (TranslationData.CELLS[row * columns + column] != ABSENT) {
+                        rowLanguages.add(TranslationData.LANGUAGES[column]);
+                    }
+                }
+                result.add(shared.computeIfAbsent(rowLanguages, Collections::unmodifiableList));
+            }
+            return result;
+        }
+    }
+}
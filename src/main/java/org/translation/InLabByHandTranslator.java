@@ -1,6 +1,5 @@
 package org.translation;
 
-import java.util.ArrayList;
 import java.util.List;
 
 // Extra Task: if your group has extra time, you can add support for another country code in this class.
@@ -8,8 +7,12 @@ import java.util.List;
 /**
  * An implementation of the Translator interface which translates
  * the country code "can" to several languages.
+ * It holds no state, so it may be used from any number of threads at once.
  */
 public class InLabByHandTranslator implements Translator {
+
+    private static final List<String> CANADA_LANGUAGES = List.of("de", "en", "zh", "es", "it");
+
     /**
      * Returns the language abbreviations for all languages whose translations are
      * available for the given country.
@@ -19,12 +22,14 @@ public class InLabByHandTranslator implements Translator {
      */
     public static final String CANADA = "can";
 
+    private static final List<String> COUNTRIES = List.of(CANADA);
+
     @Override
     public List<String> getCountryLanguages(String country) {
         if (CANADA.equals(country)) {
-            return new ArrayList<>(List.of("de", "en", "zh", "es", "it"));
+            return CANADA_LANGUAGES;
         }
-        return new ArrayList<>();
+        return List.of();
     }
 
     /**
@@ -35,7 +40,7 @@ public class InLabByHandTranslator implements Translator {
      */
     @Override
     public List<String> getCountries() {
-        return new ArrayList<>(List.of(CANADA));
+        return COUNTRIES;
     }
 
     /**
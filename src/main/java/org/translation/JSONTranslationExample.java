@@ -1,12 +1,7 @@
 package org.translation;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-
-import org.json.JSONArray;
-import org.json.JSONObject;
 
 /**
  * A minimal example of reading and using the JSON data from resources/sample.json.
@@ -14,19 +9,16 @@ import org.json.JSONObject;
 public class JSONTranslationExample {
 
     public static final int CANADA_INDEX = 30;
-    private final JSONArray jsonArray;
+    private final TranslationTable table;
 
     // Note: CheckStyle is configured so that we are allowed to omit javadoc for constructors
     public JSONTranslationExample() {
-        try {
-            // this next line of code reads in a file from the resources folder as a String,
-            // which we then create a new JSONArray object from.
-            String jsonString = Files.readString(
-                    Paths.get(getClass().getClassLoader().getResource("sample.json").toURI())
-            );
-            this.jsonArray = new JSONArray(jsonString);
+        // this next statement streams a file from the resources folder, one country object
+        // at a time, into a TranslationTable.
+        try (BufferedReader reader = ResourceLoader.open("sample.json")) {
+            this.table = TranslationLoader.load(reader);
         }
-        catch (IOException | URISyntaxException ex) {
+        catch (IOException ex) {
             throw new RuntimeException(ex);
         }
     }
@@ -36,8 +28,7 @@ public class JSONTranslationExample {
      * @return the Spanish translation of Canada
      */
     public String getCanadaCountryNameSpanishTranslation() {
-        JSONObject canada = jsonArray.getJSONObject(CANADA_INDEX);
-        return canada.getString("es");
+        return table.name(CANADA_INDEX, table.columnOf("es"));
     }
 
     /**
@@ -47,13 +38,11 @@ public class JSONTranslationExample {
      * @return the translation of country to the given language or "Country not found" if there is no translation.
      */
     public String getCountryNameTranslation(String countryCode, String languageCode) {
-        for (int i = 0; i < jsonArray.length(); i++) {
-            JSONObject jsonObject = jsonArray.getJSONObject(i);
-            if (jsonObject.getString("alpha3").equals(countryCode) && jsonObject.has(languageCode)) {
-                return jsonObject.getString(languageCode);
-            }
+        String translation = table.translate(countryCode, languageCode);
+        if (translation == null) {
+            return "Country not found";
         }
-        return "Country not found";
+        return translation;
     }
 
     /**
@@ -1,24 +1,35 @@
 package org.translation;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-
-import org.json.JSONArray;
-import org.json.JSONObject;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An implementation of the Translator interface which reads in the translation
  * data from a JSON file. The data is read in once each time an instance of this class is constructed.
+ * The data is held in a {@link TranslationTable}, so a lookup is two hash probes and an array read.
+ * Instances are immutable once constructed, so translate, getCountries and getCountryLanguages
+ * may be called from any number of threads at once without locking.
  */
 public class JSONTranslator implements Translator {
 
-    private List<List<String>> countryDataList;
-    private List<String> countryCodes;
-    private String delimiter = ",";
+    private static final MethodMetrics LOAD = TranslationMetrics.method("JSONTranslator.load");
+    private static final MethodMetrics TRANSLATE = TranslationMetrics.method(TranslationMetrics.TRANSLATE);
+    private static final MethodMetrics GET_COUNTRIES = TranslationMetrics.method("JSONTranslator.getCountries");
+    private static final MethodMetrics GET_COUNTRY_LANGUAGES =
+            TranslationMetrics.method("JSONTranslator.getCountryLanguages");
+
+    private final TranslationTable table;
+    private final List<String> countryCodes;
+    // built on the first reverse lookup, as most translators never make one
+    private volatile ReverseTranslationIndex reverseIndex;
+    private final Map<String, SortedListing> sortedCountries = new ConcurrentHashMap<>();
 
     /**
      * Constructs a JSONTranslator using data from the sample.json resources file.
@@ -29,87 +40,172 @@ public class JSONTranslator implements Translator {
 
     /**
      * Constructs a JSONTranslator populated using data from the specified resources file.
+     * The file may also be a filesystem path, and may be gzip-compressed (see {@link ResourceLoader}).
      * @param filename the name of the file in resources to load the data from
      * @throws RuntimeException if the resource file can't be loaded properly
      */
     public JSONTranslator(String filename) {
-        countryDataList = new ArrayList<>();
-        countryCodes = new ArrayList<>();
-        try {
-
-            String jsonString = Files.readString(Paths.get(getClass().getClassLoader().getResource(filename).toURI()));
-
-            JSONArray jsonArray = new JSONArray(jsonString);
-
-            for (int i = 0; i < jsonArray.length(); i++) {
-                JSONObject hold = jsonArray.getJSONObject(i);
+        long start = System.nanoTime();
+        try (BufferedReader reader = ResourceLoader.open(filename)) {
+            table = TranslationLoader.load(reader);
+        }
+        catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        if (TranslationMetrics.ENABLED) {
+            LOAD.record(start, true);
+        }
+        countryCodes = countryCodesOf(table);
+    }
 
-                // Create a list to store the country data
-                List<String> countryData = new ArrayList<>();
+    /**
+     * Constructs a JSONTranslator serving the translations in an already loaded table,
+     * for example one streamed by {@link TranslationLoader} from a file outside the resources folder.
+     * @param table the table of translations
+     */
+    public JSONTranslator(TranslationTable table) {
+        this.table = table;
+        countryCodes = countryCodesOf(table);
+    }
 
-                // Get the country code
-                String countryCode = hold.getString("alpha3");
-                countryCodes.add(countryCode);
-                countryData.add(countryCode);
+    private static List<String> countryCodesOf(TranslationTable table) {
+        List<String> codes = new ArrayList<>(table.rowCount());
+        for (int row = 0; row < table.rowCount(); row++) {
+            codes.add(table.countryCode(row));
+        }
+        return Collections.unmodifiableList(codes);
+    }
 
-                // Create lists for language codes and country names
-                List<String> languageCodes = new ArrayList<>();
-                List<String> countryNames = new ArrayList<>();
+    @Override
+    public List<String> getCountryLanguages(String country) {
+        if (!TranslationMetrics.ENABLED) {
+            return table.languagesOf(table.rowOf(country));
+        }
+        long start = System.nanoTime();
+        List<String> languages = table.languagesOf(table.rowOf(country));
+        GET_COUNTRY_LANGUAGES.record(start, !languages.isEmpty());
+        return languages;
+    }
 
-                // Iterate over the JSON object to get language codes and country names
-                for (String key : hold.keySet()) {
-                    if (!"id".equals(key) && !"alpha2".equals(key) && !"alpha3".equals(key)) {
-                        languageCodes.add(key);
-                        countryNames.add(hold.getString(key));
-                    }
-                }
+    @Override
+    public List<String> getCountries() {
+        if (!TranslationMetrics.ENABLED) {
+            return countryCodes;
+        }
+        long start = System.nanoTime();
+        GET_COUNTRIES.record(start, true);
+        return countryCodes;
+    }
 
-                // Add the languageCodes and countryNames to the countryCodes list
-                countryData.add(String.join(delimiter, languageCodes));
-                countryData.add(String.join(delimiter, countryNames));
+    @Override
+    public String translate(String country, String language) {
+        if (!TranslationMetrics.ENABLED) {
+            return table.translate(country, language);
+        }
+        long start = System.nanoTime();
+        String translation = table.translate(country, language);
+        TRANSLATE.record(start, translation != null);
+        TranslationMetrics.get().recordTranslation(country, language, translation != null);
+        return translation;
+    }
 
-                // Add the complete countryCodes list to the countryDataList
-                countryDataList.add(countryData);
-            }
+    @Override
+    public String[] translateAll(List<String> countries, List<String> languages) {
+        if (countries.size() != languages.size()) {
+            throw new IllegalArgumentException("Expected one language per country but got "
+                    + countries.size() + " countries and " + languages.size() + " languages");
         }
-        catch (IOException | URISyntaxException ex) {
-            throw new RuntimeException(ex);
+        String[] result = new String[countries.size()];
+        // reports usually repeat the same language, so only re-resolve the column when it changes
+        String language = null;
+        int column = TranslationTable.ABSENT;
+        for (int i = 0; i < result.length; i++) {
+            String nextLanguage = languages.get(i);
+            if (language == null || !language.equals(nextLanguage)) {
+                language = nextLanguage;
+                column = table.columnOf(language);
+            }
+            result[i] = table.name(table.rowOf(countries.get(i)), column);
         }
+        return result;
     }
 
     @Override
-    public List<String> getCountryLanguages(String country) {
-        for (List<String> countryData : countryDataList) {
-            String countryCode = countryData.get(0);
-            if (countryCode.equalsIgnoreCase(country)) {
-                String languages = countryData.get(1);
-                return List.of(languages.split(delimiter));
+    public Map<String, String> translateCountry(String country) {
+        Map<String, String> result = new LinkedHashMap<>();
+        int row = table.rowOf(country);
+        if (row == TranslationTable.ABSENT) {
+            return result;
+        }
+        for (int column = 0; column < table.columnCount(); column++) {
+            String translation = table.name(row, column);
+            if (translation != null) {
+                result.put(table.languageCode(column), translation);
             }
         }
-        return new ArrayList<>();
+        return result;
     }
 
     @Override
-    public List<String> getCountries() {
-        return new ArrayList<>(countryCodes);
+    public Map<String, String> translateLanguage(String language) {
+        Map<String, String> result = new LinkedHashMap<>();
+        int column = table.columnOf(language);
+        if (column == TranslationTable.ABSENT) {
+            return result;
+        }
+        for (int row = 0; row < table.rowCount(); row++) {
+            String translation = table.name(row, column);
+            if (translation != null) {
+                result.put(table.countryCode(row), translation);
+            }
+        }
+        return result;
     }
 
     @Override
-    public String translate(String country, String language) {
+    public SortedListing getSortedCountries(String language, Locale locale) {
+        if (table.columnOf(language) == TranslationTable.ABSENT) {
+            // only cache languages in the data, so unknown input can't grow the cache
+            return SortedListing.of(Map.of(), locale);
+        }
+        return sortedCountries.computeIfAbsent(language + '\n' + locale.toLanguageTag(),
+                key -> SortedListing.of(translateLanguage(language), locale));
+    }
+
+    /**
+     * Returns the table holding this translator's data.
+     * @return the table of translations
+     */
+    public TranslationTable getTable() {
+        return table;
+    }
 
-        for (List<String> countryData : countryDataList) {
-            String countryCode = countryData.get(0);
-            if (countryCode.equalsIgnoreCase(country)) {
-                List<String> languageCodes = List.of(countryData.get(1).split(delimiter));
-                List<String> countryNames = List.of(countryData.get(2).split(delimiter));
+    /**
+     * Returns the code of the country with the given name in any of this translator's languages,
+     * ignoring case, for example "deu" for "Allemagne".
+     * @param name a country name in any language
+     * @return the country code, or null if no translation has that name
+     */
+    public String findCountry(String name) {
+        return getReverseIndex().countryOf(name);
+    }
 
-                // Find the index of the language in the languageCodes list
-                int index = languageCodes.indexOf(language);
-                if (index != -1) {
-                    return countryNames.get(index);
+    /**
+     * Returns the reverse index from localized names to countries and languages, building it on the
+     * first call.
+     * @return the reverse index
+     */
+    public ReverseTranslationIndex getReverseIndex() {
+        ReverseTranslationIndex index = reverseIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = reverseIndex;
+                if (index == null) {
+                    index = ReverseTranslationIndex.build(table);
+                    reverseIndex = index;
                 }
             }
         }
-        return null;
+        return index;
     }
 }
@@ -0,0 +1,134 @@
+package org.translation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes JSON values straight to an OutputStream as UTF-8, escaping strings as it goes,
+ * so that a response is never assembled as an intermediate String.<br/>
+ * The writer only tracks whether a comma is needed; callers are responsible for nesting
+ * begin and end calls correctly. Not thread-safe; use one per response.
+ */
+final class JsonWriter {
+
+    private static final int CONTROL_LIMIT = 0x20;
+    private static final int ONE_BYTE_LIMIT = 0x80;
+    private static final int TWO_BYTE_LIMIT = 0x800;
+    private static final int HEX_DIGITS = 4;
+    private static final int NIBBLE_BITS = 4;
+    private static final int NIBBLE_MASK = 0xF;
+    private static final int SIX_BITS = 6;
+    private static final int TWELVE_BITS = 12;
+    private static final int EIGHTEEN_BITS = 18;
+    private static final int CONTINUATION_MASK = 0x3F;
+    private static final int CONTINUATION = 0x80;
+    private static final int TWO_BYTE_LEAD = 0xC0;
+    private static final int THREE_BYTE_LEAD = 0xE0;
+    private static final int FOUR_BYTE_LEAD = 0xF0;
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final OutputStream out;
+    private boolean needsComma;
+
+    JsonWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    JsonWriter beginObject() throws IOException {
+        separate();
+        out.write('{');
+        needsComma = false;
+        return this;
+    }
+
+    JsonWriter endObject() throws IOException {
+        out.write('}');
+        needsComma = true;
+        return this;
+    }
+
+    JsonWriter beginArray() throws IOException {
+        separate();
+        out.write('[');
+        needsComma = false;
+        return this;
+    }
+
+    JsonWriter endArray() throws IOException {
+        out.write(']');
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Writes an object key; the next value written belongs to it.
+     */
+    JsonWriter name(String name) throws IOException {
+        separate();
+        writeString(name);
+        out.write(':');
+        needsComma = false;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or null.
+     */
+    JsonWriter value(String value) throws IOException {
+        separate();
+        if (value == null) {
+            out.write(NULL);
+        }
+        else {
+            writeString(value);
+        }
+        needsComma = true;
+        return this;
+    }
+
+    private void separate() throws IOException {
+        if (needsComma) {
+            out.write(',');
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            }
+            else if (c < CONTROL_LIMIT) {
+                out.write('\\');
+                out.write('u');
+                for (int shift = (HEX_DIGITS - 1) * NIBBLE_BITS; shift >= 0; shift -= NIBBLE_BITS) {
+                    out.write(HEX[(c >> shift) & NIBBLE_MASK]);
+                }
+            }
+            else if (c < ONE_BYTE_LIMIT) {
+                out.write(c);
+            }
+            else if (c < TWO_BYTE_LIMIT) {
+                out.write(TWO_BYTE_LEAD | c >> SIX_BITS);
+                out.write(CONTINUATION | c & CONTINUATION_MASK);
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.write(FOUR_BYTE_LEAD | codePoint >> EIGHTEEN_BITS);
+                out.write(CONTINUATION | codePoint >> TWELVE_BITS & CONTINUATION_MASK);
+                out.write(CONTINUATION | codePoint >> SIX_BITS & CONTINUATION_MASK);
+                out.write(CONTINUATION | codePoint & CONTINUATION_MASK);
+            }
+            else {
+                out.write(THREE_BYTE_LEAD | c >> TWELVE_BITS);
+                out.write(CONTINUATION | c >> SIX_BITS & CONTINUATION_MASK);
+                out.write(CONTINUATION | c & CONTINUATION_MASK);
+            }
+        }
+        out.write('"');
+    }
+}
@@ -1,58 +1,69 @@
 package org.translation;
 
 import java.io.IOException;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class provides the service of converting language codes to their names.
+ * Codes and names are held in arrays, and each is found through a {@link PerfectHash}.
  */
 public class LanguageCodeConverter {
 
-    private final Map<String, List<String>> languagesCodes = new HashMap<>();
-    private final Map<String, String> reverseMap = new HashMap<>();
+    private static final MethodMetrics LOAD = TranslationMetrics.method("LanguageCodeConverter.load");
+    private static final MethodMetrics FROM_LANGUAGE_CODE =
+            TranslationMetrics.method("LanguageCodeConverter.fromLanguageCode");
+    private static final MethodMetrics FROM_LANGUAGE = TranslationMetrics.method("LanguageCodeConverter.fromLanguage");
+
+    private final Codes codes;
+    private final Map<Locale, SortedListing> sortedNames = new ConcurrentHashMap<>();
 
     // Add an empty line before the constructor
     /**
-     * Default constructor which will load the language codes from "language-codes.txt"
-     * in the resources folder.
+     * Default constructor which uses the language codes of "language-codes.txt" in the resources folder,
+     * as compiled into constant tables at build time, so it reads and parses nothing.
      */
     public LanguageCodeConverter() {
-        this("language-codes.txt");
+        codes = Generated.CODES;
     }
 
     // Add an empty line before the overloaded constructor
     /**
      * Overloaded constructor which allows us to specify the filename to load the language code data from.
+     * The file may also be a filesystem path, and may be gzip-compressed (see {@link ResourceLoader}).
      * @param filename the name of the file in the resources folder to load the data from
      * @throws RuntimeException if the resource file can't be loaded properly
      */
     public LanguageCodeConverter(String filename) {
+        long start = System.nanoTime();
         try {
-            List<String> lines = Files.readAllLines(Paths.get(getClass()
-                    .getClassLoader().getResource(filename).toURI()));
-            for (int i = 0; i < lines.size(); i++) {
-                String hold = lines.get(i);
-                int index = hold.indexOf('\t');
-                if (index != -1) {
-                    String first = hold.substring(0, index);
-                    String end = hold.substring(index + 1);
-
-                    List<String> names = Arrays.asList(first.split(",\\s*"));
-                    languagesCodes.put(end.trim(), names);
+            codes = Codes.fromLines(ResourceLoader.readLines(filename));
+        }
+        catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        if (TranslationMetrics.ENABLED) {
+            LOAD.record(start, true);
+        }
+    }
 
-                    for (String name : names) {
-                        reverseMap.put(name.trim(), end.trim());
-                    }
-                }
-            }
+    /**
+     * Overloaded constructor which loads the language code data from a file outside the resources folder.
+     * @param file the path of the file to load the data from
+     * @throws RuntimeException if the file can't be loaded properly
+     */
+    public LanguageCodeConverter(Path file) {
+        try {
+            codes = Codes.fromLines(ResourceLoader.readLines(file));
         }
-        catch (IOException | URISyntaxException ex) {
+        catch (IOException ex) {
             throw new RuntimeException(ex);
         }
     }
@@ -63,11 +74,29 @@ public class LanguageCodeConverter {
      * @return the name of the language corresponding to the code
      */
     public String fromLanguageCode(String code) {
-        List<String> names = languagesCodes.get(code);
-        if (names != null && !names.isEmpty()) {
-            return names.get(0);
+        if (!TranslationMetrics.ENABLED) {
+            return firstName(code);
+        }
+        long start = System.nanoTime();
+        String name = firstName(code);
+        FROM_LANGUAGE_CODE.record(start, name != null);
+        return name;
+    }
+
+    private String firstName(String code) {
+        int index = codes.byCode.indexOf(code);
+        if (index == PerfectHash.NOT_FOUND || codes.names.get(index).isEmpty()) {
+            return null;
+        }
+        return codes.names.get(index).get(0);
+    }
+
+    private String codeOf(String language) {
+        int index = codes.byName.indexOf(language);
+        if (index == PerfectHash.NOT_FOUND) {
+            return null;
         }
-        return null;
+        return codes.nameCodes[index];
     }
 
     /**
@@ -76,7 +105,13 @@ public class LanguageCodeConverter {
      * @return the 2-letter code of the language
      */
     public String fromLanguage(String language) {
-        return reverseMap.get(language);
+        if (!TranslationMetrics.ENABLED) {
+            return codeOf(language);
+        }
+        long start = System.nanoTime();
+        String code = codeOf(language);
+        FROM_LANGUAGE.record(start, code != null);
+        return code;
     }
 
     /**
@@ -84,6 +119,110 @@ public class LanguageCodeConverter {
      * @return how many languages are included in this code converter.
      */
     public int getNumLanguages() {
-        return languagesCodes.size();
+        return codes.codes.length;
+    }
+
+    /**
+     * Returns the name of every language, sorted for display in the given locale and paired with
+     * its code. The listing is built on first use and shared by every later call for the locale.
+     * @param locale the locale to sort for
+     * @return the sorted language names
+     */
+    public SortedListing getSortedNames(Locale locale) {
+        return sortedNames.computeIfAbsent(locale, key -> {
+            Map<String, String> names = new LinkedHashMap<>();
+            for (String code : codes.codes) {
+                names.put(code, firstName(code));
+            }
+            return SortedListing.of(names, key);
+        });
+    }
+
+    // Note: the next two methods are package-private views used by SnapshotCompiler
+
+    Map<String, List<String>> namesByCode() {
+        Map<String, List<String>> names = new LinkedHashMap<>();
+        for (int i = 0; i < codes.codes.length; i++) {
+            names.put(codes.codes[i], codes.names.get(i));
+        }
+        return Collections.unmodifiableMap(names);
+    }
+
+    Map<String, String> codesByName() {
+        Map<String, String> names = new LinkedHashMap<>();
+        for (int i = 0; i < codes.nameKeys.length; i++) {
+            names.put(codes.nameKeys[i], codes.nameCodes[i]);
+        }
+        return Collections.unmodifiableMap(names);
+    }
+
+    /**
+     * The distinct codes with their names, and the distinct names with their codes, in the order
+     * they first appear in the file. When a code or name appears twice, its last line wins.
+     */
+    private static final class Codes {
+        private final String[] codes;
+        private final List<List<String>> names;
+        private final PerfectHash byCode;
+        private final String[] nameKeys;
+        private final String[] nameCodes;
+        private final PerfectHash byName;
+
+        private Codes(String[] codes, List<List<String>> names, PerfectHash byCode,
+                      String[] nameKeys, String[] nameCodes, PerfectHash byName) {
+            this.codes = codes;
+            this.names = names;
+            this.byCode = byCode;
+            this.nameKeys = nameKeys;
+            this.nameCodes = nameCodes;
+            this.byName = byName;
+        }
+
+        static Codes fromLines(List<String> lines) {
+            Map<String, List<String>> languagesCodes = new LinkedHashMap<>();
+            Map<String, String> reverseMap = new LinkedHashMap<>();
+            for (int i = 0; i < lines.size(); i++) {
+                String hold = lines.get(i);
+                int index = hold.indexOf('\t');
+                if (index != -1) {
+                    String first = hold.substring(0, index);
+                    String end = hold.substring(index + 1);
+
+                    List<String> names = Arrays.asList(first.split(",\\s*"));
+                    languagesCodes.put(end.trim(), names);
+
+                    for (String name : names) {
+                        reverseMap.put(name.trim(), end.trim());
+                    }
+                }
+            }
+            String[] codes = languagesCodes.keySet().toArray(new String[0]);
+            String[] nameKeys = reverseMap.keySet().toArray(new String[0]);
+            return new Codes(codes, new ArrayList<>(languagesCodes.values()), PerfectHash.build(codes, false),
+                    nameKeys, reverseMap.values().toArray(new String[0]), PerfectHash.build(nameKeys, false));
+        }
+    }
+
+    /**
+     * Holds the codes generated from language-codes.txt at build time (see LanguageCodeData), so that
+     * they are only decoded once something asks for them.
+     */
+    private static final class Generated {
+        static final Codes CODES = new Codes(LanguageCodeData.CODES, names(),
+                new PerfectHash(LanguageCodeData.CODES, LanguageCodeData.CODE_DISPLACEMENTS,
+                        LanguageCodeData.CODE_ORDER, false),
+                LanguageCodeData.NAMES, LanguageCodeData.NAME_CODES,
+                new PerfectHash(LanguageCodeData.NAMES, LanguageCodeData.NAME_DISPLACEMENTS,
+                        LanguageCodeData.NAME_ORDER, false));
+
+        private static List<List<String>> names() {
+            List<List<String>> names = new ArrayList<>(LanguageCodeData.CODES.length);
+            int next = 0;
+            for (int count : LanguageCodeData.NAME_COUNTS) {
+                names.add(Arrays.asList(Arrays.copyOfRange(LanguageCodeData.CODE_NAMES, next, next + count)));
+                next += count;
+            }
+            return names;
+        }
     }
 }
@@ -0,0 +1,87 @@
+package org.translation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent latency histogram with one bucket per power of two nanoseconds.<br/>
+ * Recording is a leading-zero count and one LongAdder increment, so it is cheap and does not
+ * contend between threads; percentiles are reported as the upper bound of their bucket, which is
+ * within a factor of two of the true value.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = Long.SIZE;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one latency.
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets[Math.max(0, BUCKETS - 1 - Long.numberOfLeadingZeros(value))].increment();
+        totalNanos.add(value);
+    }
+
+    /**
+     * Returns how many latencies have been recorded.
+     * @return the number of recorded latencies
+     */
+    public long count() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the mean recorded latency.
+     * @return the mean latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public long meanNanos() {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        return totalNanos.sum() / count;
+    }
+
+    /**
+     * Returns an upper bound of the latency below which the given fraction of recorded latencies fall.
+     * @param fraction the fraction, for example 0.99 for the 99th percentile
+     * @return the percentile in nanoseconds, or 0 if nothing was recorded
+     */
+    public long percentileNanos(double fraction) {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // bucket i holds values in [2^i, 2^(i+1)); the zero bucket holds 0 and 1
+                return (2L << i) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -1,8 +1,10 @@
 package org.translation;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
 
 /**
@@ -16,14 +18,22 @@ import java.util.Scanner;
  */
 public class Main {
     private static final String QUIT = "quit";
+    private static final String BATCH = "--batch";
 
     /**
      * This is the main entry point of our Translation System!<br/>
      * A class implementing the Translator interface is created and passed into a call to runProgram.
-     * @param args not used by the program
+     * Run with "--batch input output" to translate a file of rows without prompting (see {@link BatchTranslator}).
+     * @param args empty, or "--batch" followed by the input and output files
+     * @throws IOException if a batch file can't be read or written
      */
-    public static void main(String[] args) {
-        Translator translator = new JSONTranslator();
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && BATCH.equals(args[0])) {
+            BatchTranslator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // load the translations and both converters at once rather than one after another
+        Translator translator = TranslationBootstrap.load().getTranslator();
         runProgram(translator);
     }
 
@@ -34,18 +44,31 @@ public class Main {
      * @param translator the Translator implementation to use in the program
      */
     public static void runProgram(Translator translator) {
+        CountrySearchIndex searchIndex = CountrySearchIndex.build(translator, ConverterRegistry.countryCodes());
+        // the name listings are sorted once per locale and shared, so a prompt never sorts
+        Locale locale = Locale.getDefault(Locale.Category.DISPLAY);
+        SortedListing countryNames = ConverterRegistry.countryCodes().getSortedNames(locale);
+        SortedListing languageNames = ConverterRegistry.languageCodes().getSortedNames(locale);
         while (true) {
-            String country = promptForCountry(translator);
+            String country = promptForCountry(translator, countryNames);
             if (QUIT.equals(country)) {
                 break;
             }
-            CountryCodeConverter converter = new CountryCodeConverter();
+            CountryCodeConverter converter = ConverterRegistry.countryCodes();
             String insert = converter.fromCountry(country);
-            String language = promptForLanguage(translator, insert);
+            if (insert == null) {
+                // not an exact name: fall back to the closest name in any language
+                CountrySearchIndex.Match match = searchIndex.bestMatch(country);
+                if (match != null) {
+                    System.out.println("Assuming you meant " + match.getName());
+                    insert = match.getCode();
+                }
+            }
+            String language = promptForLanguage(translator, insert, languageNames);
             if (QUIT.equals(language)) {
                 break;
             }
-            LanguageCodeConverter names = new LanguageCodeConverter();
+            LanguageCodeConverter names = ConverterRegistry.languageCodes();
             String codes1 = names.fromLanguage(language);
             System.out.println(country + " in " + language + " is " + translator.translate(insert, codes1));
             System.out.println("Press enter to continue or quit to exit.");
@@ -60,17 +83,13 @@ public class Main {
 
     // Note: CheckStyle is configured so that we don't need javadoc for private methods
 
-    private static String promptForCountry(Translator translator) {
+    private static String promptForCountry(Translator translator, SortedListing countryNames) {
         List<String> countries = translator.getCountries();
-        CountryCodeConverter names = new CountryCodeConverter();
-        List<String> countryNames = new ArrayList<>();
-        for (int i = 0; i < countries.size(); i++) {
-            String country = countries.get(i);
-            String hold1 = names.fromCountryCode(country.toUpperCase());
-            countryNames.add(hold1);
+        List<String> codes = new ArrayList<>(countries.size());
+        for (String country : countries) {
+            codes.add(country.toUpperCase());
         }
-        Collections.sort(countryNames);
-        for (String countryName : countryNames) {
+        for (String countryName : countryNames.namesOf(codes)) {
             System.out.println(countryName);
         }
 
@@ -81,18 +100,9 @@ public class Main {
 
     // Note: CheckStyle is configured so that we don't need javadoc for private methods
 
-    private static String promptForLanguage(Translator translator, String country) {
-        List<String> hold = translator.getCountryLanguages(country);
-        LanguageCodeConverter names = new LanguageCodeConverter();
-        List<String> hold1 = new ArrayList<>();
-        for (int i = 0; i < hold.size(); i++) {
-            String lang = names.fromLanguageCode(hold.get(i));
-            hold1.add(lang);
-        }
-        Collections.sort(hold1);
-        for (int i = 0; i < hold1.size(); i++) {
-            String lang1 = hold1.get(i);
-            System.out.println(lang1);
+    private static String promptForLanguage(Translator translator, String country, SortedListing languageNames) {
+        for (String lang : languageNames.namesOf(translator.getCountryLanguages(country))) {
+            System.out.println(lang);
         }
         System.out.println("select a language from above:");
 
@@ -0,0 +1,230 @@
+package org.translation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An implementation of the Translator interface which serves lookups straight from a binary
+ * snapshot written by {@link SnapshotCompiler}.<br/>
+ * The snapshot is memory-mapped, so opening one does next to no parsing and every process
+ * mapping the same file shares one page-cached copy. Strings are only decoded when they are
+ * returned. The buffer is only read with absolute gets, so instances are thread-safe.
+ * The country list and each row's language list are decoded on first use and then shared.
+ */
+public class MappedTranslator implements Translator {
+
+    private static final int NOT_FOUND = -1;
+
+    private final ByteBuffer buffer;
+    private final int rows;
+    private final int columns;
+    private final int cellsPos;
+    private final int stringOffsetsPos;
+    private final int stringDataPos;
+    private final int[] sectionPositions = new int[SnapshotFormat.SECTION_COUNT];
+    private final AtomicReferenceArray<List<String>> rowLanguages;
+    // racing first calls may each decode the list, but they all publish equal immutable lists
+    private volatile List<String> countries;
+
+    /**
+     * Constructs a MappedTranslator over snapshot bytes which are already in memory.
+     * @param buffer the snapshot bytes, starting at index zero
+     * @throws RuntimeException if the buffer doesn't hold a snapshot of a supported version
+     */
+    public MappedTranslator(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.limit() < SnapshotFormat.HEADER_INTS * Integer.BYTES
+                || header(0) != SnapshotFormat.MAGIC) {
+            throw new RuntimeException("Not a translation snapshot");
+        }
+        if (header(1) != SnapshotFormat.VERSION) {
+            throw new RuntimeException("Unsupported translation snapshot version: " + header(1));
+        }
+        this.rows = header(SnapshotFormat.ROWS);
+        this.columns = header(SnapshotFormat.COLUMNS);
+        this.cellsPos = header(SnapshotFormat.CELLS_POS);
+        this.stringOffsetsPos = header(SnapshotFormat.STRING_OFFSETS_POS);
+        this.stringDataPos = header(SnapshotFormat.STRING_DATA_POS);
+        for (int section = 0; section < SnapshotFormat.SECTION_COUNT; section++) {
+            sectionPositions[section] = header(SnapshotFormat.SECTIONS_POS + section);
+        }
+        this.rowLanguages = new AtomicReferenceArray<>(rows);
+    }
+
+    /**
+     * Memory-maps the given snapshot file and returns a translator serving it.
+     * @param file the snapshot file
+     * @return a translator reading from the mapped file
+     * @throws RuntimeException if the file can't be mapped or isn't a snapshot
+     */
+    public static MappedTranslator open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return new MappedTranslator(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    @Override
+    public List<String> getCountryLanguages(String country) {
+        int row = find(SnapshotFormat.COUNTRY_ROWS, country);
+        if (row == NOT_FOUND) {
+            return List.of();
+        }
+        List<String> languages = rowLanguages.get(row);
+        if (languages == null) {
+            languages = decodeLanguages(row);
+            rowLanguages.set(row, languages);
+        }
+        return languages;
+    }
+
+    private List<String> decodeLanguages(int row) {
+        List<String> result = new ArrayList<>();
+        int keys = sectionPositions[SnapshotFormat.LANGUAGE_COLUMNS] + SnapshotFormat.SECTION_HEADER_INTS
+                * Integer.BYTES;
+        for (int column = 0; column < columns; column++) {
+            if (cell(row, column) != TranslationTable.ABSENT) {
+                result.add(string(buffer.getInt(keys + column * Integer.BYTES)));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public List<String> getCountries() {
+        List<String> result = countries;
+        if (result == null) {
+            result = decodeCountries();
+            countries = result;
+        }
+        return result;
+    }
+
+    private List<String> decodeCountries() {
+        List<String> result = new ArrayList<>(rows);
+        int keys = sectionPositions[SnapshotFormat.COUNTRY_ROWS] + SnapshotFormat.SECTION_HEADER_INTS
+                * Integer.BYTES;
+        for (int row = 0; row < rows; row++) {
+            result.add(string(buffer.getInt(keys + row * Integer.BYTES)));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public String translate(String country, String language) {
+        int row = find(SnapshotFormat.COUNTRY_ROWS, country);
+        int column = find(SnapshotFormat.LANGUAGE_COLUMNS, language);
+        if (row == NOT_FOUND || column == NOT_FOUND) {
+            return null;
+        }
+        int id = cell(row, column);
+        if (id == TranslationTable.ABSENT) {
+            return null;
+        }
+        return string(id);
+    }
+
+    /**
+     * Returns the name of the country for the given 3-letter code, ignoring case,
+     * as {@link CountryCodeConverter#fromCountryCode} would.
+     * @param code the 3-letter code of the country
+     * @return the name of the country, or null if the code is unknown
+     */
+    public String fromCountryCode(String code) {
+        return lookup(SnapshotFormat.CODE_TO_COUNTRY, code);
+    }
+
+    /**
+     * Returns the 3-letter code of the given country name, as {@link CountryCodeConverter#fromCountry} would.
+     * @param country the name of the country
+     * @return the 3-letter code of the country, or null if the name is unknown
+     */
+    public String fromCountry(String country) {
+        return lookup(SnapshotFormat.COUNTRY_TO_CODE, country);
+    }
+
+    /**
+     * Returns the name of the language for the given code, as {@link LanguageCodeConverter#fromLanguageCode} would.
+     * @param code the language code
+     * @return the name of the language, or null if the code is unknown
+     */
+    public String fromLanguageCode(String code) {
+        return lookup(SnapshotFormat.CODE_TO_LANGUAGE, code);
+    }
+
+    /**
+     * Returns the code of the given language name, as {@link LanguageCodeConverter#fromLanguage} would.
+     * @param language the name of the language
+     * @return the code of the language, or null if the name is unknown
+     */
+    public String fromLanguage(String language) {
+        return lookup(SnapshotFormat.LANGUAGE_TO_CODE, language);
+    }
+
+    private int header(int index) {
+        return buffer.getInt(index * Integer.BYTES);
+    }
+
+    private int cell(int row, int column) {
+        return buffer.getInt(cellsPos + (row * columns + column) * Integer.BYTES);
+    }
+
+    private String lookup(int section, String key) {
+        int value = find(section, key);
+        if (value == NOT_FOUND) {
+            return null;
+        }
+        return string(value);
+    }
+
+    /**
+     * Probes the hash slots of a section for the given key.
+     * @return the value stored with the key, or NOT_FOUND
+     */
+    private int find(int section, String key) {
+        if (key == null) {
+            return NOT_FOUND;
+        }
+        int position = sectionPositions[section];
+        int size = buffer.getInt(position);
+        int slotCount = buffer.getInt(position + Integer.BYTES);
+        int keys = position + SnapshotFormat.SECTION_HEADER_INTS * Integer.BYTES;
+        int values = keys + size * Integer.BYTES;
+        int slots = values + size * Integer.BYTES;
+        boolean ignoreCase = SnapshotFormat.ignoresCase(section);
+        int mask = slotCount - 1;
+        int slot = SnapshotFormat.hash(key, ignoreCase) & mask;
+        int entry = buffer.getInt(slots + slot * Integer.BYTES);
+        while (entry != 0) {
+            int keyId = buffer.getInt(keys + (entry - 1) * Integer.BYTES);
+            if (stringEquals(keyId, key, ignoreCase)) {
+                return buffer.getInt(values + (entry - 1) * Integer.BYTES);
+            }
+            slot = (slot + 1) & mask;
+            entry = buffer.getInt(slots + slot * Integer.BYTES);
+        }
+        return NOT_FOUND;
+    }
+
+    private String string(int id) {
+        return Utf8.decode(buffer, stringStart(id), stringStart(id + 1));
+    }
+
+    private boolean stringEquals(int id, String key, boolean ignoreCase) {
+        return Utf8.equals(buffer, stringStart(id), stringStart(id + 1), key, ignoreCase);
+    }
+
+    private int stringStart(int id) {
+        return stringDataPos + buffer.getInt(stringOffsetsPos + id * Integer.BYTES);
+    }
+}
@@ -0,0 +1,72 @@
+package org.translation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count, miss count and latency of one instrumented method. See {@link TranslationMetrics}.
+ */
+public final class MethodMetrics {
+
+    private static final double P50 = 0.50;
+    private static final double P99 = 0.99;
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    MethodMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records one call which started at the given System.nanoTime.
+     * @param startNanos the System.nanoTime at which the call started
+     * @param hit false if the call found nothing (returned null)
+     */
+    public void record(long startNanos, boolean hit) {
+        latency.record(System.nanoTime() - startNanos);
+        calls.increment();
+        if (!hit) {
+            misses.increment();
+        }
+    }
+
+    /**
+     * Returns the name of the method, such as "JSONTranslator.translate".
+     * @return the method name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns how many calls were recorded.
+     * @return the number of calls
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * Returns how many calls found nothing.
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the latency histogram of the calls.
+     * @return the latency histogram
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s calls=%d misses=%d mean=%dns p50<=%dns p99<=%dns", name, getCalls(), getMisses(),
+                latency.meanNanos(), latency.percentileNanos(P50), latency.percentileNanos(P99));
+    }
+}
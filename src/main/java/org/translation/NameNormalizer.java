@@ -0,0 +1,25 @@
+package org.translation;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Normalizes country names for matching, so that names which only differ in Unicode
+ * representation or in case compare equal.
+ */
+final class NameNormalizer {
+
+    private NameNormalizer() {
+    }
+
+    /**
+     * Returns the NFKC normalized, case-folded form of a name, with surrounding whitespace removed.
+     * @param name the name to normalize
+     * @return the normalized name
+     */
+    static String normalize(String name) {
+        String folded = Normalizer.normalize(name.strip(), Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        // lower-casing can produce sequences which NFKC composes differently, so normalize once more
+        return Normalizer.normalize(folded, Normalizer.Form.NFKC);
+    }
+}
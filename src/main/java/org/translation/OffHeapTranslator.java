@@ -0,0 +1,496 @@
+package org.translation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import org.json.JSONObject;
+
+/**
+ * An implementation of the Translator interface for datasets too large to hold as Java objects, such as
+ * every admin region and locality in every language.<br/>
+ * Every distinct string is stored once as UTF-8 bytes in a direct buffer, outside the Java heap, and every
+ * index is an array of ints in a direct buffer too: the string offsets, an open-addressing hash table of the
+ * country codes (ignoring case), and each row's names in column order. Rows with the same set of languages
+ * share a table from column to position in the row, so a lookup is a fixed number of reads. Only the
+ * language codes, and one shared list per distinct set of languages, live on the heap, so the heap footprint
+ * stays a few kilobytes however many countries and names are loaded, and the garbage collector never scans
+ * the names.<br/>
+ * Strings are decoded only when the API returns one. {@link #translateTo} takes CharSequence keys and
+ * copies the UTF-8 bytes of the name straight into a buffer, so a lookup through it allocates nothing.
+ * The buffers are only read with absolute gets, so instances are thread-safe once built.
+ */
+public final class OffHeapTranslator implements Translator {
+
+    /** Returned by translateTo when there is no translation. */
+    public static final int NOT_FOUND = -1;
+
+    private final ByteBuffer strings;
+    private final IntBuffer stringOffsets;
+    private final IntBuffer rowCountries;
+    private final IntBuffer countrySlots;
+    private final PerfectHash languageIndex;
+    private final IntBuffer rowStarts;
+    private final IntBuffer rowNames;
+    private final IntBuffer rowLanguageSets;
+    private final IntBuffer setPositions;
+    private final int languageCount;
+    private final List<List<String>> languageSets;
+    private final List<String> countries = new Countries();
+
+    private OffHeapTranslator(Builder builder, Rows rows) {
+        ByteBuffer data = builder.bytes.duplicate();
+        data.flip();
+        this.strings = data.slice().asReadOnlyBuffer();
+        this.stringOffsets = builder.offsets.toBuffer();
+        this.rowCountries = builder.rowCountries.toBuffer();
+        this.countrySlots = builder.countrySlots.asReadOnlyBuffer();
+        this.languageIndex = PerfectHash.build(builder.languages.toArray(new String[0]), false);
+        this.languageCount = builder.languages.size();
+        this.rowStarts = rows.starts.asReadOnlyBuffer();
+        this.rowNames = rows.names.toBuffer();
+        this.rowLanguageSets = rows.sets.asReadOnlyBuffer();
+        this.setPositions = rows.positions.asReadOnlyBuffer();
+        this.languageSets = rows.languageSets;
+    }
+
+    /**
+     * Loads a translator from a resources file in the layout of sample.json.
+     * The file may also be a filesystem path, and may be gzip-compressed (see {@link ResourceLoader}).
+     * @param filename the name of the file in resources to load the data from
+     * @return the translator
+     * @throws RuntimeException if the resource file can't be loaded properly
+     */
+    public static OffHeapTranslator load(String filename) {
+        try (BufferedReader reader = ResourceLoader.open(filename)) {
+            return load(reader);
+        }
+        catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Streams a JSON array of country objects, in the layout of sample.json, straight into a translator.
+     * Only one country object is on the heap at a time. The reader is not closed.
+     * @param reader the reader to read the JSON array from
+     * @return the translator
+     * @throws org.json.JSONException if the input is not an array of JSON objects
+     */
+    public static OffHeapTranslator load(Reader reader) {
+        Builder builder = new Builder();
+        TranslationLoader.forEachCountry(reader, builder::addCountry);
+        return builder.build();
+    }
+
+    /**
+     * Copies every translation of a table into a translator.
+     * @param table the table to copy
+     * @return the translator
+     */
+    public static OffHeapTranslator of(TranslationTable table) {
+        Builder builder = new Builder();
+        for (int row = 0; row < table.rowCount(); row++) {
+            int offHeapRow = builder.addRow(table.countryCode(row));
+            for (int column = 0; column < table.columnCount(); column++) {
+                String name = table.name(row, column);
+                if (name != null) {
+                    builder.put(offHeapRow, table.languageCode(column), name);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public List<String> getCountryLanguages(String country) {
+        int row = rowOf(country);
+        if (row == NOT_FOUND) {
+            return List.of();
+        }
+        return languageSets.get(rowLanguageSets.get(row));
+    }
+
+    /**
+     * Returns the country codes, as a view which decodes each code when it is read.
+     * @return an unmodifiable list of the country codes, in the order they were added
+     */
+    @Override
+    public List<String> getCountries() {
+        return countries;
+    }
+
+    @Override
+    public String translate(String country, String language) {
+        int name = nameOf(country, language);
+        if (name == NOT_FOUND) {
+            return null;
+        }
+        return string(name);
+    }
+
+    /**
+     * Writes the UTF-8 bytes of a translation into a buffer, at its position, without decoding them
+     * or allocating anything.
+     * @param country the country code, ignoring case
+     * @param language the language code
+     * @param sink the buffer to write to
+     * @return the number of bytes written, or NOT_FOUND if there is no translation
+     * @throws BufferOverflowException if the translation does not fit in the remaining space of the sink;
+     *     nothing is written in that case
+     */
+    public int translateTo(CharSequence country, CharSequence language, ByteBuffer sink) {
+        int name = nameOf(country, language);
+        if (name == NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        int start = stringOffsets.get(name);
+        int end = stringOffsets.get(name + 1);
+        if (sink.remaining() < end - start) {
+            throw new BufferOverflowException();
+        }
+        for (int position = start; position < end; position++) {
+            sink.put(strings.get(position));
+        }
+        return end - start;
+    }
+
+    /**
+     * Returns how many bytes of direct buffers the translator holds, outside the Java heap.
+     * @return the off-heap size in bytes
+     */
+    public long offHeapBytes() {
+        long ints = (long) stringOffsets.capacity() + rowCountries.capacity() + countrySlots.capacity()
+                + rowStarts.capacity() + rowNames.capacity() + rowLanguageSets.capacity() + setPositions.capacity();
+        return strings.capacity() + ints * Integer.BYTES;
+    }
+
+    private int nameOf(CharSequence country, CharSequence language) {
+        int row = rowOf(country);
+        int column = languageIndex.indexOf(language);
+        if (row == NOT_FOUND || column == PerfectHash.NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        int position = setPositions.get(rowLanguageSets.get(row) * languageCount + column);
+        if (position == 0) {
+            return NOT_FOUND;
+        }
+        return rowNames.get(rowStarts.get(row) + position - 1);
+    }
+
+    /**
+     * Probes the hash table of country codes, ignoring case. Slots hold a row + 1, or 0 when empty,
+     * and are picked by masking the hash, so the table's size is a power of two.
+     */
+    private int rowOf(CharSequence country) {
+        if (country == null) {
+            return NOT_FOUND;
+        }
+        int mask = countrySlots.limit() - 1;
+        for (int slot = PerfectHash.hash(0, country, true) & mask; ; slot = (slot + 1) & mask) {
+            int entry = countrySlots.get(slot);
+            if (entry == 0) {
+                return NOT_FOUND;
+            }
+            int id = rowCountries.get(entry - 1);
+            if (Utf8.equals(strings, stringOffsets.get(id), stringOffsets.get(id + 1), country, true)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private String string(int id) {
+        return Utf8.decode(strings, stringOffsets.get(id), stringOffsets.get(id + 1));
+    }
+
+    /**
+     * The country codes, decoded one at a time as they are read.
+     */
+    private final class Countries extends AbstractList<String> implements RandomAccess {
+        @Override
+        public String get(int index) {
+            Objects.checkIndex(index, size());
+            return string(rowCountries.get(index));
+        }
+
+        @Override
+        public int size() {
+            return rowCountries.limit();
+        }
+    }
+
+    /**
+     * Incrementally builds an OffHeapTranslator, one country at a time, straight into direct buffers,
+     * so that a dataset never has to fit on the heap. Strings are deduplicated as they are added.
+     * The string data may grow up to 2 GB. A Builder is not thread-safe, and builds one translator only.
+     */
+    public static final class Builder {
+        private static final int INITIAL_BYTES = 64 * 1024;
+        private static final int INITIAL_INTS = 1024;
+
+        private ByteBuffer bytes = ByteBuffer.allocateDirect(INITIAL_BYTES);
+        private final DirectIntArray offsets = new DirectIntArray(INITIAL_INTS);
+        private final DirectIntArray stringHashes = new DirectIntArray(INITIAL_INTS);
+        private IntBuffer stringSlots = DirectIntArray.allocate(2 * INITIAL_INTS);
+        private final DirectIntArray rowCountries = new DirectIntArray(INITIAL_INTS);
+        private final DirectIntArray rowHashes = new DirectIntArray(INITIAL_INTS);
+        private IntBuffer countrySlots = DirectIntArray.allocate(2 * INITIAL_INTS);
+        // there are only ever a few hundred languages, so they stay on the heap
+        private final List<String> languages = new ArrayList<>();
+        private final Map<String, Integer> languageColumns = new HashMap<>();
+        private final DirectIntArray entryRows = new DirectIntArray(INITIAL_INTS);
+        private final DirectIntArray entryColumns = new DirectIntArray(INITIAL_INTS);
+        private final DirectIntArray entryNames = new DirectIntArray(INITIAL_INTS);
+        private boolean built;
+
+        /**
+         * Creates an empty builder.
+         */
+        public Builder() {
+            offsets.add(0);
+        }
+
+        /**
+         * Adds a new row for the given country code, or returns the existing row if the code was already
+         * added, ignoring case.
+         * @param country the country code
+         * @return the row of the country
+         */
+        public int addRow(String country) {
+            checkNotBuilt();
+            int hash = PerfectHash.hash(0, country, true);
+            int mask = countrySlots.limit() - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                int entry = countrySlots.get(slot);
+                if (entry == 0) {
+                    break;
+                }
+                if (stringEquals(rowCountries.get(entry - 1), country, true)) {
+                    return entry - 1;
+                }
+            }
+            int row = rowCountries.size();
+            rowCountries.add(intern(country));
+            rowHashes.add(hash);
+            countrySlots = place(countrySlots, rowHashes);
+            return row;
+        }
+
+        /**
+         * Stores the translation of the given row into the given language code, replacing any earlier one.
+         * @param row the row returned by addRow
+         * @param language the language code
+         * @param name the translated name
+         * @return this builder
+         */
+        public Builder put(int row, String language, String name) {
+            checkNotBuilt();
+            Integer column = languageColumns.get(language);
+            if (column == null) {
+                column = languages.size();
+                languageColumns.put(language, column);
+                languages.add(language);
+            }
+            entryRows.add(row);
+            entryColumns.add(column);
+            entryNames.add(intern(name));
+            return this;
+        }
+
+        /**
+         * Adds one country object, in the layout of sample.json. The "id" and "alpha2" keys are skipped.
+         * @param country the country object
+         * @return this builder
+         */
+        public Builder addCountry(JSONObject country) {
+            int row = addRow(country.getString("alpha3"));
+            for (String key : country.keySet()) {
+                if (!"id".equals(key) && !"alpha2".equals(key) && !"alpha3".equals(key)) {
+                    put(row, key, country.getString(key));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Returns the translator holding everything added so far. The buffers are handed over without
+         * being copied, so the builder can't be used afterwards.
+         * @return the built translator
+         * @throws IllegalStateException if this builder has already built a translator
+         */
+        public OffHeapTranslator build() {
+            checkNotBuilt();
+            built = true;
+            return new OffHeapTranslator(this, new Rows(this));
+        }
+
+        private void checkNotBuilt() {
+            if (built) {
+                throw new IllegalStateException("This builder has already built its OffHeapTranslator");
+            }
+        }
+
+        /**
+         * Returns the id of the given string, appending its bytes if it was not added before.
+         */
+        private int intern(String value) {
+            int hash = PerfectHash.hash(0, value, false);
+            int mask = stringSlots.limit() - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                int entry = stringSlots.get(slot);
+                if (entry == 0) {
+                    break;
+                }
+                if (stringEquals(entry - 1, value, false)) {
+                    return entry - 1;
+                }
+            }
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.remaining() < encoded.length) {
+                long capacity = Math.max(2L * bytes.capacity(), (long) bytes.position() + encoded.length);
+                if (capacity > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("An OffHeapTranslator holds at most 2 GB of strings");
+                }
+                ByteBuffer grown = ByteBuffer.allocateDirect((int) capacity);
+                bytes.flip();
+                grown.put(bytes);
+                bytes = grown;
+            }
+            bytes.put(encoded);
+            offsets.add(bytes.position());
+            stringHashes.add(hash);
+            stringSlots = place(stringSlots, stringHashes);
+            return offsets.size() - 2;
+        }
+
+        private boolean stringEquals(int id, String value, boolean ignoreCase) {
+            return Utf8.equals(bytes, offsets.get(id), offsets.get(id + 1), value, ignoreCase);
+        }
+
+        /**
+         * Enters the newest entry, whose hash was just added to hashes, into a hash table, first doubling
+         * the table if that would make it more than half full.
+         * @return the table, which is a new one if it grew
+         */
+        private static IntBuffer place(IntBuffer slots, DirectIntArray hashes) {
+            int count = hashes.size();
+            if (2 * count <= slots.limit()) {
+                insert(slots, hashes.get(count - 1), count);
+                return slots;
+            }
+            IntBuffer grown = DirectIntArray.allocate(2 * slots.limit());
+            for (int entry = 1; entry <= count; entry++) {
+                insert(grown, hashes.get(entry - 1), entry);
+            }
+            return grown;
+        }
+
+        private static void insert(IntBuffer slots, int hash, int entry) {
+            int mask = slots.limit() - 1;
+            int slot = hash & mask;
+            while (slots.get(slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots.put(slot, entry);
+        }
+    }
+
+    /**
+     * The rows of a built translator: each row's names, deduplicated by language and in column order,
+     * and for each distinct set of languages, the position of each column's name within a row.
+     */
+    private static final class Rows {
+        private final IntBuffer starts;
+        private final DirectIntArray names;
+        private final IntBuffer sets;
+        private final IntBuffer positions;
+        private final List<List<String>> languageSets = new ArrayList<>();
+
+        Rows(Builder builder) {
+            int rows = builder.rowCountries.size();
+            int entries = builder.entryRows.size();
+            int languageCount = builder.languages.size();
+            // group the entries by row with a stable counting sort, so each row's puts stay in order
+            IntBuffer groupStarts = DirectIntArray.allocate(rows + 1);
+            for (int entry = 0; entry < entries; entry++) {
+                int next = builder.entryRows.get(entry) + 1;
+                groupStarts.put(next, groupStarts.get(next) + 1);
+            }
+            for (int row = 0; row < rows; row++) {
+                groupStarts.put(row + 1, groupStarts.get(row + 1) + groupStarts.get(row));
+            }
+            IntBuffer cursors = DirectIntArray.allocate(rows);
+            for (int row = 0; row < rows; row++) {
+                cursors.put(row, groupStarts.get(row));
+            }
+            IntBuffer grouped = DirectIntArray.allocate(entries);
+            for (int entry = 0; entry < entries; entry++) {
+                int row = builder.entryRows.get(entry);
+                int position = cursors.get(row);
+                cursors.put(row, position + 1);
+                grouped.put(position, entry);
+            }
+
+            // keep the last put of each language, and lay the names out in column order
+            this.starts = DirectIntArray.allocate(rows + 1);
+            this.names = new DirectIntArray(entries);
+            this.sets = DirectIntArray.allocate(rows);
+            Map<List<Integer>, Integer> setIndex = new HashMap<>();
+            List<int[]> setColumns = new ArrayList<>();
+            int[] latest = new int[languageCount];
+            Arrays.fill(latest, NOT_FOUND);
+            int[] columns = new int[languageCount];
+            for (int row = 0; row < rows; row++) {
+                int count = 0;
+                for (int position = groupStarts.get(row); position < groupStarts.get(row + 1); position++) {
+                    int entry = grouped.get(position);
+                    int column = builder.entryColumns.get(entry);
+                    if (latest[column] == NOT_FOUND) {
+                        columns[count++] = column;
+                    }
+                    latest[column] = builder.entryNames.get(entry);
+                }
+                Arrays.sort(columns, 0, count);
+                List<Integer> key = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    key.add(columns[i]);
+                    names.add(latest[columns[i]]);
+                    latest[columns[i]] = NOT_FOUND;
+                }
+                Integer set = setIndex.get(key);
+                if (set == null) {
+                    set = setColumns.size();
+                    setIndex.put(key, set);
+                    setColumns.add(Arrays.copyOf(columns, count));
+                }
+                sets.put(row, set);
+                starts.put(row + 1, names.size());
+            }
+
+            // positions are stored plus one, so that zero means the row has no name in that language
+            this.positions = DirectIntArray.allocate(Math.max(1, setColumns.size() * languageCount));
+            for (int set = 0; set < setColumns.size(); set++) {
+                int[] setColumn = setColumns.get(set);
+                List<String> languages = new ArrayList<>(setColumn.length);
+                for (int position = 0; position < setColumn.length; position++) {
+                    positions.put(set * languageCount + setColumn[position], position + 1);
+                    languages.add(builder.languages.get(setColumn[position]));
+                }
+                languageSets.add(Collections.unmodifiableList(languages));
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.translation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the constant tables written by the table generator in src/build.<br/>
+ * A class file cannot hold a large array literal (its initializer is limited to 64 KB of bytecode), but it
+ * can hold string constants, so the generator packs each array into strings: an int as two chars, high
+ * half first, and a string array as each string's length followed by its chars. A long table is split over
+ * several constants, which are joined back together here. Decoding is a single copy with no parsing.
+ */
+final class PackedData {
+
+    private static final int HALF = 16;
+    private static final int LOW_MASK = 0xFFFF;
+
+    private PackedData() {
+    }
+
+    /**
+     * Decodes an int array.
+     * @param parts the constants holding the packed array, in order
+     * @return the array
+     */
+    static int[] ints(String... parts) {
+        String packed = String.join("", parts);
+        int[] values = new int[packed.length() / 2];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = packed.charAt(2 * i) << HALF | packed.charAt(2 * i + 1) & LOW_MASK;
+        }
+        return values;
+    }
+
+    /**
+     * Decodes a string array.
+     * @param parts the constants holding the packed array, in order
+     * @return the array
+     */
+    static String[] strings(String... parts) {
+        String packed = String.join("", parts);
+        List<String> values = new ArrayList<>();
+        int position = 0;
+        while (position < packed.length()) {
+            int length = packed.charAt(position);
+            values.add(packed.substring(position + 1, position + 1 + length));
+            position += 1 + length;
+        }
+        return values.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,223 @@
+package org.translation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal perfect hash over a fixed array of string keys, mapping each key to its index.<br/>
+ * Keys are spread over buckets by one hash; each bucket stores either a seed for a second hash which
+ * sends all of its keys to distinct free slots, or (for a bucket of one key) the slot itself. With as
+ * many slots as keys, a lookup is two hashes of the key, three array reads and one comparison, and
+ * never probes. The tables are built by {@link #build}, either at runtime or at build time by the table
+ * generator in src/build, which runs this class and writes out its tables. Instances are immutable.
+ */
+public final class PerfectHash {
+
+    /** The index returned for a key which is not in the table. */
+    public static final int NOT_FOUND = -1;
+
+    private static final int SEED_MIX = 0x9E3779B9;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final int MIX_1 = 0x85EBCA6B;
+    private static final int MIX_2 = 0xC2B2AE35;
+    private static final int SHIFT_1 = 16;
+    private static final int SHIFT_2 = 13;
+    private static final int MAX_SEED = 1 << 24;
+
+    private final String[] keys;
+    private final int[] displacements;
+    private final int[] order;
+    private final boolean ignoreCase;
+
+    /**
+     * Wraps tables which were built ahead of time, for example by the table generator.
+     * @param keys the keys, indexed as lookups should report them
+     * @param displacements the seed of each bucket, or -(slot + 1) for a bucket holding one key
+     * @param order the index into keys of the key in each slot
+     * @param ignoreCase whether lookups ignore case
+     */
+    public PerfectHash(String[] keys, int[] displacements, int[] order, boolean ignoreCase) {
+        this.keys = keys;
+        this.displacements = displacements;
+        this.order = order;
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * Builds a perfect hash over the given keys. If a key occurs more than once, lookups find its last index.
+     * @param keys the keys
+     * @param ignoreCase whether lookups ignore case
+     * @return the perfect hash
+     */
+    public static PerfectHash build(String[] keys, boolean ignoreCase) {
+        // keep the last index of each distinct key, in order of first appearance
+        Map<String, Integer> distinct = new HashMap<>();
+        List<String> slotKeys = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            if (ignoreCase) {
+                key = fold(key);
+            }
+            if (distinct.put(key, i) == null) {
+                slotKeys.add(key);
+            }
+        }
+        int size = slotKeys.size();
+        int[] displacements = new int[size];
+        int[] order = new int[size];
+        List<List<Integer>> buckets = new ArrayList<>(size);
+        for (int bucket = 0; bucket < size; bucket++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++) {
+            buckets.get(hash(0, slotKeys.get(i), false) % size).add(i);
+        }
+        List<Integer> byLoad = new ArrayList<>(size);
+        for (int bucket = 0; bucket < size; bucket++) {
+            byLoad.add(bucket);
+        }
+        // the fullest buckets are the hardest to place, so they go first while most slots are free
+        byLoad.sort((left, right) -> buckets.get(right).size() - buckets.get(left).size());
+        boolean[] taken = new boolean[size];
+        int nextFree = 0;
+        for (int bucket : byLoad) {
+            List<Integer> members = buckets.get(bucket);
+            if (members.size() > 1) {
+                int seed = findSeed(members, slotKeys, taken);
+                displacements[bucket] = seed;
+                for (int member : members) {
+                    int slot = hash(seed, slotKeys.get(member), false) % size;
+                    taken[slot] = true;
+                    order[slot] = distinct.get(slotKeys.get(member));
+                }
+            }
+            else if (members.size() == 1) {
+                while (taken[nextFree]) {
+                    nextFree++;
+                }
+                taken[nextFree] = true;
+                displacements[bucket] = -nextFree - 1;
+                order[nextFree] = distinct.get(slotKeys.get(members.get(0)));
+            }
+        }
+        return new PerfectHash(keys, displacements, order, ignoreCase);
+    }
+
+    private static int findSeed(List<Integer> members, List<String> slotKeys, boolean[] taken) {
+        int size = taken.length;
+        for (int seed = 1; seed < MAX_SEED; seed++) {
+            List<Integer> slots = new ArrayList<>(members.size());
+            for (int member : members) {
+                int slot = hash(seed, slotKeys.get(member), false) % size;
+                if (taken[slot] || slots.contains(slot)) {
+                    break;
+                }
+                slots.add(slot);
+            }
+            if (slots.size() == members.size()) {
+                return seed;
+            }
+        }
+        throw new IllegalStateException("No perfect hash seed found for a bucket of " + members.size() + " keys");
+    }
+
+    /**
+     * Folds a key to lower case one char at a time, exactly as hash does, rather than with
+     * String.toLowerCase, which may change the length of the key.
+     */
+    private static String fold(String key) {
+        char[] chars = key.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Hashes a key with a seed.
+     * @param seed the seed
+     * @param key the key
+     * @param ignoreCase whether to fold each char to lower case first
+     * @return a non-negative hash
+     */
+    public static int hash(int seed, CharSequence key, boolean ignoreCase) {
+        int hash = seed ^ SEED_MIX;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (ignoreCase) {
+                c = Character.toLowerCase(c);
+            }
+            hash = (hash ^ c) * FNV_PRIME;
+        }
+        hash ^= hash >>> SHIFT_1;
+        hash *= MIX_1;
+        hash ^= hash >>> SHIFT_2;
+        hash *= MIX_2;
+        hash ^= hash >>> SHIFT_1;
+        return hash & Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the index of the given key.
+     * @param key the key to look up
+     * @return the index of the key in the keys array, or NOT_FOUND
+     */
+    public int indexOf(CharSequence key) {
+        if (key == null || order.length == 0) {
+            return NOT_FOUND;
+        }
+        int displacement = displacements[hash(0, key, ignoreCase) % order.length];
+        int slot;
+        if (displacement < 0) {
+            slot = -displacement - 1;
+        }
+        else {
+            slot = hash(displacement, key, ignoreCase) % order.length;
+        }
+        int index = order[slot];
+        if (!matches(keys[index], key)) {
+            return NOT_FOUND;
+        }
+        return index;
+    }
+
+    private boolean matches(String stored, CharSequence key) {
+        if (stored.length() != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char a = stored.charAt(i);
+            char b = key.charAt(i);
+            if (a != b && (!ignoreCase || Character.toLowerCase(a) != Character.toLowerCase(b))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a copy of the seed of each bucket, for writing the tables out ahead of time.
+     * @return the displacements, as the constructor takes them
+     */
+    public int[] getDisplacements() {
+        return displacements.clone();
+    }
+
+    /**
+     * Returns a copy of the index of the key in each slot, for writing the tables out ahead of time.
+     * @return the order, as the constructor takes it
+     */
+    public int[] getOrder() {
+        return order.clone();
+    }
+
+    /**
+     * Returns how many distinct keys the hash holds, which is also its number of slots.
+     * @return the number of distinct keys
+     */
+    public int size() {
+        return order.length;
+    }
+}
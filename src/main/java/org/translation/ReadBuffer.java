@@ -0,0 +1,100 @@
+package org.translation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A lossy, striped buffer of reads, which lets {@link CachingTranslator} record its hits without every
+ * reading thread writing to the same memory.<br/>
+ * Each thread appends to one of several small ring buffers, picked by its thread id. When that ring is
+ * full, or another thread wins the race for the slot, the read is dropped: the cache's frequency estimates
+ * and recency order only need a sample of the reads. Any number of threads may offer at once, but only
+ * one thread at a time may drain, such as one holding the cache's lock.
+ * @param <E> the type of the elements
+ */
+final class ReadBuffer<E> {
+
+    /** Returned by offer when the element was added. */
+    static final int SUCCESS = 0;
+    /** Returned by offer when the element was added or dropped, and the ring should be drained. */
+    static final int FULL = 1;
+    /** Returned by offer when another thread took the slot first, and the element was dropped. */
+    static final int FAILED = 2;
+
+    private static final int STRIPE_SIZE = 16;
+    private static final int STRIPE_MASK = STRIPE_SIZE - 1;
+    private static final int MAX_STRIPES = 64;
+    private static final int SPREAD = 0x9E3779B9;
+    private static final int HALF = 16;
+
+    private final Stripe<E>[] stripes;
+    private final int mask;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    ReadBuffer() {
+        int count = 1;
+        while (count < 2 * Runtime.getRuntime().availableProcessors() && count < MAX_STRIPES) {
+            count <<= 1;
+        }
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        this.mask = count - 1;
+    }
+
+    /**
+     * Appends an element to the calling thread's ring, unless the ring is full.
+     * @param element the element
+     * @return SUCCESS, FULL or FAILED
+     */
+    int offer(E element) {
+        int h = (int) Thread.currentThread().getId() * SPREAD;
+        Stripe<E> stripe = stripes[(h ^ (h >>> HALF)) & mask];
+        long reads = stripe.reads;
+        long writes = stripe.writes.get();
+        if (writes - reads >= STRIPE_SIZE) {
+            return FULL;
+        }
+        if (!stripe.writes.compareAndSet(writes, writes + 1)) {
+            return FAILED;
+        }
+        stripe.slots.lazySet((int) writes & STRIPE_MASK, element);
+        if (writes + 1 - reads >= STRIPE_SIZE) {
+            return FULL;
+        }
+        return SUCCESS;
+    }
+
+    /**
+     * Hands every buffered element to the consumer, oldest first within each ring, and empties the rings.
+     * @param consumer what to do with each element
+     */
+    void drain(Consumer<? super E> consumer) {
+        for (Stripe<E> stripe : stripes) {
+            long reads = stripe.reads;
+            long writes = stripe.writes.get();
+            for (; reads < writes; reads++) {
+                int index = (int) reads & STRIPE_MASK;
+                E element = stripe.slots.get(index);
+                if (element == null) {
+                    // the writer has claimed the slot but not filled it yet; it is drained next time
+                    break;
+                }
+                stripe.slots.lazySet(index, null);
+                consumer.accept(element);
+            }
+            stripe.reads = reads;
+        }
+    }
+
+    /**
+     * One ring: writers claim slots by counting writes up, and the drain counts reads up behind them.
+     */
+    private static final class Stripe<E> {
+        private final AtomicReferenceArray<E> slots = new AtomicReferenceArray<>(STRIPE_SIZE);
+        private final AtomicLong writes = new AtomicLong();
+        private volatile long reads;
+    }
+}
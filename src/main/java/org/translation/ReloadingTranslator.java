@@ -0,0 +1,133 @@
+package org.translation;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A Translator serving a JSON translation file which may be edited while it is in use.<br/>
+ * Whenever the file changes, the index is rebuilt in the background and swapped in atomically
+ * (see {@link FileReloader}). Each call, including the batch methods, reads one index from start
+ * to finish, so lookups never block and never see a mix of the old and new data.
+ * The version, load time and size of the current index are exposed for verifying rollouts.
+ */
+public class ReloadingTranslator implements Translator, Closeable {
+
+    private final FileReloader<JSONTranslator> reloader;
+
+    /**
+     * Loads the given JSON file and starts watching it for changes.
+     * @param file the JSON file, in the layout of sample.json
+     * @throws RuntimeException if the file can't be loaded or watched
+     */
+    public ReloadingTranslator(Path file) {
+        this.reloader = new FileReloader<>(file, ReloadingTranslator::load);
+    }
+
+    private static JSONTranslator load(Path file) {
+        try (BufferedReader reader = ResourceLoader.open(file)) {
+            return new JSONTranslator(TranslationLoader.load(reader));
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public List<String> getCountryLanguages(String country) {
+        return reloader.current().getCountryLanguages(country);
+    }
+
+    @Override
+    public List<String> getCountries() {
+        return reloader.current().getCountries();
+    }
+
+    @Override
+    public String translate(String country, String language) {
+        return reloader.current().translate(country, language);
+    }
+
+    @Override
+    public String[] translateAll(List<String> countries, List<String> languages) {
+        return reloader.current().translateAll(countries, languages);
+    }
+
+    @Override
+    public Map<String, String> translateCountry(String country) {
+        return reloader.current().translateCountry(country);
+    }
+
+    @Override
+    public Map<String, String> translateLanguage(String language) {
+        return reloader.current().translateLanguage(language);
+    }
+
+    @Override
+    public SortedListing getSortedCountries(String language, Locale locale) {
+        // each index caches its own listings, so a reload also replaces them
+        return reloader.current().getSortedCountries(language, locale);
+    }
+
+    /**
+     * Reloads the file now, without waiting for a change event.
+     * @throws RuntimeException if the file can't be loaded; the previous index stays current
+     */
+    public void reload() {
+        reloader.reload();
+    }
+
+    /**
+     * Returns the version of the current index: 0 for the initial load, plus one per reload.
+     * @return the current version
+     */
+    public long getVersion() {
+        return reloader.getVersion();
+    }
+
+    /**
+     * Returns how long, in milliseconds, building the current index took.
+     * @return the load time of the current index
+     */
+    public long getReloadMillis() {
+        return reloader.getLoadMillis();
+    }
+
+    /**
+     * Returns how many countries the current index holds.
+     * @return the number of countries
+     */
+    public int getCountryCount() {
+        return reloader.current().getTable().rowCount();
+    }
+
+    /**
+     * Returns how many distinct names the current index holds.
+     * @return the size of the current index's string pool
+     */
+    public int getIndexSize() {
+        return reloader.current().getTable().poolSize();
+    }
+
+    /**
+     * Returns how many reloads triggered by a file change have failed.
+     * @return the number of failed reloads
+     */
+    public long getFailedReloads() {
+        return reloader.getFailedReloads();
+    }
+
+    /**
+     * Stops watching the file. The current index stays available.
+     * @throws IOException if the watcher can't be stopped
+     */
+    @Override
+    public void close() throws IOException {
+        reloader.close();
+    }
+}
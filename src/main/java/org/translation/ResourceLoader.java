@@ -0,0 +1,146 @@
+package org.translation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Opens the data files every loader reads, whether they are resources or plain files.<br/>
+ * Resources are streamed with getResourceAsStream, so they load the same from the classes folder
+ * and from inside a packaged jar, where they have no filesystem path. A location which is not a
+ * resource is read as a filesystem path instead. Gzip-compressed data is recognized by its magic
+ * number and decompressed while it is decoded, in a single pass. Text is decoded as UTF-8, and
+ * malformed input fails the load rather than being silently replaced.
+ */
+public final class ResourceLoader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private ResourceLoader() {
+    }
+
+    /**
+     * Opens the resource with the given name, or the file at the given path if there is no such resource.
+     * @param location the name of a resource, or a filesystem path
+     * @return a buffered reader over the decoded, decompressed text
+     * @throws IOException if the data can't be read
+     * @throws RuntimeException if there is neither a resource nor a file at the location
+     */
+    public static BufferedReader open(String location) throws IOException {
+        return open(location, ResourceLoader.class.getClassLoader());
+    }
+
+    static BufferedReader open(String location, ClassLoader loader) throws IOException {
+        return reader(openStream(location, loader));
+    }
+
+    /**
+     * Opens the file at the given path.
+     * @param file the path of the file
+     * @return a buffered reader over the decoded, decompressed text
+     * @throws IOException if the file can't be read
+     */
+    public static BufferedReader open(Path file) throws IOException {
+        return reader(Files.newInputStream(file));
+    }
+
+    /**
+     * Reads every line of the resource or file at the given location, as {@link #open(String)} finds it.
+     * @param location the name of a resource, or a filesystem path
+     * @return the lines, without line terminators
+     * @throws IOException if the data can't be read
+     * @throws RuntimeException if there is neither a resource nor a file at the location
+     */
+    public static List<String> readLines(String location) throws IOException {
+        try (BufferedReader reader = open(location)) {
+            return readLines(reader);
+        }
+    }
+
+    /**
+     * Reads every line of the file at the given path.
+     * @param file the path of the file
+     * @return the lines, without line terminators
+     * @throws IOException if the file can't be read
+     */
+    public static List<String> readLines(Path file) throws IOException {
+        try (BufferedReader reader = open(file)) {
+            return readLines(reader);
+        }
+    }
+
+    /**
+     * Reads the whole resource or file at the given location into a string, as {@link #open(String)} finds it.
+     * @param location the name of a resource, or a filesystem path
+     * @return the text
+     * @throws IOException if the data can't be read
+     * @throws RuntimeException if there is neither a resource nor a file at the location
+     */
+    public static String readString(String location) throws IOException {
+        try (BufferedReader reader = open(location)) {
+            StringBuilder text = new StringBuilder();
+            char[] buffer = new char[BUFFER_SIZE];
+            int read = reader.read(buffer);
+            while (read != -1) {
+                text.append(buffer, 0, read);
+                read = reader.read(buffer);
+            }
+            return text.toString();
+        }
+    }
+
+    private static InputStream openStream(String location, ClassLoader loader) throws IOException {
+        InputStream in = loader.getResourceAsStream(location);
+        if (in != null) {
+            return in;
+        }
+        Path file = Paths.get(location);
+        if (Files.isRegularFile(file)) {
+            return Files.newInputStream(file);
+        }
+        throw new RuntimeException("Resource not found: " + location);
+    }
+
+    private static BufferedReader reader(InputStream raw) throws IOException {
+        InputStream in = new BufferedInputStream(raw, BUFFER_SIZE);
+        try {
+            if (isGzip(in)) {
+                in = new GZIPInputStream(in, BUFFER_SIZE);
+            }
+        }
+        catch (IOException ex) {
+            in.close();
+            throw ex;
+        }
+        // a decoder, unlike a charset, reports malformed input instead of replacing it
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8.newDecoder()), BUFFER_SIZE);
+    }
+
+    private static boolean isGzip(InputStream in) throws IOException {
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        return (first | second << Byte.SIZE) == GZIP_MAGIC;
+    }
+
+    private static List<String> readLines(BufferedReader reader) throws IOException {
+        List<String> lines = new ArrayList<>();
+        String line = reader.readLine();
+        while (line != null) {
+            lines.add(line);
+            line = reader.readLine();
+        }
+        return lines;
+    }
+}
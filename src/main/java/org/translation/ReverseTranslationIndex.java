@@ -0,0 +1,148 @@
+package org.translation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps localized country names back to the country and language they came from, so that
+ * "Allemagne", "Deutschland" and "ドイツ" all lead to "deu".<br/>
+ * Names are compared after NFKC normalization and case folding. The layout is kept compact
+ * since it holds one entry per translation: each distinct normalized name is stored once in a
+ * sorted array, and its matches are a range of ints in one shared array, each packing a row
+ * and a column of the {@link TranslationTable} it was built from.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class ReverseTranslationIndex {
+
+    private final TranslationTable table;
+    private final String[] names;
+    private final int[] offsets;
+    private final int[] cells;
+
+    private ReverseTranslationIndex(TranslationTable table, String[] names, int[] offsets, int[] cells) {
+        this.table = table;
+        this.names = names;
+        this.offsets = offsets;
+        this.cells = cells;
+    }
+
+    /**
+     * Builds the reverse index of every translation in the given table.
+     * @param table the table of translations
+     * @return the reverse index
+     */
+    public static ReverseTranslationIndex build(TranslationTable table) {
+        int columns = table.columnCount();
+        // group the packed cells by normalized name, in sorted name order
+        Map<String, List<Integer>> grouped = new TreeMap<>();
+        int total = 0;
+        for (int row = 0; row < table.rowCount(); row++) {
+            for (int column = 0; column < columns; column++) {
+                String name = table.name(row, column);
+                if (name != null) {
+                    grouped.computeIfAbsent(NameNormalizer.normalize(name), key -> new ArrayList<>(1))
+                            .add(row * columns + column);
+                    total++;
+                }
+            }
+        }
+        String[] names = grouped.keySet().toArray(new String[0]);
+        int[] offsets = new int[names.length + 1];
+        int[] cells = new int[total];
+        int next = 0;
+        int i = 0;
+        for (List<Integer> group : grouped.values()) {
+            offsets[i++] = next;
+            for (int cell : group) {
+                cells[next++] = cell;
+            }
+        }
+        offsets[names.length] = next;
+        return new ReverseTranslationIndex(table, names, offsets, cells);
+    }
+
+    /**
+     * Returns every (country, language) pair whose translation matches the given name,
+     * ignoring case and Unicode representation.
+     * @param name a country name in any language
+     * @return the matches, in table order; empty if the name is unknown
+     */
+    public List<Match> lookup(String name) {
+        List<Match> result = new ArrayList<>();
+        int index = indexOf(name);
+        if (index < 0) {
+            return result;
+        }
+        int columns = table.columnCount();
+        for (int i = offsets[index]; i < offsets[index + 1]; i++) {
+            result.add(new Match(table.countryCode(cells[i] / columns), table.languageCode(cells[i] % columns)));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the code of the country with the given name in any language.
+     * When different countries share the name, the first one in the table is returned.
+     * @param name a country name in any language
+     * @return the country code, or null if the name is unknown
+     */
+    public String countryOf(String name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            return null;
+        }
+        return table.countryCode(cells[offsets[index]] / table.columnCount());
+    }
+
+    /**
+     * Returns how many distinct normalized names the index holds.
+     * @return the number of distinct names
+     */
+    public int size() {
+        return names.length;
+    }
+
+    private int indexOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        return Arrays.binarySearch(names, NameNormalizer.normalize(name));
+    }
+
+    /**
+     * One reverse lookup result: a country code and the language code whose translation matched.
+     */
+    public static final class Match {
+        private final String country;
+        private final String language;
+
+        Match(String country, String language) {
+            this.country = country;
+            this.language = language;
+        }
+
+        /**
+         * Returns the code of the matching country.
+         * @return the country code
+         */
+        public String getCountry() {
+            return country;
+        }
+
+        /**
+         * Returns the code of the language in which the name matched.
+         * @return the language code
+         */
+        public String getLanguage() {
+            return language;
+        }
+
+        @Override
+        public String toString() {
+            return country + "/" + language;
+        }
+    }
+}
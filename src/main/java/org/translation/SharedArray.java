@@ -0,0 +1,129 @@
+package org.translation;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable array split into fixed-size chunks, so that a changed copy made through an {@link Editor}
+ * shares every chunk it does not write to. Changing one element of a copy costs a copy of the chunk
+ * references and of one chunk, rather than of the whole array, which is what lets
+ * {@link TranslationTable#apply} copy only the rows a delta touches. A lookup is two array reads.
+ * @param <E> the type of the elements
+ */
+final class SharedArray<E> {
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final Object[][] chunks;
+    private final int size;
+
+    private SharedArray(Object[][] chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    /**
+     * Copies a list into a new array.
+     * @param values the elements, in order
+     * @param <E> the type of the elements
+     * @return the array
+     */
+    static <E> SharedArray<E> of(List<? extends E> values) {
+        Object[][] chunks = new Object[chunkCount(values.size())][];
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            int start = chunk << CHUNK_BITS;
+            chunks[chunk] = values.subList(start, Math.min(values.size(), start + CHUNK_SIZE)).toArray();
+        }
+        return new SharedArray<>(chunks, values.size());
+    }
+
+    private static int chunkCount(int size) {
+        return (size + CHUNK_MASK) >>> CHUNK_BITS;
+    }
+
+    @SuppressWarnings("unchecked")
+    E get(int index) {
+        return (E) chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Starts a changed copy of this array. This array is never changed.
+     * @return an editor holding the elements of this array
+     */
+    Editor<E> edit() {
+        return new Editor<>(this);
+    }
+
+    /**
+     * Makes a changed copy of a SharedArray, copying each chunk the first time it is written to.
+     * Not thread-safe.
+     * @param <E> the type of the elements
+     */
+    static final class Editor<E> {
+        private Object[][] chunks;
+        private boolean[] owned;
+        private int size;
+
+        private Editor(SharedArray<E> array) {
+            this.chunks = array.chunks;
+            this.size = array.size;
+        }
+
+        @SuppressWarnings("unchecked")
+        E get(int index) {
+            return (E) chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void set(int index, E value) {
+            writableChunk(index >>> CHUNK_BITS)[index & CHUNK_MASK] = value;
+        }
+
+        void add(E value) {
+            int chunk = size >>> CHUNK_BITS;
+            if (chunk == chunks.length) {
+                ownChunkArray(chunk + 1);
+                chunks[chunk] = new Object[CHUNK_SIZE];
+                owned[chunk] = true;
+            }
+            writableChunk(chunk)[size & CHUNK_MASK] = value;
+            size++;
+        }
+
+        /**
+         * Returns the array holding the changes made so far. The editor must not be used afterwards.
+         * @return the changed array
+         */
+        SharedArray<E> build() {
+            return new SharedArray<>(chunks, size);
+        }
+
+        private Object[] writableChunk(int chunk) {
+            if (owned == null) {
+                ownChunkArray(chunks.length);
+            }
+            if (!owned[chunk]) {
+                // every owned chunk has room for a whole chunk, so add never needs to copy it again
+                chunks[chunk] = Arrays.copyOf(chunks[chunk], CHUNK_SIZE);
+                owned[chunk] = true;
+            }
+            return chunks[chunk];
+        }
+
+        private void ownChunkArray(int length) {
+            if (owned == null || length > chunks.length) {
+                chunks = Arrays.copyOf(chunks, Math.max(length, chunks.length));
+                owned = owned == null ? new boolean[chunks.length] : Arrays.copyOf(owned, chunks.length);
+            }
+        }
+    }
+}
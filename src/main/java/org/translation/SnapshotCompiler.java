@@ -0,0 +1,231 @@
+package org.translation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles the parsed translation and code data into the binary snapshot format described
+ * in {@link SnapshotFormat}, so that {@link MappedTranslator} can serve it without parsing.
+ */
+public final class SnapshotCompiler {
+
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<byte[]> strings = new ArrayList<>();
+    private final List<int[]> sectionKeys = new ArrayList<>();
+    private final List<int[]> sectionValues = new ArrayList<>();
+    private int[] cells;
+    private int rows;
+    private int columns;
+
+    private SnapshotCompiler() {
+    }
+
+    /**
+     * Compiles the default resources (sample.json, country-codes.txt and language-codes.txt)
+     * into a snapshot file.
+     * @param args the path of the snapshot file to write
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.out.println("usage: SnapshotCompiler <snapshot-file>");
+            return;
+        }
+        try {
+            write(new JSONTranslator().getTable(), new CountryCodeConverter(), new LanguageCodeConverter(),
+                    Paths.get(args[0]));
+        }
+        catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given data to a file, replacing any existing file.<br/>
+     * Other processes may have the old file mapped, and truncating it under them would crash them,
+     * so the snapshot is written to a temporary file in the same directory and then renamed over
+     * the old one. Existing mappings keep the old contents; the next open sees the new ones.
+     * @param table the translations
+     * @param countryCodes the country code converter
+     * @param languageCodes the language code converter
+     * @param file the file to write
+     * @throws IOException if the file can't be written
+     */
+    public static void write(TranslationTable table, CountryCodeConverter countryCodes,
+                             LanguageCodeConverter languageCodes, Path file) throws IOException {
+        ByteBuffer buffer = compile(table, countryCodes, languageCodes);
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Compiles a snapshot of the given data into a heap buffer, ready to be read from position zero.
+     * @param table the translations
+     * @param countryCodes the country code converter
+     * @param languageCodes the language code converter
+     * @return the snapshot bytes
+     */
+    public static ByteBuffer compile(TranslationTable table, CountryCodeConverter countryCodes,
+                                     LanguageCodeConverter languageCodes) {
+        SnapshotCompiler compiler = new SnapshotCompiler();
+        compiler.addTable(table);
+        compiler.addSection(countryCodes.namesByCode());
+        compiler.addSection(countryCodes.codesByName());
+        Map<String, String> languageNames = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> entry : languageCodes.namesByCode().entrySet()) {
+            languageNames.put(entry.getKey(), entry.getValue().get(0));
+        }
+        compiler.addSection(languageNames);
+        compiler.addSection(languageCodes.codesByName());
+        return compiler.toBuffer();
+    }
+
+    private void addTable(TranslationTable table) {
+        rows = table.rowCount();
+        columns = table.columnCount();
+        int[] rowKeys = new int[rows];
+        int[] rowValues = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            rowKeys[row] = intern(table.countryCode(row));
+            rowValues[row] = row;
+        }
+        int[] columnKeys = new int[columns];
+        int[] columnValues = new int[columns];
+        for (int column = 0; column < columns; column++) {
+            columnKeys[column] = intern(table.languageCode(column));
+            columnValues[column] = column;
+        }
+        cells = new int[rows * columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                String name = table.name(row, column);
+                if (name == null) {
+                    cells[row * columns + column] = TranslationTable.ABSENT;
+                }
+                else {
+                    cells[row * columns + column] = intern(name);
+                }
+            }
+        }
+        sectionKeys.add(rowKeys);
+        sectionValues.add(rowValues);
+        sectionKeys.add(columnKeys);
+        sectionValues.add(columnValues);
+    }
+
+    private void addSection(Map<String, String> entries) {
+        int[] keys = new int[entries.size()];
+        int[] values = new int[entries.size()];
+        int i = 0;
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            keys[i] = intern(entry.getKey());
+            values[i] = intern(entry.getValue());
+            i++;
+        }
+        sectionKeys.add(keys);
+        sectionValues.add(values);
+    }
+
+    private int intern(String value) {
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            id = strings.size();
+            stringIds.put(value, id);
+            strings.add(value.getBytes(StandardCharsets.UTF_8));
+        }
+        return id;
+    }
+
+    private ByteBuffer toBuffer() {
+        int[] sectionPositions = new int[SnapshotFormat.SECTION_COUNT];
+        int position = SnapshotFormat.HEADER_INTS * Integer.BYTES;
+        int cellsPos = position;
+        position += cells.length * Integer.BYTES;
+        for (int section = 0; section < SnapshotFormat.SECTION_COUNT; section++) {
+            sectionPositions[section] = position;
+            int entries = sectionKeys.get(section).length;
+            position += (SnapshotFormat.SECTION_HEADER_INTS + 2 * entries + SnapshotFormat.slotCount(entries))
+                    * Integer.BYTES;
+        }
+        int stringOffsetsPos = position;
+        position += (strings.size() + 1) * Integer.BYTES;
+        int stringDataPos = position;
+        for (byte[] string : strings) {
+            position += string.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(position);
+        buffer.putInt(SnapshotFormat.MAGIC).putInt(SnapshotFormat.VERSION)
+                .putInt(rows).putInt(columns).putInt(strings.size())
+                .putInt(cellsPos).putInt(stringOffsetsPos).putInt(stringDataPos);
+        for (int sectionPosition : sectionPositions) {
+            buffer.putInt(sectionPosition);
+        }
+        for (int cell : cells) {
+            buffer.putInt(cell);
+        }
+        for (int section = 0; section < SnapshotFormat.SECTION_COUNT; section++) {
+            putSection(buffer, section);
+        }
+        int offset = 0;
+        for (byte[] string : strings) {
+            buffer.putInt(offset);
+            offset += string.length;
+        }
+        buffer.putInt(offset);
+        for (byte[] string : strings) {
+            buffer.put(string);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private void putSection(ByteBuffer buffer, int section) {
+        int[] keys = sectionKeys.get(section);
+        int[] values = sectionValues.get(section);
+        boolean ignoreCase = SnapshotFormat.ignoresCase(section);
+        int[] slots = new int[SnapshotFormat.slotCount(keys.length)];
+        int mask = slots.length - 1;
+        for (int entry = 0; entry < keys.length; entry++) {
+            String key = new String(strings.get(keys[entry]), StandardCharsets.UTF_8);
+            int slot = SnapshotFormat.hash(key, ignoreCase) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = entry + 1;
+        }
+        buffer.putInt(keys.length).putInt(slots.length);
+        for (int key : keys) {
+            buffer.putInt(key);
+        }
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+        for (int slot : slots) {
+            buffer.putInt(slot);
+        }
+    }
+}
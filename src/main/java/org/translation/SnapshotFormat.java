@@ -0,0 +1,93 @@
+package org.translation;
+
+/**
+ * Layout constants of the binary translation snapshot written by {@link SnapshotCompiler}
+ * and served by {@link MappedTranslator}.<br/>
+ * Every number is a big-endian int. The file starts with a fixed header:
+ * <pre>
+ *   MAGIC, VERSION, rows, columns, strings,
+ *   cellsPos, stringOffsetsPos, stringDataPos,
+ *   one position per hash section (SECTION_COUNT of them)
+ * </pre>
+ * followed by the sections themselves:
+ * <pre>
+ *   cells:          rows * columns string ids, ABSENT where there is no translation
+ *   hash section:   n, slotCount, keys[n], values[n], slots[slotCount]
+ *                   (a slot holds an entry index + 1, or 0 when empty; probing is linear)
+ *   string offsets: strings + 1 byte offsets into the string data
+ *   string data:    the UTF-8 bytes of every string, back to back
+ * </pre>
+ * The keys of the country and language sections are stored in row and column order, so
+ * they double as the row and column code arrays.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x54524E53;
+    static final int VERSION = 1;
+
+    static final int ROWS = 2;
+    static final int COLUMNS = 3;
+    static final int STRINGS = 4;
+    static final int CELLS_POS = 5;
+    static final int STRING_OFFSETS_POS = 6;
+    static final int STRING_DATA_POS = 7;
+    static final int SECTIONS_POS = 8;
+
+    static final int COUNTRY_ROWS = 0;
+    static final int LANGUAGE_COLUMNS = 1;
+    static final int CODE_TO_COUNTRY = 2;
+    static final int COUNTRY_TO_CODE = 3;
+    static final int CODE_TO_LANGUAGE = 4;
+    static final int LANGUAGE_TO_CODE = 5;
+    static final int SECTION_COUNT = 6;
+
+    static final int HEADER_INTS = SECTIONS_POS + SECTION_COUNT;
+
+    static final int SECTION_SIZE = 0;
+    static final int SECTION_SLOTS = 1;
+    static final int SECTION_HEADER_INTS = 2;
+
+    private SnapshotFormat() {
+    }
+
+    /**
+     * Returns whether keys of the given section are matched without regard to case.
+     * @param section the section number
+     * @return true if the section's keys are case-insensitive
+     */
+    static boolean ignoresCase(int section) {
+        return section == COUNTRY_ROWS || section == CODE_TO_COUNTRY;
+    }
+
+    /**
+     * Hashes a key the same way at compile time and at lookup time, without allocating.
+     * @param key the key to hash
+     * @param ignoreCase whether to fold the key to lower case first
+     * @return the hash of the key
+     */
+    static int hash(CharSequence key, boolean ignoreCase) {
+        int hash = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (ignoreCase) {
+                c = Character.toLowerCase(c);
+            }
+            hash = 31 * hash + c;
+        }
+        // spread the high bits down, as HashMap does, since slots are picked by masking
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns the number of hash slots used for a section holding the given number of entries.
+     * @param entries the number of entries
+     * @return a power of two at least twice the number of entries
+     */
+    static int slotCount(int entries) {
+        int slots = 1;
+        while (slots < 2 * entries) {
+            slots <<= 1;
+        }
+        return slots;
+    }
+}
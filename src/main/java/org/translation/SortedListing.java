@@ -0,0 +1,126 @@
+package org.translation;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An immutable list of display names sorted for one locale, each paired with its code.<br/>
+ * Names are ordered by their {@link Collator} keys, so accented and non-Latin names sort the way
+ * a reader of that locale expects instead of by UTF-16 value. The sort happens once, when the
+ * listing is built; {@link #namesOf} then picks any subset of the names out in sorted order
+ * without sorting again. Instances may be shared between threads.
+ */
+public final class SortedListing {
+
+    private final Locale locale;
+    private final List<String> names;
+    private final List<String> codes;
+    private final Map<String, Integer> positions;
+
+    private SortedListing(Locale locale, String[] names, String[] codes) {
+        this.locale = locale;
+        this.names = Collections.unmodifiableList(Arrays.asList(names));
+        this.codes = Collections.unmodifiableList(Arrays.asList(codes));
+        Map<String, Integer> positionsByCode = new HashMap<>();
+        for (int i = 0; i < codes.length; i++) {
+            positionsByCode.put(codes[i], i);
+        }
+        this.positions = Map.copyOf(positionsByCode);
+    }
+
+    /**
+     * Sorts the given names with the collation rules of the given locale.
+     * Entries whose name is null are left out.
+     * @param namesByCode the display name of each code
+     * @param locale the locale to sort for
+     * @return the sorted listing
+     */
+    public static SortedListing of(Map<String, String> namesByCode, Locale locale) {
+        // a Collator is not thread-safe, so each listing gets its own
+        Collator collator = Collator.getInstance(locale);
+        List<CollationKey> keys = new ArrayList<>(namesByCode.size());
+        List<String> keyCodes = new ArrayList<>(namesByCode.size());
+        for (Map.Entry<String, String> entry : namesByCode.entrySet()) {
+            if (entry.getValue() != null) {
+                keys.add(collator.getCollationKey(entry.getValue()));
+                keyCodes.add(entry.getKey());
+            }
+        }
+        // sort positions rather than keys, since distinct names may have equal keys
+        Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (left, right) -> keys.get(left).compareTo(keys.get(right)));
+        String[] names = new String[order.length];
+        String[] codes = new String[order.length];
+        for (int i = 0; i < order.length; i++) {
+            names[i] = keys.get(order[i]).getSourceString();
+            codes[i] = keyCodes.get(order[i]);
+        }
+        return new SortedListing(locale, names, codes);
+    }
+
+    /**
+     * Returns the locale the names are sorted for.
+     * @return the locale
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Returns every name, in sorted order.
+     * @return an unmodifiable list of the names
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Returns the code of every name, in the same order as {@link #getNames()}.
+     * @return an unmodifiable list of the codes
+     */
+    public List<String> getCodes() {
+        return codes;
+    }
+
+    /**
+     * Returns how many names the listing holds.
+     * @return the number of names
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Returns the names of the given codes, in sorted order, without sorting them again.
+     * Codes which are not in the listing are skipped.
+     * @param selected the codes to list
+     * @return the names of those codes, in the order of this listing
+     */
+    public List<String> namesOf(Collection<String> selected) {
+        boolean[] marked = new boolean[names.size()];
+        for (String code : selected) {
+            Integer position = positions.get(code);
+            if (position != null) {
+                marked[position] = true;
+            }
+        }
+        List<String> result = new ArrayList<>(selected.size());
+        for (int i = 0; i < marked.length; i++) {
+            if (marked[i]) {
+                result.add(names.get(i));
+            }
+        }
+        return result;
+    }
+}
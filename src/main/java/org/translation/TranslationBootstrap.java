@@ -0,0 +1,161 @@
+package org.translation;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the translation data and both code converters at startup, all at the same time.<br/>
+ * Each file is read and parsed by its own task on a fork-join pool, and a large translation file is
+ * further split into chunks parsed in parallel (see {@link TranslationLoader#loadParallel}), so startup
+ * takes about as long as the slowest file instead of the sum of all of them. The converters are loaded
+ * through {@link ConverterRegistry}, so later uses of the registry find them already loaded.
+ * Every stage is timed; {@link #report()} formats the timings.
+ */
+public final class TranslationBootstrap {
+
+    private static final String TRANSLATIONS = "sample.json";
+    private static final String COUNTRY_CODES = "country-codes.txt";
+    private static final String LANGUAGE_CODES = "language-codes.txt";
+
+    private final Map<String, Long> stageNanos = Collections.synchronizedMap(new LinkedHashMap<>());
+    private JSONTranslator translator;
+    private CountryCodeConverter countryCodes;
+    private LanguageCodeConverter languageCodes;
+    private long totalNanos;
+
+    private TranslationBootstrap() {
+    }
+
+    /**
+     * Loads and prints the stage timings of the default resources.
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        System.out.print(load().report());
+    }
+
+    /**
+     * Loads sample.json, country-codes.txt and language-codes.txt in parallel on the common pool.
+     * @return the loaded data
+     * @throws RuntimeException if any of the resource files can't be loaded properly
+     */
+    public static TranslationBootstrap load() {
+        return load(ForkJoinPool.commonPool(), TRANSLATIONS, COUNTRY_CODES, LANGUAGE_CODES);
+    }
+
+    /**
+     * Loads the given resource files in parallel on the given pool.
+     * @param pool the pool to load on
+     * @param translations the name of the translations file in resources, in the layout of sample.json
+     * @param countryCodeFile the name of the country codes file in resources
+     * @param languageCodeFile the name of the language codes file in resources
+     * @return the loaded data
+     * @throws RuntimeException if any of the resource files can't be loaded properly
+     */
+    public static TranslationBootstrap load(ForkJoinPool pool, String translations, String countryCodeFile,
+                                            String languageCodeFile) {
+        TranslationBootstrap bootstrap = new TranslationBootstrap();
+        long start = System.nanoTime();
+        ForkJoinTask<?> json = ForkJoinTask.adapt(() -> bootstrap.loadTranslations(pool, translations));
+        ForkJoinTask<?> countries = ForkJoinTask.adapt(() -> {
+            long stageStart = System.nanoTime();
+            bootstrap.countryCodes = ConverterRegistry.countryCodes(countryCodeFile);
+            bootstrap.stage(countryCodeFile, stageStart);
+        });
+        ForkJoinTask<?> languages = ForkJoinTask.adapt(() -> {
+            long stageStart = System.nanoTime();
+            bootstrap.languageCodes = ConverterRegistry.languageCodes(languageCodeFile);
+            bootstrap.stage(languageCodeFile, stageStart);
+        });
+        // joining the tasks publishes the fields they wrote to this thread
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(json, countries, languages)));
+        bootstrap.totalNanos = System.nanoTime() - start;
+        return bootstrap;
+    }
+
+    private void loadTranslations(ForkJoinPool pool, String filename) {
+        long start = System.nanoTime();
+        String json;
+        try {
+            json = ResourceLoader.readString(filename);
+        }
+        catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        stage(filename + " read", start);
+        long parseStart = System.nanoTime();
+        TranslationTable table = TranslationLoader.loadParallel(json, pool);
+        stage(filename + " parse", parseStart);
+        long indexStart = System.nanoTime();
+        translator = new JSONTranslator(table);
+        stage(filename + " index", indexStart);
+    }
+
+    private void stage(String name, long startNanos) {
+        stageNanos.put(name, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns the translator over the loaded translations.
+     * @return the translator
+     */
+    public JSONTranslator getTranslator() {
+        return translator;
+    }
+
+    /**
+     * Returns the loaded country code converter.
+     * @return the country code converter
+     */
+    public CountryCodeConverter getCountryCodes() {
+        return countryCodes;
+    }
+
+    /**
+     * Returns the loaded language code converter.
+     * @return the language code converter
+     */
+    public LanguageCodeConverter getLanguageCodes() {
+        return languageCodes;
+    }
+
+    /**
+     * Returns how long each stage took, in the order the stages finished.
+     * @return the nanoseconds of each stage, by stage name
+     */
+    public Map<String, Long> getStageNanos() {
+        synchronized (stageNanos) {
+            return new LinkedHashMap<>(stageNanos);
+        }
+    }
+
+    /**
+     * Returns the wall-clock time of the whole load.
+     * @return the total time in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Formats the stage timings, one per line, followed by the wall-clock total.
+     * @return the timing report
+     */
+    public String report() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Long> entry : getStageNanos().entrySet()) {
+            text.append(String.format("%-28s %8.2f ms%n", entry.getKey(), millis(entry.getValue())));
+        }
+        text.append(String.format("%-28s %8.2f ms%n", "total (wall clock)", millis(totalNanos)));
+        return text.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,299 @@
+package org.translation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * A numbered set of changes to translation data, applied all at once by {@link DeltaTranslator}
+ * (see {@link TranslationTable#apply}).<br/>
+ * A delta can add, replace or remove a whole country, and add, replace or remove the name of a country in
+ * one language. Changes apply in the order they were added. Versions count up from 1, one per delta, so
+ * that a change log can be replayed exactly once. In a log, each delta is one line of JSON:
+ * <pre>
+ *   {"version":2,"changes":[
+ *     {"op":"putCountry","country":"can","names":{"en":"Canada","fr":"Canada"}},
+ *     {"op":"removeCountry","country":"xyz"},
+ *     {"op":"put","country":"deu","language":"en","name":"Germany"},
+ *     {"op":"remove","country":"deu","language":"eo"}]}
+ * </pre>
+ * Instances are immutable.
+ */
+public final class TranslationDelta {
+
+    private static final String VERSION = "version";
+    private static final String CHANGES = "changes";
+    private static final String OP = "op";
+    private static final String COUNTRY = "country";
+    private static final String LANGUAGE = "language";
+    private static final String NAME = "name";
+    private static final String NAMES = "names";
+
+    private final long version;
+    private final List<Change> changes;
+
+    private TranslationDelta(Builder builder) {
+        this.version = builder.version;
+        this.changes = List.copyOf(builder.changes);
+    }
+
+    /**
+     * Returns the version the data has once this delta is applied.
+     * @return the version, counting from 1
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the changes, in the order they apply.
+     * @return an unmodifiable list of the changes
+     */
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Writes this delta as a JSON object, in the layout of a change log line.
+     * @return the JSON object
+     */
+    public JSONObject toJson() {
+        JSONArray array = new JSONArray();
+        for (Change change : changes) {
+            JSONObject object = new JSONObject();
+            object.put(OP, change.type.op);
+            object.put(COUNTRY, change.country);
+            if (change.language != null) {
+                object.put(LANGUAGE, change.language);
+            }
+            if (change.name != null) {
+                object.put(NAME, change.name);
+            }
+            if (change.type == Type.PUT_COUNTRY) {
+                object.put(NAMES, new JSONObject(change.names));
+            }
+            array.put(object);
+        }
+        return new JSONObject().put(VERSION, version).put(CHANGES, array);
+    }
+
+    /**
+     * Reads a delta from a JSON object, in the layout of a change log line.
+     * @param json the JSON object
+     * @return the delta
+     * @throws org.json.JSONException if a key is missing or has the wrong type
+     * @throws IllegalArgumentException if a change has an unknown op
+     */
+    public static TranslationDelta fromJson(JSONObject json) {
+        Builder builder = new Builder(json.getLong(VERSION));
+        JSONArray changes = json.getJSONArray(CHANGES);
+        for (int i = 0; i < changes.length(); i++) {
+            JSONObject change = changes.getJSONObject(i);
+            String country = change.getString(COUNTRY);
+            Type type = Type.of(change.getString(OP));
+            if (type == Type.PUT_COUNTRY) {
+                Map<String, String> names = new LinkedHashMap<>();
+                JSONObject namesJson = change.getJSONObject(NAMES);
+                for (String language : namesJson.keySet()) {
+                    names.put(language, namesJson.getString(language));
+                }
+                builder.putCountry(country, names);
+            }
+            else if (type == Type.REMOVE_COUNTRY) {
+                builder.removeCountry(country);
+            }
+            else if (type == Type.PUT) {
+                builder.put(country, change.getString(LANGUAGE), change.getString(NAME));
+            }
+            else {
+                builder.remove(country, change.getString(LANGUAGE));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        return toJson().toString();
+    }
+
+    /**
+     * The kinds of change a delta can make.
+     */
+    public enum Type {
+        /** Adds a country, or replaces every name of an existing one. */
+        PUT_COUNTRY("putCountry"),
+        /** Removes a country and all of its names. */
+        REMOVE_COUNTRY("removeCountry"),
+        /** Adds or replaces the name of a country in one language, adding the country if it is new. */
+        PUT("put"),
+        /** Removes the name of a country in one language. */
+        REMOVE("remove");
+
+        private final String op;
+
+        Type(String op) {
+            this.op = op;
+        }
+
+        static Type of(String op) {
+            for (Type type : values()) {
+                if (type.op.equals(op)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown change op: " + op);
+        }
+    }
+
+    /**
+     * One change of a delta. Which fields are set depends on the type: PUT_COUNTRY has names,
+     * PUT has a language and a name, REMOVE has a language, and REMOVE_COUNTRY only a country.
+     */
+    public static final class Change {
+        private final Type type;
+        private final String country;
+        private final String language;
+        private final String name;
+        private final Map<String, String> names;
+
+        private Change(Type type, String country, String language, String name, Map<String, String> names) {
+            this.type = type;
+            this.country = country;
+            this.language = language;
+            this.name = name;
+            this.names = names;
+        }
+
+        /**
+         * Returns what kind of change this is.
+         * @return the type of the change
+         */
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * Returns the code of the country the change applies to.
+         * @return the country code
+         */
+        public String getCountry() {
+            return country;
+        }
+
+        /**
+         * Returns the language code of a PUT or REMOVE change.
+         * @return the language code, or null for changes to a whole country
+         */
+        public String getLanguage() {
+            return language;
+        }
+
+        /**
+         * Returns the new name of a PUT change.
+         * @return the name, or null for other changes
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the names of a PUT_COUNTRY change, keyed by language code.
+         * @return an unmodifiable map of names, empty for other changes
+         */
+        public Map<String, String> getNames() {
+            return names;
+        }
+    }
+
+    /**
+     * Collects the changes of one delta, in order.
+     */
+    public static final class Builder {
+        private final long version;
+        private final List<Change> changes = new ArrayList<>();
+
+        /**
+         * Starts a delta.
+         * @param version the version the data has once the delta is applied, counting from 1
+         */
+        public Builder(long version) {
+            this.version = version;
+        }
+
+        /**
+         * Adds a country, or replaces every name of an existing one.
+         * @param country the country code
+         * @param names the names of the country, keyed by language code
+         * @return this builder
+         * @throws NullPointerException if any argument is null
+         */
+        public Builder putCountry(String country, Map<String, String> names) {
+            Objects.requireNonNull(country, COUNTRY);
+            Map<String, String> copy = new LinkedHashMap<>();
+            for (Map.Entry<String, String> name : names.entrySet()) {
+                copy.put(Objects.requireNonNull(name.getKey(), LANGUAGE),
+                        Objects.requireNonNull(name.getValue(), NAME));
+            }
+            changes.add(new Change(Type.PUT_COUNTRY, country, null, null, Collections.unmodifiableMap(copy)));
+            return this;
+        }
+
+        /**
+         * Removes a country and all of its names. Removing an unknown country does nothing.
+         * @param country the country code
+         * @return this builder
+         * @throws NullPointerException if any argument is null
+         */
+        public Builder removeCountry(String country) {
+            Objects.requireNonNull(country, COUNTRY);
+            changes.add(new Change(Type.REMOVE_COUNTRY, country, null, null, Map.of()));
+            return this;
+        }
+
+        /**
+         * Adds or replaces the name of a country in one language, adding the country if it is new.
+         * @param country the country code
+         * @param language the language code
+         * @param name the name
+         * @return this builder
+         * @throws NullPointerException if any argument is null
+         */
+        public Builder put(String country, String language, String name) {
+            changes.add(new Change(Type.PUT, Objects.requireNonNull(country, COUNTRY),
+                    Objects.requireNonNull(language, LANGUAGE), Objects.requireNonNull(name, NAME), Map.of()));
+            return this;
+        }
+
+        /**
+         * Removes the name of a country in one language. Removing a name which is not there does nothing.
+         * @param country the country code
+         * @param language the language code
+         * @return this builder
+         * @throws NullPointerException if any argument is null
+         */
+        public Builder remove(String country, String language) {
+            changes.add(new Change(Type.REMOVE, Objects.requireNonNull(country, COUNTRY),
+                    Objects.requireNonNull(language, LANGUAGE), null, Map.of()));
+            return this;
+        }
+
+        /**
+         * Returns the delta.
+         * @return the delta holding every change added so far
+         * @throws IllegalArgumentException if the version is less than 1
+         */
+        public TranslationDelta build() {
+            if (version < 1) {
+                throw new IllegalArgumentException("A delta's version must be at least 1, but was " + version);
+            }
+            return new TranslationDelta(this);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.translation;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A local load generator for {@link TranslationServer}.<br/>
+ * A number of client threads send /translate requests for random (country, language) pairs over
+ * kept-alive connections for a fixed time, then the requests per second and the p50 and p99
+ * latencies are reported. Without a URL, it starts a server on a free port and loads that.
+ */
+public final class TranslationLoadGenerator {
+
+    private static final int DEFAULT_THREADS = 8;
+    private static final int DEFAULT_SECONDS = 10;
+    private static final int NANOS_PER_MICRO = 1000;
+    private static final int INITIAL_LATENCIES = 1024;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double P50 = 0.50;
+    private static final double P99 = 0.99;
+
+    private TranslationLoadGenerator() {
+    }
+
+    /**
+     * Runs the load test.
+     * @param args [base URL, or "local"] [client threads] [seconds]
+     * @throws Exception if the test can't be run
+     */
+    public static void main(String[] args) throws Exception {
+        String target = "local";
+        int threads = DEFAULT_THREADS;
+        int seconds = DEFAULT_SECONDS;
+        if (args.length > 0) {
+            target = args[0];
+        }
+        if (args.length > 1) {
+            threads = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2) {
+            seconds = Integer.parseInt(args[2]);
+        }
+        JSONTranslator translator = new JSONTranslator();
+        TranslationServer server = null;
+        if ("local".equals(target)) {
+            TranslationServer.preferNoDelay();
+            server = new TranslationServer(translator, 0);
+            server.start();
+            target = "http://localhost:" + server.getPort();
+        }
+        try {
+            System.out.println(run(target, translator, threads, seconds));
+        }
+        finally {
+            if (server != null) {
+                server.stop(0);
+            }
+        }
+    }
+
+    /**
+     * Loads the server at the given URL and returns a one-line report.
+     * @param baseUrl the server's base URL, such as http://localhost:8080
+     * @param translator the translator whose keys are requested
+     * @param threads the number of client threads
+     * @param seconds how long to send requests for
+     * @return the report
+     * @throws IllegalArgumentException if no country of the translator has a translation
+     * @throws Exception if a client thread fails
+     */
+    public static String run(String baseUrl, Translator translator, int threads, int seconds) throws Exception {
+        // only countries with at least one language can be asked for, so the others are left out
+        List<String> countries = new ArrayList<>();
+        List<List<String>> languages = new ArrayList<>();
+        for (String country : translator.getCountries()) {
+            List<String> countryLanguages = translator.getCountryLanguages(country);
+            if (!countryLanguages.isEmpty()) {
+                countries.add(country);
+                languages.add(countryLanguages);
+            }
+        }
+        if (countries.isEmpty()) {
+            throw new IllegalArgumentException("The translator has no translations to request");
+        }
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long deadline = System.nanoTime() + seconds * (long) NANOS_PER_SECOND;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Callable<long[]>> clients = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            clients.add(() -> sendUntil(client, baseUrl, countries, languages, deadline, new Random(seed)));
+        }
+        long start = System.nanoTime();
+        long[] latencies = new long[0];
+        try {
+            for (Future<long[]> future : executor.invokeAll(clients)) {
+                long[] clientLatencies = future.get();
+                long[] merged = Arrays.copyOf(latencies, latencies.length + clientLatencies.length);
+                System.arraycopy(clientLatencies, 0, merged, latencies.length, clientLatencies.length);
+                latencies = merged;
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+        Arrays.sort(latencies);
+        return String.format("%d requests in %.1fs: %.0f req/s, p50 %d us, p99 %d us", latencies.length,
+                elapsedSeconds, latencies.length / elapsedSeconds, percentile(latencies, P50) / NANOS_PER_MICRO,
+                percentile(latencies, P99) / NANOS_PER_MICRO);
+    }
+
+    private static long[] sendUntil(HttpClient client, String baseUrl, List<String> countries,
+                                    List<List<String>> languages, long deadline, Random random)
+            throws IOException, InterruptedException {
+        // grows by doubling, as the number of requests depends on how fast the server answers
+        long[] latencies = new long[INITIAL_LATENCIES];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            int country = random.nextInt(countries.size());
+            List<String> countryLanguages = languages.get(country);
+            String language = countryLanguages.get(random.nextInt(countryLanguages.size()));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/translate?country="
+                    + countries.get(country) + "&language=" + language)).GET().build();
+            long sent = System.nanoTime();
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - sent;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))];
+    }
+}
@@ -0,0 +1,210 @@
+package org.translation;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+/**
+ * Streams translation data in the layout of sample.json into a {@link TranslationTable}.<br/>
+ * The top-level array is tokenized directly from the reader and only one country object
+ * is materialized at a time, so the whole file is never held as a String or a JSONArray.
+ * Loading time grows linearly with the size of the input.<br/>
+ * Input which is already in memory can instead be split into chunks of whole country objects and
+ * parsed in parallel with {@link #loadParallel}, which yields the same table. Each chunk is read through
+ * a view of its range of the input, so the text is not copied a second time.
+ */
+public final class TranslationLoader {
+
+    /** Inputs shorter than this are parsed on the calling thread, since splitting would cost more than it saves. */
+    static final int PARALLEL_THRESHOLD = 64 * 1024;
+
+    // split into a few chunks per worker, so that one slow chunk doesn't hold up the rest
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private TranslationLoader() {
+    }
+
+    /**
+     * Reads a JSON array of country objects from the given reader and builds a table from it.
+     * The reader is consumed up to the closing bracket of the array but is not closed.
+     * @param reader the reader to read the JSON array from
+     * @return the table holding every translation in the array
+     * @throws org.json.JSONException if the input is not an array of JSON objects
+     */
+    public static TranslationTable load(Reader reader) {
+        TranslationTable.Builder builder = new TranslationTable.Builder();
+        forEachCountry(reader, builder::addCountry);
+        return builder.build();
+    }
+
+    /**
+     * Reads a JSON array of country objects from the given reader, handing each object to the action
+     * as soon as it is parsed. The reader is consumed up to the closing bracket of the array but is not closed.
+     * @param reader the reader to read the JSON array from
+     * @param action what to do with each country object
+     * @throws org.json.JSONException if the input is not an array of JSON objects
+     */
+    static void forEachCountry(Reader reader, Consumer<JSONObject> action) {
+        JSONTokener tokener = new JSONTokener(reader);
+        if (tokener.nextClean() != '[') {
+            throw tokener.syntaxError("A JSON array of countries must begin with '['");
+        }
+        char next = tokener.nextClean();
+        if (next == ']') {
+            return;
+        }
+        tokener.back();
+        while (next != ']') {
+            Object value = tokener.nextValue();
+            if (!(value instanceof JSONObject)) {
+                throw tokener.syntaxError("Expected a country object but found " + value);
+            }
+            action.accept((JSONObject) value);
+            next = tokener.nextClean();
+            if (next != ',' && next != ']') {
+                throw tokener.syntaxError("Expected ',' or ']' after a country object");
+            }
+        }
+    }
+
+    /**
+     * Parses a JSON array of country objects held in memory, splitting it into chunks which are parsed
+     * in parallel on the given pool and then merged in order. The table is the same as the one
+     * {@link #load} would build from the same text.
+     * @param json the JSON array of country objects
+     * @param pool the pool to parse the chunks on
+     * @return the table holding every translation in the array
+     * @throws org.json.JSONException if the input is not an array of JSON objects
+     */
+    public static TranslationTable loadParallel(String json, ForkJoinPool pool) {
+        if (json.length() < PARALLEL_THRESHOLD) {
+            return load(new StringReader(json));
+        }
+        return loadParallel(json, pool, pool.getParallelism() * CHUNKS_PER_WORKER);
+    }
+
+    static TranslationTable loadParallel(String json, ForkJoinPool pool, int chunks) {
+        List<Integer> bounds = split(json, chunks);
+        List<ForkJoinTask<TranslationTable.Builder>> tasks = new ArrayList<>();
+        for (int i = 0; i + 1 < bounds.size(); i++) {
+            Reader chunk = new RangeReader(json, bounds.get(i) + 1, bounds.get(i + 1));
+            tasks.add(ForkJoinTask.adapt(() -> loadElements(new JSONTokener(chunk))));
+        }
+        ForkJoinTask<TranslationTable> merge = ForkJoinTask.adapt(() -> {
+            ForkJoinTask.invokeAll(tasks);
+            TranslationTable.Builder builder = new TranslationTable.Builder();
+            for (ForkJoinTask<TranslationTable.Builder> task : tasks) {
+                builder.addAll(task.join());
+            }
+            return builder.build();
+        });
+        return pool.invoke(merge);
+    }
+
+    /**
+     * Returns the offsets at which to cut the elements of a JSON array into about the given number of
+     * chunks: the first offset is the opening bracket, the last is the closing bracket, and every offset
+     * in between is a comma separating two top-level elements.
+     */
+    private static List<Integer> split(String json, int chunks) {
+        int start = json.indexOf('[');
+        if (start < 0) {
+            throw new JSONTokener(json).syntaxError("A JSON array of countries must begin with '['");
+        }
+        List<Integer> bounds = new ArrayList<>();
+        bounds.add(start);
+        int target = json.length() / chunks;
+        int depth = 0;
+        boolean inString = false;
+        for (int i = start + 1; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (inString) {
+                if (c == '\\') {
+                    i++;
+                }
+                else if (c == '"') {
+                    inString = false;
+                }
+            }
+            else if (c == '"') {
+                inString = true;
+            }
+            else if (c == '{' || c == '[') {
+                depth++;
+            }
+            else if (c == '}' || c == ']') {
+                if (depth == 0) {
+                    bounds.add(i);
+                    return bounds;
+                }
+                depth--;
+            }
+            else if (c == ',' && depth == 0 && i - bounds.get(bounds.size() - 1) >= target) {
+                bounds.add(i);
+            }
+        }
+        throw new JSONTokener(json).syntaxError("A JSON array of countries must end with ']'");
+    }
+
+    /**
+     * Reads comma separated country objects until the end of the input, as found between the
+     * brackets of the top-level array.
+     */
+    private static TranslationTable.Builder loadElements(JSONTokener tokener) {
+        TranslationTable.Builder builder = new TranslationTable.Builder();
+        char next = tokener.nextClean();
+        if (next == 0) {
+            return builder;
+        }
+        tokener.back();
+        while (next != 0) {
+            Object value = tokener.nextValue();
+            if (!(value instanceof JSONObject)) {
+                throw tokener.syntaxError("Expected a country object but found " + value);
+            }
+            builder.addCountry((JSONObject) value);
+            next = tokener.nextClean();
+            if (next != ',' && next != 0) {
+                throw tokener.syntaxError("Expected ',' after a country object");
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Reads the characters of a range of a string, without copying the range out of it first.
+     */
+    private static final class RangeReader extends Reader {
+        private final String text;
+        private final int end;
+        private int position;
+
+        RangeReader(String text, int start, int end) {
+            this.text = text;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == end) {
+                return -1;
+            }
+            int count = Math.min(length, end - position);
+            text.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.translation;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in instrumentation of JSONTranslator and the code converters.<br/>
+ * Start the JVM with -Dtranslation.metrics=true to enable it. The flag is a static final constant,
+ * so when it is off the JIT removes the instrumented branches entirely and the lookups cost exactly
+ * what they did before (see MetricsBenchmark). When it is on, every instrumented method counts its
+ * calls and misses (null results) in LongAdders and records its latency in a {@link LatencyHistogram};
+ * translate additionally counts hits and misses per language and hits per country. The metrics are
+ * published as the MBean "org.translation:type=TranslationMetrics" and can be dumped as text.
+ */
+public final class TranslationMetrics implements TranslationMetricsMBean {
+
+    /** Whether instrumentation is enabled, from the "translation.metrics" system property. */
+    public static final boolean ENABLED = Boolean.getBoolean("translation.metrics");
+
+    /** The JMX name the metrics are registered under. */
+    public static final String OBJECT_NAME = "org.translation:type=TranslationMetrics";
+
+    static final String TRANSLATE = "JSONTranslator.translate";
+
+    // the per-key maps are keyed by caller input, so cap them and pool the rest under one key
+    private static final int MAX_KEYS = 1024;
+    private static final String OTHER = "(other)";
+    private static final int TOP = 10;
+    private static final double P99 = 0.99;
+
+    private static final TranslationMetrics INSTANCE = new TranslationMetrics();
+
+    static {
+        if (ENABLED) {
+            INSTANCE.register();
+        }
+    }
+
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder[]> languages = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> countries = new ConcurrentHashMap<>();
+
+    private TranslationMetrics() {
+    }
+
+    /**
+     * Returns the process-wide metrics.
+     * @return the metrics
+     */
+    public static TranslationMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the metrics of the method with the given name, creating them on first use.
+     * @param name the method name, such as "JSONTranslator.translate"
+     * @return the method's metrics
+     */
+    public static MethodMetrics method(String name) {
+        return INSTANCE.methods.computeIfAbsent(name, MethodMetrics::new);
+    }
+
+    /**
+     * Records the outcome of one translate call for the per-language and per-country counters.
+     * @param country the country code asked for
+     * @param language the language code asked for
+     * @param hit whether a translation was found
+     */
+    public void recordTranslation(String country, String language, boolean hit) {
+        LongAdder[] hitMiss = capped(languages, language, () -> new LongAdder[] {new LongAdder(), new LongAdder()});
+        if (hit) {
+            hitMiss[0].increment();
+            capped(countries, country, LongAdder::new).increment();
+        }
+        else {
+            hitMiss[1].increment();
+        }
+    }
+
+    private static <T> T capped(Map<String, T> map, String key, Supplier<T> factory) {
+        String name = String.valueOf(key);
+        T value = map.get(name);
+        if (value == null) {
+            if (map.size() >= MAX_KEYS) {
+                name = OTHER;
+            }
+            value = map.computeIfAbsent(name, ignored -> factory.get());
+        }
+        return value;
+    }
+
+    /**
+     * Returns the metrics of every instrumented method called so far, by name.
+     * @return the method metrics
+     */
+    public List<MethodMetrics> getMethods() {
+        List<MethodMetrics> result = new ArrayList<>(methods.values());
+        result.sort(Comparator.comparing(MethodMetrics::getName));
+        return result;
+    }
+
+    /**
+     * Returns how many translate calls found a translation into the given language.
+     * @param language the language code
+     * @return the number of hits
+     */
+    public long getLanguageHits(String language) {
+        LongAdder[] hitMiss = languages.get(language);
+        if (hitMiss == null) {
+            return 0;
+        }
+        return hitMiss[0].sum();
+    }
+
+    /**
+     * Returns how many translate calls found no translation into the given language.
+     * @param language the language code
+     * @return the number of misses
+     */
+    public long getLanguageMisses(String language) {
+        LongAdder[] hitMiss = languages.get(language);
+        if (hitMiss == null) {
+            return 0;
+        }
+        return hitMiss[1].sum();
+    }
+
+    @Override
+    public long getTranslateCalls() {
+        return method(TRANSLATE).getCalls();
+    }
+
+    @Override
+    public long getTranslateMisses() {
+        return method(TRANSLATE).getMisses();
+    }
+
+    @Override
+    public long getTranslateP99Nanos() {
+        return method(TRANSLATE).getLatency().percentileNanos(P99);
+    }
+
+    @Override
+    public long getConverterCalls() {
+        long calls = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            if (metrics.getName().contains("CodeConverter.from")) {
+                calls += metrics.getCalls();
+            }
+        }
+        return calls;
+    }
+
+    @Override
+    public long getConverterMisses() {
+        long misses = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            if (metrics.getName().contains("CodeConverter.from")) {
+                misses += metrics.getMisses();
+            }
+        }
+        return misses;
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder text = new StringBuilder();
+        for (MethodMetrics metrics : getMethods()) {
+            text.append(metrics).append('\n');
+        }
+        List<Map.Entry<String, LongAdder[]>> byLanguage = new ArrayList<>(languages.entrySet());
+        byLanguage.sort(Comparator.comparingLong(entry -> -(entry.getValue()[0].sum() + entry.getValue()[1].sum())));
+        for (Map.Entry<String, LongAdder[]> entry : byLanguage.subList(0, Math.min(TOP, byLanguage.size()))) {
+            text.append("language ").append(entry.getKey()).append(" hits=").append(entry.getValue()[0].sum())
+                    .append(" misses=").append(entry.getValue()[1].sum()).append('\n');
+        }
+        List<Map.Entry<String, LongAdder>> byCountry = new ArrayList<>(countries.entrySet());
+        byCountry.sort(Comparator.comparingLong(entry -> -entry.getValue().sum()));
+        for (Map.Entry<String, LongAdder> entry : byCountry.subList(0, Math.min(TOP, byCountry.size()))) {
+            text.append("country ").append(entry.getKey()).append(" hits=").append(entry.getValue().sum())
+                    .append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, if they aren't already.
+     * @throws RuntimeException if the MBean can't be registered
+     */
+    public void register() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            }
+        }
+        catch (JMException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+}
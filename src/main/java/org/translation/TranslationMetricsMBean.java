@@ -0,0 +1,43 @@
+package org.translation;
+
+/**
+ * The JMX view of {@link TranslationMetrics}, registered as "org.translation:type=TranslationMetrics".
+ */
+public interface TranslationMetricsMBean {
+
+    /**
+     * Returns how many times JSONTranslator.translate was called.
+     * @return the number of translate calls
+     */
+    long getTranslateCalls();
+
+    /**
+     * Returns how many JSONTranslator.translate calls returned null.
+     * @return the number of translate misses
+     */
+    long getTranslateMisses();
+
+    /**
+     * Returns an upper bound of the 99th percentile latency of JSONTranslator.translate.
+     * @return the 99th percentile latency in nanoseconds
+     */
+    long getTranslateP99Nanos();
+
+    /**
+     * Returns how many times any code converter lookup was called.
+     * @return the number of converter lookups
+     */
+    long getConverterCalls();
+
+    /**
+     * Returns how many code converter lookups returned null.
+     * @return the number of converter misses
+     */
+    long getConverterMisses();
+
+    /**
+     * Returns every metric as human readable text, one line per method, language or country.
+     * @return the text dump
+     */
+    String dump();
+}
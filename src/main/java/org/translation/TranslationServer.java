@@ -0,0 +1,332 @@
+package org.translation;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONException;
+
+/**
+ * An embedded HTTP server exposing a Translator as JSON, built on the JDK's com.sun.net.httpserver.<br/>
+ * Endpoints (all GET unless noted):
+ * <pre>
+ *   /translate?country=can&amp;language=de   {"country":"can","language":"de","translation":"Kanada"}
+ *   /countries                             ["afg","alb",...]
+ *   /languages?country=can                 ["ar","bg",...]
+ *   /batch?country=can                     {"ar":"كندا",...}   one country into all of its languages
+ *   /batch?language=de                     {"afg":"Afghanistan",...}   all countries into one language
+ *   POST /batch  [["can","de"],["fra","en"]]   ["Kanada","France"]
+ * </pre>
+ * Other methods get 405 Method Not Allowed, and a POST body over 1 MB gets 413 Payload Too Large.
+ * Connections are kept alive between requests, and responses are streamed to the socket as they
+ * are encoded. Each request runs on its own virtual thread when the JDK supports them, and on a
+ * cached thread pool otherwise.<br/>
+ * Small JSON responses wait on Nagle's algorithm and delayed ACKs (about 40ms each) unless the JVM is
+ * launched with -Dsun.net.httpserver.nodelay=true, which the JDK reads once, when the first server is
+ * created. {@link #main} sets it when it was not given; code embedding the server should pass the flag.
+ */
+public class TranslationServer {
+
+    private static final int OK = 200;
+    private static final int BAD_REQUEST = 400;
+    private static final int NOT_FOUND = 404;
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int PAYLOAD_TOO_LARGE = 413;
+    private static final int MAX_BODY_BYTES = 1 << 20;
+    private static final int DEFAULT_PORT = 8080;
+    private static final int CHUNKED = 0;
+    private static final int NO_BODY = -1;
+    private static final String COUNTRY = "country";
+    private static final String LANGUAGE = "language";
+    private static final String GET = "GET";
+    private static final String POST = "POST";
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final Translator translator;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a server for the given translator, listening on the given port once started.
+     * @param translator the translator to serve
+     * @param port the port to listen on, or 0 for any free port
+     * @throws IOException if the port can't be bound
+     */
+    public TranslationServer(Translator translator, int port) throws IOException {
+        this.translator = translator;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = newExecutor();
+        server.setExecutor(executor);
+        server.createContext("/translate", exchange -> handle(exchange, List.of(GET), this::translate));
+        server.createContext("/countries", exchange -> handle(exchange, List.of(GET), this::countries));
+        server.createContext("/languages", exchange -> handle(exchange, List.of(GET), this::languages));
+        server.createContext("/batch", exchange -> handle(exchange, List.of(GET, POST), this::batch));
+    }
+
+    /**
+     * Turns off Nagle's algorithm for servers created from now on, unless the JVM was launched with
+     * the property set either way. Only call this from a main method, as it sets a JVM-wide property.
+     */
+    static void preferNoDelay() {
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+    }
+
+    /**
+     * Serves the JSONTranslator over HTTP.
+     * @param args the port to listen on (default 8080)
+     * @throws IOException if the server can't start
+     */
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        if (args.length > 0) {
+            port = Integer.parseInt(args[0]);
+        }
+        preferNoDelay();
+        TranslationServer server = new TranslationServer(new JSONTranslator(), port);
+        server.start();
+        System.out.println("Serving translations on http://localhost:" + server.getPort() + "/");
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waiting up to the given number of seconds for requests in progress.
+     * @param delaySeconds the longest time to wait for requests in progress
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     * @return the bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private static ExecutorService newExecutor() {
+        try {
+            // Executors.newVirtualThreadPerTaskExecutor only exists from Java 21 on
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException ex) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Handles one endpoint, writing a JSON body or an error status.
+     */
+    private interface Endpoint {
+        int respond(HttpExchange exchange, Map<String, String> query, JsonWriter json) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, List<String> methods, Endpoint endpoint) throws IOException {
+        try {
+            if (!methods.contains(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", String.join(", ", methods));
+                closeUnread(exchange);
+                exchange.sendResponseHeaders(METHOD_NOT_ALLOWED, NO_BODY);
+                return;
+            }
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            // the body is buffered per response and flushed in chunks, so the length isn't known up front
+            ResponseStream body = new ResponseStream(exchange);
+            int status = endpoint.respond(exchange, query, new JsonWriter(body));
+            body.finish(status);
+        }
+        catch (IllegalArgumentException | JSONException ex) {
+            exchange.sendResponseHeaders(BAD_REQUEST, NO_BODY);
+        }
+        finally {
+            exchange.close();
+        }
+    }
+
+    private int translate(HttpExchange exchange, Map<String, String> query, JsonWriter json) throws IOException {
+        String country = query.get(COUNTRY);
+        String language = query.get(LANGUAGE);
+        if (country == null || language == null) {
+            throw new IllegalArgumentException("country and language are required");
+        }
+        String translation = translator.translate(country, language);
+        json.beginObject().name(COUNTRY).value(country).name(LANGUAGE).value(language)
+                .name("translation").value(translation).endObject();
+        if (translation == null) {
+            return NOT_FOUND;
+        }
+        return OK;
+    }
+
+    private int countries(HttpExchange exchange, Map<String, String> query, JsonWriter json) throws IOException {
+        writeArray(json, translator.getCountries());
+        return OK;
+    }
+
+    private int languages(HttpExchange exchange, Map<String, String> query, JsonWriter json) throws IOException {
+        String country = query.get(COUNTRY);
+        if (country == null) {
+            throw new IllegalArgumentException("country is required");
+        }
+        writeArray(json, translator.getCountryLanguages(country));
+        return OK;
+    }
+
+    private int batch(HttpExchange exchange, Map<String, String> query, JsonWriter json) throws IOException {
+        if (POST.equals(exchange.getRequestMethod())) {
+            return batchPairs(exchange, json);
+        }
+        Map<String, String> translations;
+        if (query.containsKey(COUNTRY)) {
+            translations = translator.translateCountry(query.get(COUNTRY));
+        }
+        else if (query.containsKey(LANGUAGE)) {
+            translations = translator.translateLanguage(query.get(LANGUAGE));
+        }
+        else {
+            throw new IllegalArgumentException("country or language is required");
+        }
+        json.beginObject();
+        for (Map.Entry<String, String> entry : translations.entrySet()) {
+            json.name(entry.getKey()).value(entry.getValue());
+        }
+        json.endObject();
+        return OK;
+    }
+
+    private int batchPairs(HttpExchange exchange, JsonWriter json) throws IOException {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (length != null && Long.parseLong(length.trim()) > MAX_BODY_BYTES) {
+            closeUnread(exchange);
+            return PAYLOAD_TOO_LARGE;
+        }
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            // a chunked body has no Content-Length, so read one byte past the limit to notice an overlong one
+            body = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (body.length > MAX_BODY_BYTES) {
+            closeUnread(exchange);
+            return PAYLOAD_TOO_LARGE;
+        }
+        JSONArray pairs = new JSONArray(new String(body, StandardCharsets.UTF_8));
+        List<String> countries = new ArrayList<>(pairs.length());
+        List<String> languages = new ArrayList<>(pairs.length());
+        for (int i = 0; i < pairs.length(); i++) {
+            JSONArray pair = pairs.getJSONArray(i);
+            countries.add(pair.getString(0));
+            languages.add(pair.getString(1));
+        }
+        json.beginArray();
+        for (String translation : translator.translateAll(countries, languages)) {
+            json.value(translation);
+        }
+        json.endArray();
+        return OK;
+    }
+
+    /**
+     * Asks for the connection to be closed after a response which leaves the request body unread,
+     * since the rest of the body would otherwise be taken for the next request on the connection.
+     */
+    private static void closeUnread(HttpExchange exchange) {
+        exchange.getResponseHeaders().set("Connection", "close");
+    }
+
+    private static void writeArray(JsonWriter json, List<String> values) throws IOException {
+        json.beginArray();
+        for (String value : values) {
+            json.value(value);
+        }
+        json.endArray();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0) {
+                query.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Buffers the start of a response until either the buffer fills or the response ends, so that
+     * small responses are sent with a Content-Length and large ones are streamed in chunks.
+     * Either way the status is only sent once it is known.
+     */
+    private static final class ResponseStream extends OutputStream {
+        private static final int BUFFER_SIZE = 8192;
+
+        private final HttpExchange exchange;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int count;
+        private OutputStream streaming;
+
+        ResponseStream(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (streaming != null) {
+                streaming.write(b);
+                return;
+            }
+            if (count == buffer.length) {
+                // too big to buffer: commit to a chunked 200 response and stream the rest
+                exchange.sendResponseHeaders(OK, CHUNKED);
+                streaming = new BufferedOutputStream(exchange.getResponseBody(), BUFFER_SIZE);
+                streaming.write(buffer, 0, count);
+                streaming.write(b);
+                return;
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        void finish(int status) throws IOException {
+            if (streaming == null) {
+                if (count == 0) {
+                    exchange.sendResponseHeaders(status, NO_BODY);
+                    return;
+                }
+                exchange.sendResponseHeaders(status, count);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(buffer, 0, count);
+                }
+            }
+            else {
+                streaming.close();
+            }
+        }
+    }
+}
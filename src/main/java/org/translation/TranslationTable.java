@@ -0,0 +1,598 @@
+package org.translation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * A compact, columnar table of country name translations.<br/>
+ * Every distinct name is stored once in a string pool. Each country is one row, and
+ * each row holds one int per language column pointing into the pool, so names are never
+ * joined or split and a name containing a comma is stored exactly as given.
+ * Instances are immutable once built, so any number of threads may read one without locking.
+ */
+public final class TranslationTable {
+
+    /** Cell value marking a language which has no translation for a row. */
+    public static final int ABSENT = -1;
+
+    private static final String ID = "id";
+    private static final String ALPHA2 = "alpha2";
+    private static final String ALPHA3 = "alpha3";
+
+    // the rows and the string pool are shared arrays, so that a table made by apply shares every chunk
+    // of them that its delta does not change
+    private final SharedArray<String> pool;
+    private final SharedArray<String> countries;
+    private final LayeredIndex countryIndex;
+    private final String[] languages;
+    private final Map<String, Integer> languageIndex;
+    // rows are padded to the full width when built, but rows a delta did not touch stay narrower
+    // than columns it adds, so a column past the end of a row means ABSENT
+    private final SharedArray<int[]> cells;
+    private final SharedArray<List<String>> rowLanguages;
+    // maps each name to its place in the pool; only built once a delta is applied, then shared with
+    // the tables made from this one
+    private volatile LayeredIndex poolIndex;
+
+    private TranslationTable(Builder builder) {
+        this.pool = SharedArray.of(builder.pool);
+        this.countries = SharedArray.of(builder.countries);
+        // copy the indexes, so that a builder used after build() can never change this table
+        this.countryIndex = new LayeredIndex(Map.copyOf(builder.countryIndex));
+        this.languages = builder.languages.toArray(new String[0]);
+        this.languageIndex = Map.copyOf(builder.languageIndex);
+        List<int[]> paddedRows = new ArrayList<>(builder.cells.size());
+        for (int[] cellRow : builder.cells) {
+            // pad every row to the full width so lookups never need a bounds check
+            int[] padded = Arrays.copyOf(cellRow, languages.length);
+            Arrays.fill(padded, cellRow.length, padded.length, ABSENT);
+            paddedRows.add(padded);
+        }
+        this.cells = SharedArray.of(paddedRows);
+        this.rowLanguages = SharedArray.of(rowLanguages(paddedRows, languages));
+    }
+
+    private TranslationTable(Changes changes, SharedArray<String> countries, LayeredIndex countryIndex,
+                             SharedArray<int[]> cells, SharedArray<List<String>> rowLanguages) {
+        this.pool = changes.pool.build();
+        this.countries = countries;
+        this.countryIndex = countryIndex;
+        this.languages = changes.languageCodes();
+        this.languageIndex = changes.languageIndex();
+        this.cells = cells;
+        this.rowLanguages = rowLanguages;
+        this.poolIndex = changes.poolIndex.with(changes.addedNames);
+    }
+
+    /**
+     * Lists the languages of every row up front, so that languagesOf never allocates.
+     * Most rows have the same languages, so rows with equal lists share one instance.
+     */
+    private static List<List<String>> rowLanguages(List<int[]> cells, String[] languages) {
+        Map<List<String>, List<String>> shared = new HashMap<>();
+        List<List<String>> result = new ArrayList<>(cells.size());
+        for (int[] cellRow : cells) {
+            result.add(shared.computeIfAbsent(languagesOf(cellRow, languages), Collections::unmodifiableList));
+        }
+        return result;
+    }
+
+    private static List<String> languagesOf(int[] cellRow, String[] languages) {
+        List<String> rowLanguages = new ArrayList<>();
+        for (int column = 0; column < cellRow.length; column++) {
+            if (cellRow[column] != ABSENT) {
+                rowLanguages.add(languages[column]);
+            }
+        }
+        return rowLanguages;
+    }
+
+    /**
+     * Builds a table from a JSON array of country objects, as found in sample.json.
+     * Each object has an "alpha3" code plus one key per language code; the "id" and "alpha2"
+     * keys are skipped.
+     * @param jsonArray the array of country objects
+     * @return the table holding every translation in the array
+     */
+    public static TranslationTable fromJson(JSONArray jsonArray) {
+        Builder builder = new Builder();
+        for (int i = 0; i < jsonArray.length(); i++) {
+            builder.addCountry(jsonArray.getJSONObject(i));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the row of the given country code, ignoring case.
+     * @param country the country code
+     * @return the row of the country, or ABSENT if the table has no such country
+     */
+    public int rowOf(String country) {
+        if (country == null) {
+            return ABSENT;
+        }
+        Integer row = countryIndex.get(country);
+        if (row == null) {
+            // country codes are stored lower case; only allocate for keys that are not
+            row = countryIndex.get(country.toLowerCase(Locale.ROOT));
+        }
+        if (row == null) {
+            return ABSENT;
+        }
+        return row;
+    }
+
+    /**
+     * Returns the column of the given language code.
+     * @param language the language code
+     * @return the column of the language, or ABSENT if no country has a translation to it
+     */
+    public int columnOf(String language) {
+        if (language == null) {
+            return ABSENT;
+        }
+        Integer column = languageIndex.get(language);
+        if (column == null) {
+            return ABSENT;
+        }
+        return column;
+    }
+
+    /**
+     * Returns the translation stored at the given row and column.
+     * @param row the row of the country
+     * @param column the column of the language
+     * @return the translated name, or null if the row has no translation for that column
+     */
+    public String name(int row, int column) {
+        if (row == ABSENT || column == ABSENT) {
+            return null;
+        }
+        int[] cellRow = cells.get(row);
+        if (column >= cellRow.length || cellRow[column] == ABSENT) {
+            return null;
+        }
+        int cell = cellRow[column];
+        return pool.get(cell);
+    }
+
+    /**
+     * Returns the translation of the given country code into the given language code.
+     * @param country the country code
+     * @param language the language code
+     * @return the translated name, or null if there is none
+     */
+    public String translate(String country, String language) {
+        return name(rowOf(country), columnOf(language));
+    }
+
+    /**
+     * Returns the language codes which have a translation in the given row, in column order.
+     * The list is built when the table is, so every call for a row returns the same instance.
+     * @param row the row of the country
+     * @return an unmodifiable list of the language codes available for that row
+     */
+    public List<String> languagesOf(int row) {
+        if (row == ABSENT) {
+            return List.of();
+        }
+        return rowLanguages.get(row);
+    }
+
+    /**
+     * Returns the country code stored in the given row, as it appeared in the data.
+     * @param row the row of the country
+     * @return the country code
+     */
+    public String countryCode(int row) {
+        return countries.get(row);
+    }
+
+    /**
+     * Returns the language code of the given column.
+     * @param column the column of the language
+     * @return the language code
+     */
+    public String languageCode(int column) {
+        return languages[column];
+    }
+
+    /**
+     * Returns how many countries (rows) the table holds.
+     * @return the number of rows
+     */
+    public int rowCount() {
+        return countries.size();
+    }
+
+    /**
+     * Returns how many languages (columns) the table holds.
+     * @return the number of columns
+     */
+    public int columnCount() {
+        return languages.length;
+    }
+
+    /**
+     * Returns how many distinct names the string pool holds.
+     * @return the size of the string pool
+     */
+    public int poolSize() {
+        return pool.size();
+    }
+
+    /**
+     * Returns a table holding this table's translations with the changes of a delta applied. This table
+     * is not changed. The new table shares the indexes, and every chunk of rows and names the delta does
+     * not touch, with this one: a delta which only puts and removes names copies the rows it changes,
+     * their chunks of row references, and the names it adds, whatever the size of the table. Names are
+     * added to the string pool only if it does not hold them already, and removed names stay in it until
+     * the table is next loaded from scratch. Removing a country renumbers the rows after it, so a delta
+     * which removes countries rebuilds the row arrays and the country index.
+     * @param delta the changes to apply
+     * @return the changed table
+     */
+    public TranslationTable apply(TranslationDelta delta) {
+        Changes changes = new Changes(this);
+        for (TranslationDelta.Change change : delta.getChanges()) {
+            changes.apply(change);
+        }
+        SharedArray.Editor<List<String>> newRowLanguages = rowLanguages.edit();
+        String[] languageCodes = changes.languageCodes();
+        for (int row : changes.ownedRows) {
+            int[] cellRow = changes.cells.get(row);
+            List<String> languagesOfRow = List.of();
+            if (cellRow != null) {
+                languagesOfRow = Collections.unmodifiableList(languagesOf(cellRow, languageCodes));
+            }
+            if (row < rowLanguages.size() && rowLanguages.get(row).equals(languagesOfRow)) {
+                // most rows keep the list they had, which is shared with other rows
+                languagesOfRow = rowLanguages.get(row);
+            }
+            if (row < newRowLanguages.size()) {
+                newRowLanguages.set(row, languagesOfRow);
+            }
+            else {
+                newRowLanguages.add(languagesOfRow);
+            }
+        }
+        if (!changes.removed) {
+            return new TranslationTable(changes, changes.countries.build(), countryIndex.with(changes.addedCountries),
+                    changes.cells.build(), newRowLanguages.build());
+        }
+        // drop the removed rows and renumber the ones after them
+        List<String> keptCountries = new ArrayList<>();
+        List<int[]> keptCells = new ArrayList<>();
+        List<List<String>> keptLanguages = new ArrayList<>();
+        Map<String, Integer> keptIndex = new HashMap<>();
+        for (int row = 0; row < changes.cells.size(); row++) {
+            if (changes.cells.get(row) != null) {
+                keptIndex.put(changes.countries.get(row).toLowerCase(Locale.ROOT), keptCountries.size());
+                keptCountries.add(changes.countries.get(row));
+                keptCells.add(changes.cells.get(row));
+                keptLanguages.add(newRowLanguages.get(row));
+            }
+        }
+        return new TranslationTable(changes, SharedArray.of(keptCountries), new LayeredIndex(Map.copyOf(keptIndex)),
+                SharedArray.of(keptCells), SharedArray.of(keptLanguages));
+    }
+
+    private LayeredIndex poolIndex() {
+        LayeredIndex index = poolIndex;
+        if (index == null) {
+            Map<String, Integer> names = new HashMap<>();
+            for (int id = 0; id < pool.size(); id++) {
+                names.putIfAbsent(pool.get(id), id);
+            }
+            index = new LayeredIndex(Map.copyOf(names));
+            poolIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * The changes one delta makes to a table, collected before the new table is built. Rows, names and
+     * country codes are written through editors, which copy only the chunks they write to, and the
+     * country, language and name indexes are only added to.
+     */
+    private static final class Changes {
+        private final TranslationTable table;
+        private final SharedArray.Editor<String> countries;
+        private final SharedArray.Editor<int[]> cells;
+        private final SharedArray.Editor<String> pool;
+        private final LayeredIndex poolIndex;
+        private final Map<String, Integer> addedCountries = new HashMap<>();
+        private final List<String> addedLanguages = new ArrayList<>();
+        private final Map<String, Integer> addedLanguageIndex = new HashMap<>();
+        private final Map<String, Integer> addedNames = new HashMap<>();
+        // rows copied or created by this delta, which may be written in place
+        private final Set<Integer> ownedRows = new HashSet<>();
+        private boolean removed;
+
+        Changes(TranslationTable table) {
+            this.table = table;
+            this.countries = table.countries.edit();
+            this.cells = table.cells.edit();
+            this.pool = table.pool.edit();
+            this.poolIndex = table.poolIndex();
+        }
+
+        void apply(TranslationDelta.Change change) {
+            String key = change.getCountry().toLowerCase(Locale.ROOT);
+            Integer row = rowOf(key);
+            if (change.getType() == TranslationDelta.Type.REMOVE_COUNTRY) {
+                if (row != null) {
+                    cells.set(row, null);
+                    ownedRows.add(row);
+                    removed = true;
+                }
+                return;
+            }
+            if (row == null) {
+                if (change.getType() == TranslationDelta.Type.REMOVE) {
+                    return;
+                }
+                row = countries.size();
+                addedCountries.put(key, row);
+                countries.add(change.getCountry());
+                cells.add(new int[0]);
+                ownedRows.add(row);
+            }
+            if (change.getType() == TranslationDelta.Type.PUT_COUNTRY) {
+                cells.set(row, new int[0]);
+                ownedRows.add(row);
+                for (Map.Entry<String, String> name : change.getNames().entrySet()) {
+                    setCell(row, column(name.getKey()), name(name.getValue()));
+                }
+            }
+            else if (change.getType() == TranslationDelta.Type.PUT) {
+                setCell(row, column(change.getLanguage()), name(change.getName()));
+            }
+            else {
+                Integer column = columnOf(change.getLanguage());
+                if (column != null && column < cells.get(row).length) {
+                    setCell(row, column, ABSENT);
+                }
+            }
+        }
+
+        /**
+         * Returns the row of a country code, or null if the table has no such country or this delta
+         * removed it. Countries this delta adds are looked up first, as it may remove and then re-add one.
+         */
+        private Integer rowOf(String key) {
+            Integer row = addedCountries.get(key);
+            if (row == null) {
+                row = table.countryIndex.get(key);
+            }
+            if (row != null && cells.get(row) == null) {
+                return null;
+            }
+            return row;
+        }
+
+        private Integer columnOf(String language) {
+            Integer column = table.languageIndex.get(language);
+            if (column == null) {
+                column = addedLanguageIndex.get(language);
+            }
+            return column;
+        }
+
+        private int column(String language) {
+            Integer column = columnOf(language);
+            if (column == null) {
+                column = table.languages.length + addedLanguages.size();
+                addedLanguageIndex.put(language, column);
+                addedLanguages.add(language);
+            }
+            return column;
+        }
+
+        private int name(String name) {
+            Integer id = poolIndex.get(name);
+            if (id == null) {
+                id = addedNames.get(name);
+            }
+            if (id == null) {
+                id = pool.size();
+                addedNames.put(name, id);
+                pool.add(name);
+            }
+            return id;
+        }
+
+        /**
+         * Sets one cell, first copying the row if this delta has not copied it yet.
+         */
+        private void setCell(int row, int column, int value) {
+            int[] cellRow = cells.get(row);
+            if (!ownedRows.contains(row) || column >= cellRow.length) {
+                int oldLength = cellRow.length;
+                cellRow = Arrays.copyOf(cellRow, Math.max(oldLength, column + 1));
+                Arrays.fill(cellRow, oldLength, cellRow.length, ABSENT);
+                cells.set(row, cellRow);
+                ownedRows.add(row);
+            }
+            cellRow[column] = value;
+        }
+
+        String[] languageCodes() {
+            if (addedLanguages.isEmpty()) {
+                return table.languages;
+            }
+            String[] codes = Arrays.copyOf(table.languages, table.languages.length + addedLanguages.size());
+            for (int i = 0; i < addedLanguages.size(); i++) {
+                codes[table.languages.length + i] = addedLanguages.get(i);
+            }
+            return codes;
+        }
+
+        Map<String, Integer> languageIndex() {
+            if (addedLanguages.isEmpty()) {
+                return table.languageIndex;
+            }
+            Map<String, Integer> index = new HashMap<>(table.languageIndex);
+            index.putAll(addedLanguageIndex);
+            return Map.copyOf(index);
+        }
+    }
+
+    /**
+     * An index of strings which a delta adds to without copying it: a shared base map, plus a small map
+     * of the keys added by the deltas since. Once the added keys outgrow the square root of the base,
+     * they are folded into a new base, so that neither copying the added keys on each delta nor the
+     * occasional rebuild costs much more than the square root of the size of the index per key.
+     */
+    private static final class LayeredIndex {
+        private static final int MIN_ADDED = 64;
+
+        private final Map<String, Integer> base;
+        private final Map<String, Integer> added;
+
+        LayeredIndex(Map<String, Integer> base) {
+            this(base, Map.of());
+        }
+
+        private LayeredIndex(Map<String, Integer> base, Map<String, Integer> added) {
+            this.base = base;
+            this.added = added;
+        }
+
+        Integer get(String key) {
+            Integer value = base.get(key);
+            if (value == null && !added.isEmpty()) {
+                value = added.get(key);
+            }
+            return value;
+        }
+
+        LayeredIndex with(Map<String, Integer> keys) {
+            if (keys.isEmpty()) {
+                return this;
+            }
+            Map<String, Integer> merged = new HashMap<>(added);
+            merged.putAll(keys);
+            if (merged.size() <= Math.max(MIN_ADDED, Math.sqrt(base.size()))) {
+                return new LayeredIndex(base, Map.copyOf(merged));
+            }
+            merged.putAll(base);
+            return new LayeredIndex(Map.copyOf(merged));
+        }
+    }
+
+    /**
+     * Incrementally builds a TranslationTable, one country at a time.
+     * A Builder is not thread-safe; the table it builds is.
+     */
+    public static final class Builder {
+        private final List<String> pool = new ArrayList<>();
+        private final Map<String, Integer> poolIndex = new HashMap<>();
+        private final List<String> countries = new ArrayList<>();
+        private final Map<String, Integer> countryIndex = new HashMap<>();
+        private final List<String> languages = new ArrayList<>();
+        private final Map<String, Integer> languageIndex = new HashMap<>();
+        private final List<int[]> cells = new ArrayList<>();
+
+        /**
+         * Adds a new row for the given country code, or returns the existing row if the code
+         * was already added.
+         * @param country the country code
+         * @return the row of the country
+         */
+        public int addRow(String country) {
+            String key = country.toLowerCase(Locale.ROOT);
+            Integer row = countryIndex.get(key);
+            if (row == null) {
+                row = countries.size();
+                countryIndex.put(key, row);
+                countries.add(country);
+                cells.add(new int[0]);
+            }
+            return row;
+        }
+
+        /**
+         * Stores the translation of the given row into the given language code.
+         * @param row the row returned by addRow
+         * @param language the language code
+         * @param name the translated name
+         * @return this builder
+         */
+        public Builder put(int row, String language, String name) {
+            int column = intern(languageIndex, languages, language);
+            int[] cellRow = cells.get(row);
+            if (column >= cellRow.length) {
+                int oldLength = cellRow.length;
+                cellRow = Arrays.copyOf(cellRow, languages.size());
+                Arrays.fill(cellRow, oldLength, cellRow.length, ABSENT);
+                cells.set(row, cellRow);
+            }
+            cellRow[column] = intern(poolIndex, pool, name);
+            return this;
+        }
+
+        /**
+         * Adds one country object, in the layout of sample.json, to the table.
+         * @param country the country object
+         * @return this builder
+         */
+        public Builder addCountry(JSONObject country) {
+            int row = addRow(country.getString(ALPHA3));
+            for (String key : country.keySet()) {
+                if (!ID.equals(key) && !ALPHA2.equals(key) && !ALPHA3.equals(key)) {
+                    put(row, key, country.getString(key));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Adds every row of another builder to this one, in the other builder's row order.
+         * Rows, languages and names are added in the order they were first seen, so merging the builders
+         * of consecutive chunks of the data yields the same table as adding the whole data to one builder.
+         * @param other the builder to copy from
+         * @return this builder
+         */
+        public Builder addAll(Builder other) {
+            for (int otherRow = 0; otherRow < other.countries.size(); otherRow++) {
+                int row = addRow(other.countries.get(otherRow));
+                int[] cellRow = other.cells.get(otherRow);
+                for (int column = 0; column < cellRow.length; column++) {
+                    if (cellRow[column] != ABSENT) {
+                        put(row, other.languages.get(column), other.pool.get(cellRow[column]));
+                    }
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Returns the table holding everything added so far.
+         * @return the built table
+         */
+        public TranslationTable build() {
+            return new TranslationTable(this);
+        }
+
+        private static int intern(Map<String, Integer> index, List<String> values, String value) {
+            Integer id = index.get(value);
+            if (id == null) {
+                id = values.size();
+                index.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+    }
+}
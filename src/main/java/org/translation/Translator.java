@@ -1,16 +1,22 @@
 package org.translation;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * An interface providing methods related to translating country names between
  * different languages.<br/>
+ * Implementations in this package are safe to share between threads: each is either stateless
+ * or immutable once constructed, and none of them lock on the read path.
  */
 public interface Translator {
 
     /**
      * Returns the language codes for all languages whose translations are
-     * available for the given country.
+     * available for the given country. The list must not be modified: implementations in this package
+     * return an unmodifiable list built once, so that repeated calls do not allocate.
      * @param country the country
      * @return list of language codes which are available for this country
      */
@@ -18,7 +24,7 @@ public interface Translator {
 
     /**
      * Returns the country codes for all countries whose translations are
-     * available from this Translator.
+     * available from this Translator. As with getCountryLanguages, the list is unmodifiable and may be shared.
      * @return list of country codes for which we have translations available
      */
     List<String> getCountries();
@@ -30,4 +36,66 @@ public interface Translator {
      * @return the name of the country in the given language or null if no translation is available
      */
     String translate(String country, String language);
+
+    /**
+     * Translates many (country, language) pairs at once. The pairs are given by position:
+     * the i-th country is translated into the i-th language.
+     * @param countries the country codes
+     * @param languages the language codes, one per country code
+     * @return the translations, where each element is null if no translation is available
+     * @throws IllegalArgumentException if the two lists are not the same size
+     */
+    default String[] translateAll(List<String> countries, List<String> languages) {
+        if (countries.size() != languages.size()) {
+            throw new IllegalArgumentException("Expected one language per country but got "
+                    + countries.size() + " countries and " + languages.size() + " languages");
+        }
+        String[] result = new String[countries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = translate(countries.get(i), languages.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Translates one country into every language available for it.
+     * @param country the country code
+     * @return the name of the country keyed by language code, in the order of getCountryLanguages
+     */
+    default Map<String, String> translateCountry(String country) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String language : getCountryLanguages(country)) {
+            result.put(language, translate(country, language));
+        }
+        return result;
+    }
+
+    /**
+     * Translates every country into one language. Countries without a translation
+     * into that language are left out.
+     * @param language the language code
+     * @return the translated names keyed by country code, in the order of getCountries
+     */
+    default Map<String, String> translateLanguage(String language) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String country : getCountries()) {
+            String translation = translate(country, language);
+            if (translation != null) {
+                result.put(country, translation);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the name of every country with a translation into the given language, sorted for
+     * display with the collation rules of the given locale and paired with its country code.
+     * Implementations may build the listing once and return the same one on later calls.
+     * @param language the language code of the names
+     * @param locale the locale to sort for
+     * @return the sorted country names
+     */
+    default SortedListing getSortedCountries(String language, Locale locale) {
+        return SortedListing.of(translateLanguage(language), locale);
+    }
 }
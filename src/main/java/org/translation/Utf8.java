@@ -0,0 +1,102 @@
+package org.translation;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8 helpers for the translators which keep their strings as bytes in a buffer
+ * ({@link MappedTranslator} and {@link OffHeapTranslator}).<br/>
+ * Every method reads the buffer with absolute gets only, so callers may share one buffer between threads.
+ */
+final class Utf8 {
+
+    private static final int CONTINUATION_BITS = 6;
+    private static final int CONTINUATION_MASK = 0x3F;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int TWO_BYTE_LEAD = 0xC0;
+    private static final int THREE_BYTE_LEAD = 0xE0;
+    private static final int FOUR_BYTE_LEAD = 0xF0;
+    private static final int ASCII_LIMIT = 0x80;
+
+    private Utf8() {
+    }
+
+    /**
+     * Decodes the UTF-8 bytes between two positions of a buffer.
+     * @param bytes the buffer
+     * @param start the position of the first byte
+     * @param end the position after the last byte
+     * @return the decoded string
+     */
+    static String decode(ByteBuffer bytes, int start, int end) {
+        byte[] copy = new byte[end - start];
+        // read through a duplicate so that concurrent callers never share a position
+        ByteBuffer view = bytes.duplicate();
+        view.position(start);
+        view.get(copy);
+        return new String(copy, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares the UTF-8 bytes between two positions of a buffer with a key char by char, decoding
+     * as it goes, so that a comparison never allocates.
+     * @param bytes the buffer
+     * @param start the position of the first byte
+     * @param end the position after the last byte
+     * @param key the key to compare with
+     * @param ignoreCase whether to compare each char ignoring case
+     * @return true if the bytes encode the key
+     */
+    static boolean equals(ByteBuffer bytes, int start, int end, CharSequence key, boolean ignoreCase) {
+        int position = start;
+        int index = 0;
+        while (position < end) {
+            int lead = bytes.get(position) & BYTE_MASK;
+            int codePoint;
+            if (lead < ASCII_LIMIT) {
+                codePoint = lead;
+                position += 1;
+            }
+            else if (lead < THREE_BYTE_LEAD) {
+                codePoint = (lead & ~TWO_BYTE_LEAD) << CONTINUATION_BITS | continuation(bytes, position + 1);
+                position += 2;
+            }
+            else if (lead < FOUR_BYTE_LEAD) {
+                codePoint = (lead & ~THREE_BYTE_LEAD) << 2 * CONTINUATION_BITS
+                        | continuation(bytes, position + 1) << CONTINUATION_BITS | continuation(bytes, position + 2);
+                position += 3;
+            }
+            else {
+                codePoint = (lead & ~FOUR_BYTE_LEAD) << 3 * CONTINUATION_BITS
+                        | continuation(bytes, position + 1) << 2 * CONTINUATION_BITS
+                        | continuation(bytes, position + 2) << CONTINUATION_BITS | continuation(bytes, position + 3);
+                position += 4;
+            }
+            if (Character.isBmpCodePoint(codePoint)) {
+                if (index >= key.length() || !charEquals((char) codePoint, key.charAt(index), ignoreCase)) {
+                    return false;
+                }
+                index += 1;
+            }
+            else {
+                if (index + 1 >= key.length() || key.charAt(index) != Character.highSurrogate(codePoint)
+                        || key.charAt(index + 1) != Character.lowSurrogate(codePoint)) {
+                    return false;
+                }
+                index += 2;
+            }
+        }
+        return index == key.length();
+    }
+
+    private static int continuation(ByteBuffer bytes, int position) {
+        return bytes.get(position) & CONTINUATION_MASK;
+    }
+
+    private static boolean charEquals(char stored, char key, boolean ignoreCase) {
+        if (ignoreCase) {
+            return Character.toLowerCase(stored) == Character.toLowerCase(key);
+        }
+        return stored == key;
+    }
+}
@@ -0,0 +1,121 @@
+package org.translation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.json.JSONObject;
+
+import static org.junit.Assert.*;
+
+public class BatchTranslatorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final JSONTranslator translator = new JSONTranslator();
+
+    private BatchTranslator batch(int threads, int chunkLines) {
+        return new BatchTranslator(translator, ConverterRegistry.countryCodes(), ConverterRegistry.languageCodes(),
+                threads, chunkLines);
+    }
+
+    private String run(BatchTranslator batch, String input, BatchTranslator.Format inputFormat,
+                       BatchTranslator.Format outputFormat) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batch.translate(new BufferedReader(new StringReader(input)), inputFormat, out, outputFormat);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void translatesCsvGivenCodesOrNames() throws IOException {
+        String input = "id,language,country\n"
+                + "1,de,can\n"
+                + "2,German,Canada\n"
+                + "3,\"French\",\"Korea (the Republic of)\"\n"
+                + "4,de,xyz\n";
+        String output = run(batch(2, 2), input, BatchTranslator.Format.CSV, BatchTranslator.Format.CSV);
+        assertEquals("country,language,translation\n"
+                + "can,de,Kanada\n"
+                + "Canada,German,Kanada\n"
+                + "Korea (the Republic of),French,Corée du Sud\n"
+                + "xyz,de,\n", output);
+    }
+
+    @Test
+    public void translatesJsonlToJsonl() throws IOException {
+        String input = "{\"country\": \"can\", \"language\": \"es\"}\n\n{\"country\": \"deu\", \"language\": \"zz\"}\n";
+        String[] lines = run(batch(1, 1), input, BatchTranslator.Format.JSONL, BatchTranslator.Format.JSONL)
+                .split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Canadá", new JSONObject(lines[0]).getString("translation"));
+        assertTrue(new JSONObject(lines[1]).isNull("translation"));
+    }
+
+    @Test
+    public void keepsInputOrderAcrossManyChunks() throws IOException {
+        List<String> countries = translator.getCountries();
+        StringBuilder input = new StringBuilder("country,language\n");
+        StringBuilder expected = new StringBuilder("country,language,translation\n");
+        for (int i = 0; i < 5000; i++) {
+            String country = countries.get(i * 7 % countries.size());
+            input.append(country).append(",en\n");
+            String translation = translator.translate(country, "en");
+            if (translation.contains(",") || translation.contains("\"")) {
+                translation = '"' + translation.replace("\"", "\"\"") + '"';
+            }
+            expected.append(country).append(",en,").append(translation).append('\n');
+        }
+        assertEquals(expected.toString(),
+                run(batch(4, 37), input.toString(), BatchTranslator.Format.CSV, BatchTranslator.Format.CSV));
+    }
+
+    @Test
+    public void readsAndWritesGzipFiles() throws IOException {
+        Path input = folder.getRoot().toPath().resolve("rows.jsonl.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(input))) {
+            out.write("{\"country\": \"can\", \"language\": \"de\"}\n".getBytes(StandardCharsets.UTF_8));
+        }
+        Path output = folder.getRoot().toPath().resolve("rows.csv.gz");
+        BatchTranslator.Report report = batch(2, 10).translate(input, output);
+        assertEquals(1, report.getRows());
+        assertEquals(0, report.getMisses());
+        assertTrue(report.toString(), report.toString().contains("rows/s"));
+        assertEquals(Arrays.asList("country,language,translation", "can,de,Kanada"), ResourceLoader.readLines(output));
+    }
+
+    @Test
+    public void reportsTheLineOfABadRow() throws IOException {
+        try {
+            run(batch(2, 2), "country,language\ncan,de\ncan,de\n\"can,de\n", BatchTranslator.Format.CSV,
+                    BatchTranslator.Format.CSV);
+            fail("Expected the unterminated quote to be reported");
+        }
+        catch (RuntimeException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith("Line 4:"));
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void requiresCountryAndLanguageColumns() throws IOException {
+        run(batch(1, 1), "code,lang\ncan,de\n", BatchTranslator.Format.CSV, BatchTranslator.Format.CSV);
+    }
+
+    @Test
+    public void splitsQuotedCsvFields() {
+        assertEquals(Arrays.asList("a", "b, c", "say \"hi\"", ""),
+                BatchTranslator.splitCsv("a,\"b, c\",\"say \"\"hi\"\"\","));
+    }
+}
@@ -0,0 +1,166 @@
+package org.translation;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class CachingTranslatorTest {
+
+    /**
+     * Counts how often the wrapped translator is actually asked.
+     */
+    private static final class CountingTranslator implements Translator {
+        private final Translator delegate = new JSONTranslator();
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public List<String> getCountryLanguages(String country) {
+            return delegate.getCountryLanguages(country);
+        }
+
+        @Override
+        public List<String> getCountries() {
+            return delegate.getCountries();
+        }
+
+        @Override
+        public String translate(String country, String language) {
+            calls.incrementAndGet();
+            return delegate.translate(country, language);
+        }
+    }
+
+    @Test
+    public void repeatedLookupsAreCached() {
+        CountingTranslator backend = new CountingTranslator();
+        CachingTranslator cache = new CachingTranslator(backend, 10);
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Kanada", cache.translate("can", "de"));
+        }
+        assertEquals(1, backend.calls.get());
+        assertEquals(4, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void missingTranslationsAreCachedSeparately() {
+        CountingTranslator backend = new CountingTranslator();
+        CachingTranslator cache = new CachingTranslator(backend, 10);
+        assertNull(cache.translate("xyz", "de"));
+        assertNull(cache.translate("xyz", "de"));
+        assertEquals(1, backend.calls.get());
+        assertEquals(1, cache.getNegativeHitCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void sizeIsBounded() {
+        CachingTranslator cache = new CachingTranslator(new JSONTranslator(), 3);
+        for (String country : new JSONTranslator().getCountries()) {
+            cache.translate(country, "en");
+        }
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void hotEntriesSurviveOneOffLookups() {
+        CountingTranslator backend = new CountingTranslator();
+        CachingTranslator cache = new CachingTranslator(backend, 20);
+        for (int i = 0; i < 10; i++) {
+            cache.translate("can", "de");
+            cache.translate("fra", "de");
+        }
+        for (String country : backend.getCountries()) {
+            cache.translate(country, "fr");
+        }
+        int calls = backend.calls.get();
+        cache.translate("can", "de");
+        cache.translate("fra", "de");
+        assertEquals(calls, backend.calls.get());
+        assertTrue(cache.getRejectionCount() > 0);
+    }
+
+    @Test
+    public void missingTranslationsExpire() {
+        CountingTranslator backend = new CountingTranslator();
+        AtomicLong now = new AtomicLong();
+        CachingTranslator cache = new CachingTranslator(backend, 10, 10, Duration.ofSeconds(1), now::get);
+        assertNull(cache.translate("xyz", "de"));
+        now.addAndGet(Duration.ofMillis(999).toNanos());
+        assertNull(cache.translate("xyz", "de"));
+        assertEquals(1, backend.calls.get());
+        now.addAndGet(Duration.ofMillis(1).toNanos());
+        assertNull(cache.translate("xyz", "de"));
+        assertEquals(2, backend.calls.get());
+        assertEquals(1, cache.getNegativeHitCount());
+    }
+
+    @Test
+    public void invalidatedPairsAreAskedForAgain() {
+        CountingTranslator backend = new CountingTranslator();
+        CachingTranslator cache = new CachingTranslator(backend, 10);
+        cache.translate("can", "de");
+        cache.translate("fra", "de");
+        cache.translate("xyz", "de");
+        cache.invalidate("can", "de");
+        assertEquals(1, cache.size());
+        cache.translate("can", "de");
+        cache.translate("fra", "de");
+        assertEquals(4, backend.calls.get());
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        cache.translate("fra", "de");
+        cache.translate("xyz", "de");
+        assertEquals(6, backend.calls.get());
+    }
+
+    @Test
+    public void concurrentReadsStayCorrectAndBounded() throws InterruptedException {
+        CachingTranslator cache = new CachingTranslator(new JSONTranslator(), 50);
+        List<String> countries = new JSONTranslator().getCountries();
+        int threadCount = Math.max(4, Runtime.getRuntime().availableProcessors());
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int offset = t;
+            Thread thread = new Thread(() -> {
+                JSONTranslator expected = new JSONTranslator();
+                try {
+                    start.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 20_000; i++) {
+                    // mostly a few hot countries, with a tail of one-off lookups
+                    int index = i % 4 == 0 ? (offset * 7919 + i) % countries.size() : i % 8;
+                    String country = countries.get(index);
+                    String actual = cache.translate(country, "de");
+                    if (!Objects.equals(expected.translate(country, "de"), actual)) {
+                        failure.compareAndSet(null, country + " -> " + actual);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+        assertTrue(cache.size() <= 50);
+        assertTrue(cache.getHitCount() > 0);
+    }
+}
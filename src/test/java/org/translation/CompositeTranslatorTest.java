@@ -0,0 +1,94 @@
+package org.translation;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class CompositeTranslatorTest {
+
+    /**
+     * A small, editable translator standing in for a file of manual overrides.
+     */
+    private static final class OverrideTranslator implements Translator {
+        private final Map<String, Map<String, String>> data = new TreeMap<>();
+
+        OverrideTranslator put(String country, String language, String name) {
+            data.computeIfAbsent(country, key -> new TreeMap<>()).put(language, name);
+            return this;
+        }
+
+        @Override
+        public List<String> getCountryLanguages(String country) {
+            return new ArrayList<>(data.getOrDefault(country, Map.of()).keySet());
+        }
+
+        @Override
+        public List<String> getCountries() {
+            return new ArrayList<>(data.keySet());
+        }
+
+        @Override
+        public String translate(String country, String language) {
+            return data.getOrDefault(country, Map.of()).get(language);
+        }
+    }
+
+    private final JSONTranslator base = new JSONTranslator();
+
+    @Test
+    public void earlierSourcesWin() {
+        OverrideTranslator overrides = new OverrideTranslator().put("can", "en", "Dominion of Canada");
+        CompositeTranslator composite = new CompositeTranslator(List.of(overrides, base));
+        assertEquals("Dominion of Canada", composite.translate("can", "en"));
+        assertEquals("Kanada", composite.translate("CAN", "de"));
+        assertEquals(base.getCountries().size(), composite.getCountries().size());
+        assertEquals(35, composite.getCountryLanguages("can").size());
+    }
+
+    @Test
+    public void languagesAndCountriesAreMerged() {
+        OverrideTranslator overrides = new OverrideTranslator()
+                .put("can", "tlh", "Kanada'")
+                .put("atl", "en", "Atlantis");
+        CompositeTranslator composite = new CompositeTranslator(List.of(base, overrides));
+        assertEquals(36, composite.getCountryLanguages("can").size());
+        assertEquals("Canada", composite.translate("can", "en"));
+        assertEquals("Atlantis", composite.translate("atl", "en"));
+        assertEquals(base.getCountries().size() + 1, composite.getCountries().size());
+    }
+
+    @Test
+    public void refreshUpdatesOnlyChangedSource() {
+        OverrideTranslator overrides = new OverrideTranslator().put("can", "en", "Dominion of Canada");
+        CompositeTranslator composite = new CompositeTranslator(List.of(overrides, base));
+        overrides.data.clear();
+        overrides.put("fra", "en", "French Republic");
+        composite.refreshSource(0);
+        assertEquals("Canada", composite.translate("can", "en"));
+        assertEquals("French Republic", composite.translate("fra", "en"));
+
+        composite.replaceSource(0, new OverrideTranslator().put("atl", "en", "Atlantis"));
+        assertEquals("France", composite.translate("fra", "en"));
+        assertEquals("Atlantis", composite.translate("atl", "en"));
+    }
+
+    @Test
+    public void countryCodesKeepTheirSpelling() {
+        OverrideTranslator upper = new OverrideTranslator().put("ATL", "en", "Atlantis").put("CAN", "en", "Dominion");
+        CompositeTranslator composite = new CompositeTranslator(List.of(upper, base));
+        assertTrue(composite.getCountries().contains("ATL"));
+        assertTrue(composite.getCountries().contains("CAN"));
+        assertFalse(composite.getCountries().contains("can"));
+        assertEquals("Atlantis", composite.translate("atl", "en"));
+        assertEquals("Dominion", composite.translate("can", "en"));
+
+        CompositeTranslator baseFirst = new CompositeTranslator(List.of(base, upper));
+        assertEquals(base.getCountries(), baseFirst.getCountries().subList(0, base.getCountries().size()));
+        assertEquals("ATL", baseFirst.getCountries().get(base.getCountries().size()));
+    }
+}
@@ -0,0 +1,93 @@
+package org.translation;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Stress test hammering one shared JSONTranslator from several threads at once, all started together.
+ * Every thread checks every answer against a single-threaded baseline. Throughput and scaling are
+ * measured by the JMH suite (see BenchmarkMain), not here.
+ */
+public class ConcurrentTranslatorTest {
+
+    private static final int ROUNDS = 200;
+    private static final int MIN_THREADS = 4;
+
+    private final JSONTranslator translator = new JSONTranslator();
+
+    @Test
+    public void concurrentReadsMatchSingleThreadedResults() throws Exception {
+        List<String> countries = translator.getCountries();
+        List<List<String>> languages = new ArrayList<>();
+        List<List<String>> expected = new ArrayList<>();
+        for (String country : countries) {
+            List<String> countryLanguages = translator.getCountryLanguages(country);
+            languages.add(countryLanguages);
+            List<String> names = new ArrayList<>();
+            for (String language : countryLanguages) {
+                names.add(translator.translate(country, language));
+            }
+            expected.add(names);
+        }
+
+        int threads = Math.max(MIN_THREADS, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Callable<Long>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t * countries.size() / threads;
+                tasks.add(() -> {
+                    start.await();
+                    return hammer(countries, languages, expected, offset);
+                });
+            }
+            List<Future<Long>> futures = new ArrayList<>();
+            for (Callable<Long> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            long lookups = 0;
+            for (Future<Long> future : futures) {
+                // rethrows any failed assertion from the worker thread
+                lookups += future.get();
+            }
+            assertTrue(lookups > 0);
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Checks every answer, starting each round at the given country so that threads read different rows
+     * at the same time.
+     */
+    private long hammer(List<String> countries, List<List<String>> languages, List<List<String>> expected,
+                        int offset) {
+        long lookups = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            assertEquals(countries, translator.getCountries());
+            for (int k = 0; k < countries.size(); k++) {
+                int i = (offset + k) % countries.size();
+                String country = countries.get(i);
+                assertEquals(languages.get(i), translator.getCountryLanguages(country));
+                List<String> countryLanguages = languages.get(i);
+                for (int j = 0; j < countryLanguages.size(); j++) {
+                    assertEquals(expected.get(i).get(j), translator.translate(country, countryLanguages.get(j)));
+                }
+                lookups += countryLanguages.size() + 1;
+            }
+        }
+        return lookups;
+    }
+}
@@ -0,0 +1,73 @@
+package org.translation;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class ConverterRegistryTest {
+
+    @After
+    public void tearDown() {
+        ConverterRegistry.invalidateAll();
+    }
+
+    @Test
+    public void loadsOncePerFile() {
+        CountryCodeConverter first = ConverterRegistry.countryCodes();
+        assertSame(first, ConverterRegistry.countryCodes("country-codes.txt"));
+        assertSame(ConverterRegistry.languageCodes(), ConverterRegistry.languageCodes());
+        assertEquals(249, first.getNumCountries());
+    }
+
+    @Test
+    public void invalidateReloads() {
+        LanguageCodeConverter first = ConverterRegistry.languageCodes();
+        ConverterRegistry.invalidate("language-codes.txt");
+        LanguageCodeConverter second = ConverterRegistry.languageCodes();
+        assertNotSame(first, second);
+        assertEquals("English", second.fromLanguageCode("en"));
+    }
+
+    @Test
+    public void invalidatedDefaultsAreReadFromTheirFiles() {
+        CountryCodeConverter generated = ConverterRegistry.countryCodes();
+        ConverterRegistry.invalidateAll();
+        CountryCodeConverter reloaded = ConverterRegistry.countryCodes();
+        assertNotSame(generated, reloaded);
+        CountryCodeConverter fromFile = new CountryCodeConverter("country-codes.txt");
+        assertEquals(fromFile.getNumCountries(), reloaded.getNumCountries());
+        assertEquals(fromFile.fromCountryCode("can"), reloaded.fromCountryCode("can"));
+        LanguageCodeConverter languages = ConverterRegistry.languageCodes();
+        assertEquals(new LanguageCodeConverter("language-codes.txt").namesByCode(), languages.namesByCode());
+    }
+
+    @Test
+    public void concurrentFirstUseSharesOneConverter() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<CountryCodeConverter>> tasks = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                tasks.add(ConverterRegistry::countryCodes);
+            }
+            CountryCodeConverter expected = null;
+            for (Future<CountryCodeConverter> future : executor.invokeAll(tasks)) {
+                if (expected == null) {
+                    expected = future.get();
+                }
+                assertSame(expected, future.get());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.translation;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CountryCodeTableTest {
+
+    private final CountryCodeTable table = new CountryCodeConverter().getTable();
+
+    @Test
+    public void convertsBetweenAllColumns() {
+        assertEquals("CAN", table.alpha2ToAlpha3("CA"));
+        assertEquals("CA", table.alpha3ToAlpha2("CAN"));
+        assertEquals(124, table.alpha3ToNumeric("CAN"));
+        assertEquals("AFG", table.numericToAlpha3(4));
+        assertEquals("Canada", table.alpha3ToName("CAN"));
+        assertEquals("CAN", table.nameToAlpha3("Canada"));
+        assertEquals(table.indexOfNumeric(4), table.indexOfNumeric("004"));
+    }
+
+    @Test
+    public void codesIgnoreCase() {
+        assertEquals("CAN", table.alpha2ToAlpha3("ca"));
+        assertEquals("CA", table.alpha3ToAlpha2("cAn"));
+    }
+
+    @Test
+    public void rejectsUnknownAndMalformedCodes() {
+        assertEquals(CountryCodeTable.NOT_FOUND, table.indexOfAlpha3("C@N"));
+        assertEquals(CountryCodeTable.NOT_FOUND, table.indexOfAlpha3("CANA"));
+        assertEquals(CountryCodeTable.NOT_FOUND, table.indexOfAlpha3("{AN"));
+        assertEquals(CountryCodeTable.NOT_FOUND, table.indexOfNumeric("12a"));
+        assertEquals(CountryCodeTable.NOT_FOUND, table.alpha3ToNumeric("XXX"));
+        assertNull(table.alpha3ToName(null));
+        assertNull(table.numericToAlpha3(999));
+    }
+
+    @Test
+    public void rejectsNumericCodesOutOfRangeWithTheirLine() {
+        for (String numeric : new String[] {"1000", "-1", "x12"}) {
+            try {
+                CountryCodeTable.fromLines(List.of("Country\tAlpha-2\tAlpha-3\tNumeric",
+                        "Canada\tCA\tCAN\t124", "Nowhere\tNW\tNWH\t" + numeric));
+                fail("accepted numeric code " + numeric);
+            }
+            catch (IllegalArgumentException ex) {
+                assertTrue(ex.getMessage(), ex.getMessage().startsWith("Line 3:"));
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.translation;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CountrySearchIndexTest {
+
+    private static CountrySearchIndex index;
+
+    @BeforeClass
+    public static void setUp() {
+        index = CountrySearchIndex.build(new JSONTranslator(), new CountryCodeConverter());
+    }
+
+    @Test
+    public void completesPrefixesInAnyLanguageAndCase() {
+        List<CountrySearchIndex.Match> matches = index.complete("deutsch", 10);
+        assertFalse(matches.isEmpty());
+        assertEquals("deu", matches.get(0).getCode());
+        assertEquals("can", index.complete("CANAD", 10).get(0).getCode());
+    }
+
+    @Test
+    public void completionIsBoundedByLimit() {
+        assertEquals(3, index.complete("a", 3).size());
+        assertTrue(index.complete("zzzz", 3).isEmpty());
+    }
+
+    @Test
+    public void fuzzyMatchesTypos() {
+        List<CountrySearchIndex.Match> matches = index.fuzzy("Germny", 1, 5);
+        assertEquals("deu", matches.get(0).getCode());
+        assertEquals(1, matches.get(0).getDistance());
+    }
+
+    @Test
+    public void bestMatchPrefersExactNames() {
+        assertEquals("fra", index.bestMatch("france").getCode());
+        assertEquals("jpn", index.bestMatch("日本").getCode());
+        assertEquals("che", index.bestMatch("Swizterland").getCode());
+        assertNull(index.bestMatch("qqqqqqqqqqqq"));
+    }
+
+    @Test
+    public void fuzzyFindsEveryNameWithinTheDistance() {
+        List<String> keys = new ArrayList<>();
+        for (CountrySearchIndex.Match match : index.complete("", index.size())) {
+            keys.add(NameNormalizer.normalize(match.getName()));
+        }
+        for (String query : new String[] {"Germny", "Swizterland", "frnace", "Kanda", "oesterreich", "ab"}) {
+            String key = NameNormalizer.normalize(query);
+            for (int maxDistance = 0; maxDistance <= 3; maxDistance++) {
+                int expected = 0;
+                for (String name : keys) {
+                    if (levenshtein(key, name) <= maxDistance) {
+                        expected++;
+                    }
+                }
+                assertEquals(query + " within " + maxDistance, expected,
+                        index.fuzzy(query, maxDistance, Integer.MAX_VALUE).size());
+            }
+        }
+    }
+
+    @Test
+    public void fuzzyQueriesOnlyCompareAFewNames() {
+        for (String query : new String[] {"Germny", "Swizterland", "frnace", "Kanada"}) {
+            int compared = index.countCompared(query, CountrySearchIndex.DEFAULT_MAX_DISTANCE);
+            assertTrue(query + " compared " + compared + " of " + index.size(), compared < index.size() / 40);
+        }
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] table = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    table[i][j] = i + j;
+                }
+                else {
+                    int substitution = table[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                    table[i][j] = Math.min(substitution, Math.min(table[i - 1][j], table[i][j - 1]) + 1);
+                }
+            }
+        }
+        return table[a.length()][b.length()];
+    }
+}
@@ -0,0 +1,192 @@
+package org.translation;
+
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class DeltaTranslatorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final TranslationTable base = new JSONTranslator().getTable();
+
+    @Test
+    public void appliesEveryKindOfChange() {
+        DeltaTranslator translator = new DeltaTranslator(base);
+        translator.apply(new TranslationDelta.Builder(1)
+                .put("can", "en", "Kanada")
+                .remove("can", "de")
+                .put("deu", "xx", "Deutschland XX")
+                .putCountry("zzz", Map.of("en", "Zedland", "fr", "Zèdeland"))
+                .removeCountry("afg")
+                .build());
+
+        assertEquals(1, translator.getVersion());
+        assertEquals("Kanada", translator.translate("CAN", "en"));
+        assertNull(translator.translate("can", "de"));
+        assertFalse(translator.getCountryLanguages("can").contains("de"));
+        assertEquals("Deutschland XX", translator.translate("deu", "xx"));
+        assertTrue(translator.getCountryLanguages("deu").contains("xx"));
+        assertEquals("Zedland", translator.translate("zzz", "en"));
+        assertEquals(Set.of("en", "fr"), Set.copyOf(translator.getCountryLanguages("zzz")));
+        assertNull(translator.translate("afg", "en"));
+        assertFalse(translator.getCountries().contains("afg"));
+        assertTrue(translator.getCountries().contains("zzz"));
+        assertEquals(base.rowCount(), translator.getCountries().size());
+    }
+
+    @Test
+    public void leavesTheOldTableAndUntouchedRowsAlone() {
+        TranslationTable changed = base.apply(new TranslationDelta.Builder(1)
+                .put("can", "en", "Kanada")
+                .removeCountry("afg")
+                .build());
+        assertEquals("Canada", base.translate("can", "en"));
+        assertEquals("Afghanistan", base.translate("afg", "en"));
+        assertEquals("Kanada", changed.translate("can", "en"));
+        for (int row = 0; row < changed.rowCount(); row++) {
+            String country = changed.countryCode(row);
+            if (!"can".equals(country)) {
+                assertSame(base.languagesOf(base.rowOf(country)), changed.languagesOf(row));
+                assertEquals(base.translate(country, "fr"), changed.translate(country, "fr"));
+            }
+        }
+    }
+
+    @Test
+    public void putCountryReplacesEveryName() {
+        TranslationTable changed = base.apply(new TranslationDelta.Builder(1)
+                .putCountry("can", Map.of("en", "Canada"))
+                .build());
+        assertEquals(List.of("en"), changed.languagesOf(changed.rowOf("can")));
+        assertNull(changed.translate("can", "fr"));
+    }
+
+    @Test
+    public void reusesNamesAlreadyInThePool() {
+        TranslationTable changed = base.apply(new TranslationDelta.Builder(1)
+                .put("can", "en", base.translate("deu", "en"))
+                .put("zzz", "en", "Zedland")
+                .put("yyy", "en", "Zedland")
+                .build());
+        assertEquals(base.poolSize() + 1, changed.poolSize());
+        assertEquals("Germany", changed.translate("can", "en"));
+        assertEquals("Zedland", changed.translate("yyy", "en"));
+    }
+
+    @Test
+    public void manySmallDeltasKeepEveryCountryReachable() {
+        TranslationTable table = base;
+        int added = 3000;
+        for (int i = 0; i < added; i++) {
+            table = table.apply(new TranslationDelta.Builder(i + 1)
+                    .put("x" + i, "en", "Country " + i)
+                    .put("can", "en", "Canada " + (i % 10))
+                    .build());
+        }
+        assertEquals(base.rowCount() + added, table.rowCount());
+        for (int i = 0; i < added; i++) {
+            assertEquals("Country " + i, table.translate("X" + i, "en"));
+            assertEquals("x" + i, table.countryCode(base.rowCount() + i));
+        }
+        assertEquals("Canada 9", table.translate("can", "en"));
+        assertEquals(base.poolSize() + added + 10, table.poolSize());
+        table = table.apply(new TranslationDelta.Builder(added + 1).removeCountry("x0").build());
+        assertNull(table.translate("x0", "en"));
+        assertEquals("Country 1", table.translate("x1", "en"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsVersionZero() {
+        new TranslationDelta.Builder(0).put("can", "en", "Kanada").build();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void rejectsANullName() {
+        new TranslationDelta.Builder(1).put("can", "en", null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void rejectsANullLanguageInACountry() {
+        Map<String, String> names = new HashMap<>();
+        names.put(null, "Zedland");
+        new TranslationDelta.Builder(1).putCountry("zzz", names);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsVersionsOutOfOrder() {
+        DeltaTranslator translator = new DeltaTranslator(base);
+        translator.apply(new TranslationDelta.Builder(2).put("can", "en", "Kanada").build());
+    }
+
+    @Test
+    public void replaysTheChangeLogAtStartup() throws IOException {
+        Path logFile = folder.getRoot().toPath().resolve("changes.jsonl");
+        DeltaTranslator translator = DeltaTranslator.open(base, logFile);
+        translator.apply(new TranslationDelta.Builder(1).put("can", "en", "Kanada").build());
+        translator.apply(new TranslationDelta.Builder(2).removeCountry("afg").put("can", "eo", "Kanado").build());
+
+        DeltaTranslator reopened = DeltaTranslator.open(base, logFile);
+        assertEquals(2, reopened.getVersion());
+        assertEquals("Kanada", reopened.translate("can", "en"));
+        assertEquals("Kanado", reopened.translate("can", "eo"));
+        assertFalse(reopened.getCountries().contains("afg"));
+
+        // a base which already holds version 1 only replays version 2
+        TranslationTable atVersion1 = base.apply(new TranslationDelta.Builder(1).put("can", "fr", "Le Canada").build());
+        DeltaTranslator fromSnapshot = DeltaTranslator.open(atVersion1, 1, logFile);
+        assertEquals(2, fromSnapshot.getVersion());
+        assertEquals("Le Canada", fromSnapshot.translate("can", "fr"));
+        assertEquals("Canada", fromSnapshot.translate("can", "en"));
+    }
+
+    @Test
+    public void dropsATornLastLine() throws IOException {
+        Path logFile = folder.getRoot().toPath().resolve("changes.jsonl");
+        DeltaLog log = new DeltaLog(logFile);
+        log.append(new TranslationDelta.Builder(1).put("can", "en", "Kanada").build());
+        Files.write(logFile, "{\"version\":2,\"chan".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        DeltaTranslator translator = DeltaTranslator.open(base, logFile);
+        assertEquals(1, translator.getVersion());
+        translator.apply(new TranslationDelta.Builder(2).put("can", "eo", "Kanado").build());
+        assertEquals(2, new DeltaLog(logFile).read().size());
+        assertEquals("Kanado", DeltaTranslator.open(base, logFile).translate("can", "eo"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void rejectsALogWithAGap() throws IOException {
+        Path logFile = folder.getRoot().toPath().resolve("changes.jsonl");
+        new DeltaLog(logFile).append(new TranslationDelta.Builder(2).put("can", "en", "Kanada").build());
+        DeltaTranslator.open(base, logFile);
+    }
+
+    @Test
+    public void deltasRoundTripThroughJson() {
+        TranslationDelta delta = new TranslationDelta.Builder(7)
+                .putCountry("zzz", Map.of("en", "Zedland"))
+                .removeCountry("afg")
+                .put("can", "en", "Kanada")
+                .remove("can", "de")
+                .build();
+        TranslationDelta copy = TranslationDelta.fromJson(new JSONObject(delta.toString()));
+        assertEquals(7, copy.getVersion());
+        assertTrue(delta.toJson().similar(copy.toJson()));
+        assertEquals(TranslationDelta.Type.REMOVE, copy.getChanges().get(3).getType());
+        assertEquals(Map.of("en", "Zedland"), copy.getChanges().get(0).getNames());
+    }
+}
@@ -0,0 +1,84 @@
+package org.translation;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FallbackTranslatorTest {
+
+    private static TranslationTable table() {
+        TranslationTable.Builder builder = new TranslationTable.Builder();
+        int canada = builder.addRow("can");
+        builder.put(canada, "en", "Canada").put(canada, "de", "Kanada").put(canada, "zh", "加拿大")
+                .put(canada, "es", "Canadá");
+        int kosovo = builder.addRow("xkx");
+        builder.put(kosovo, "en", "Kosovo");
+        return builder.build();
+    }
+
+    @Test
+    public void exactHitsAreUnchanged() {
+        FallbackTranslator translator = new FallbackTranslator(table(), FallbackChains.standard(), List.of());
+        assertEquals("Kanada", translator.translate("can", "de"));
+        FallbackTranslator.Resolution resolution = translator.resolve("CAN", "de");
+        assertEquals("Kanada", resolution.getName());
+        assertEquals("de", resolution.getLanguage());
+        assertFalse(resolution.isFallback());
+    }
+
+    @Test
+    public void regionalVariantFallsBackToBaseThenEnglish() {
+        FallbackTranslator translator = new FallbackTranslator(table(), FallbackChains.standard(),
+                List.of("de-at", "zh-tw"));
+        assertEquals("Kanada", translator.translate("can", "de-at"));
+        assertEquals("加拿大", translator.translate("can", "zh-tw"));
+        assertEquals("Kosovo", translator.translate("xkx", "zh-tw"));
+        FallbackTranslator.Resolution resolution = translator.resolve("xkx", "de-at");
+        assertEquals("en", resolution.getLanguage());
+        assertEquals("de-at", resolution.getRequestedLanguage());
+        assertTrue(resolution.isFallback());
+    }
+
+    @Test
+    public void unlistedLanguagesStillFallBack() {
+        FallbackTranslator translator = new FallbackTranslator(table(), FallbackChains.standard(), List.of());
+        assertEquals("Canada", translator.translate("can", "fr-ca"));
+        assertEquals("Kanada", translator.translate("can", "de_CH"));
+        assertNull(translator.translate("zzz", "de"));
+        assertNull(translator.translate("can", null));
+        assertNull(translator.resolve("zzz", "en"));
+    }
+
+    @Test
+    public void configuredChainsComeBeforeTheDefault() {
+        FallbackChains chains = new FallbackChains.Builder().fallback("pt", "es").defaultTo("en").build();
+        assertEquals(Arrays.asList("pt-br", "pt", "es", "en"), chains.chainOf("pt-br"));
+        FallbackTranslator translator = new FallbackTranslator(table(), chains, List.of("pt", "pt-br"));
+        assertEquals("Canadá", translator.translate("can", "pt-br"));
+        assertEquals("es", translator.resolve("can", "pt").getLanguage());
+        assertEquals("Kosovo", translator.translate("xkx", "pt"));
+    }
+
+    @Test
+    public void noChainsMeansExactOnly() {
+        assertEquals(List.of("de-at"), FallbackChains.none().chainOf("de-at"));
+        FallbackTranslator translator = new FallbackTranslator(table(), FallbackChains.none(), List.of("de-at"));
+        assertNull(translator.translate("can", "de-at"));
+        assertNull(translator.translate("xkx", "de"));
+    }
+
+    @Test
+    public void resolvesEveryConverterLanguageOverTheSampleData() {
+        FallbackTranslator translator = new FallbackTranslator(new JSONTranslator(), FallbackChains.standard());
+        // Abkhazian has no translations in sample.json, so English answers
+        FallbackTranslator.Resolution resolution = translator.resolve("can", "ab");
+        assertEquals("Canada", resolution.getName());
+        assertEquals("en", resolution.getLanguage());
+        assertEquals(translator.getCountries(), new JSONTranslator().getCountries());
+        assertArrayEquals(new String[] {"Kanada", "Canada"},
+                translator.translateAll(List.of("can", "can"), List.of("de", "ab")));
+    }
+}
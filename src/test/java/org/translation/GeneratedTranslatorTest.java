@@ -0,0 +1,97 @@
+package org.translation;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the tables generated at build time hold exactly what the runtime loaders read from
+ * the same files.
+ */
+public class GeneratedTranslatorTest {
+
+    private final GeneratedTranslator generated = new GeneratedTranslator();
+
+    @Test
+    public void translatesLikeJsonTranslator() {
+        JSONTranslator json = new JSONTranslator();
+        assertEquals(json.getCountries(), generated.getCountries());
+        for (String country : json.getCountries()) {
+            List<String> languages = json.getCountryLanguages(country);
+            assertEquals(languages, generated.getCountryLanguages(country));
+            for (String language : languages) {
+                assertEquals(json.translate(country, language), generated.translate(country, language));
+            }
+        }
+    }
+
+    @Test
+    public void countryCodesIgnoreCase() {
+        assertEquals("Canada", generated.translate("CAN", "en"));
+        assertEquals("Canada", generated.translate("can", "en"));
+        assertEquals(List.of(), generated.getCountryLanguages("xyz"));
+    }
+
+    @Test
+    public void missingTranslationsAreNull() {
+        assertNull(generated.translate("can", "xx"));
+        assertNull(generated.translate("xyz", "en"));
+        assertNull(generated.translate(null, "en"));
+        assertNull(generated.translate("can", null));
+    }
+
+    @Test
+    public void generatedCountryCodesMatchTheFile() {
+        CountryCodeConverter fromFile = new CountryCodeConverter("country-codes.txt");
+        CountryCodeConverter fromTables = new CountryCodeConverter();
+        assertEquals(fromFile.getNumCountries(), fromTables.getNumCountries());
+        assertEquals(fromFile.namesByCode(), fromTables.namesByCode());
+        for (String name : fromFile.codesByName().keySet()) {
+            assertEquals(fromFile.fromCountry(name), fromTables.fromCountry(name));
+        }
+        assertNull(fromTables.fromCountry("Atlantis"));
+    }
+
+    @Test
+    public void generatedLanguageCodesMatchTheFile() {
+        LanguageCodeConverter fromFile = new LanguageCodeConverter("language-codes.txt");
+        LanguageCodeConverter fromTables = new LanguageCodeConverter();
+        assertEquals(fromFile.getNumLanguages(), fromTables.getNumLanguages());
+        assertEquals(fromFile.namesByCode(), fromTables.namesByCode());
+        assertEquals(fromFile.codesByName(), fromTables.codesByName());
+        for (String code : fromFile.namesByCode().keySet()) {
+            assertEquals(fromFile.fromLanguageCode(code), fromTables.fromLanguageCode(code));
+        }
+        for (String name : fromFile.codesByName().keySet()) {
+            assertEquals(fromFile.fromLanguage(name), fromTables.fromLanguage(name));
+        }
+        assertNull(fromTables.fromLanguage("Klingon"));
+    }
+
+    @Test
+    public void generatedPerfectHashesAreThoseOfPerfectHashBuild() {
+        assertSameHash(CountryCodeData.NAMES, CountryCodeData.NAME_DISPLACEMENTS, CountryCodeData.NAME_ORDER, false);
+        assertSameHash(LanguageCodeData.CODES, LanguageCodeData.CODE_DISPLACEMENTS, LanguageCodeData.CODE_ORDER,
+                false);
+        assertSameHash(LanguageCodeData.NAMES, LanguageCodeData.NAME_DISPLACEMENTS, LanguageCodeData.NAME_ORDER,
+                false);
+        assertSameHash(TranslationData.COUNTRIES, TranslationData.COUNTRY_DISPLACEMENTS, TranslationData.COUNTRY_ORDER,
+                true);
+        assertSameHash(TranslationData.LANGUAGES, TranslationData.LANGUAGE_DISPLACEMENTS,
+                TranslationData.LANGUAGE_ORDER, false);
+    }
+
+    private static void assertSameHash(String[] keys, int[] displacements, int[] order, boolean ignoreCase) {
+        PerfectHash built = PerfectHash.build(keys, ignoreCase);
+        assertArrayEquals(built.getDisplacements(), displacements);
+        assertArrayEquals(built.getOrder(), order);
+        PerfectHash generatedHash = new PerfectHash(keys, displacements, order, ignoreCase);
+        for (String key : keys) {
+            int index = generatedHash.indexOf(key);
+            assertNotEquals(key, PerfectHash.NOT_FOUND, index);
+            assertEquals(key, keys[index]);
+        }
+    }
+}
@@ -2,7 +2,9 @@ package org.translation;
 
 import org.junit.Test;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 
@@ -27,4 +29,48 @@ public class JSONTranslatorTest {
     public void translate() {
         assertEquals("Canada", jsonTranslator.translate("can", "en"));
     }
+
+    @Test
+    public void translateIgnoresCountryCase() {
+        assertEquals("Kanada", jsonTranslator.translate("CAN", "de"));
+    }
+
+    @Test
+    public void translateMissing() {
+        assertNull(jsonTranslator.translate("xyz", "en"));
+        assertNull(jsonTranslator.translate("can", "xx"));
+    }
+
+    @Test
+    public void translateAllMatchesTranslate() {
+        List<String> countries = List.of("can", "fra", "xyz", "DEU", "can");
+        List<String> languages = List.of("de", "de", "de", "fr", "xx");
+        String[] result = jsonTranslator.translateAll(countries, languages);
+        for (int i = 0; i < result.length; i++) {
+            assertEquals(jsonTranslator.translate(countries.get(i), languages.get(i)), result[i]);
+        }
+    }
+
+    @Test
+    public void translateCountryCoversEveryLanguage() {
+        Map<String, String> result = jsonTranslator.translateCountry("can");
+        assertEquals(35, result.size());
+        assertEquals("Kanada", result.get("de"));
+        assertEquals(new HashSet<>(jsonTranslator.getCountryLanguages("can")), result.keySet());
+    }
+
+    @Test
+    public void translateLanguageCoversEveryCountry() {
+        Map<String, String> result = jsonTranslator.translateLanguage("en");
+        assertEquals(193, result.size());
+        assertEquals("Canada", result.get("can"));
+        assertTrue(jsonTranslator.translateLanguage("xx").isEmpty());
+    }
+
+    @Test
+    public void defaultTranslateAllUsesTranslate() {
+        Translator plain = new InLabByHandTranslator();
+        assertArrayEquals(new String[] {"Kanada", null},
+                plain.translateAll(List.of("Canada", "can"), List.of("de", "de")));
+    }
 }
@@ -0,0 +1,86 @@
+package org.translation;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class MappedTranslatorTest {
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    private static JSONTranslator jsonTranslator;
+    private static MappedTranslator mappedTranslator;
+
+    @BeforeClass
+    public static void compileSnapshot() throws Exception {
+        jsonTranslator = new JSONTranslator();
+        Path snapshot = folder.newFile("translations.snapshot").toPath();
+        SnapshotCompiler.write(jsonTranslator.getTable(), new CountryCodeConverter(), new LanguageCodeConverter(),
+                snapshot);
+        mappedTranslator = MappedTranslator.open(snapshot);
+    }
+
+    @Test
+    public void translatesEveryEntryLikeJSONTranslator() {
+        assertEquals(jsonTranslator.getCountries(), mappedTranslator.getCountries());
+        for (String country : jsonTranslator.getCountries()) {
+            assertEquals(jsonTranslator.getCountryLanguages(country), mappedTranslator.getCountryLanguages(country));
+            for (String language : jsonTranslator.getCountryLanguages(country)) {
+                assertEquals(jsonTranslator.translate(country, language),
+                        mappedTranslator.translate(country, language));
+            }
+        }
+    }
+
+    @Test
+    public void translateMisses() {
+        assertEquals("Kanada", mappedTranslator.translate("CAN", "de"));
+        assertNull(mappedTranslator.translate("xyz", "de"));
+        assertNull(mappedTranslator.translate("can", "xx"));
+        assertTrue(mappedTranslator.getCountryLanguages("xyz").isEmpty());
+    }
+
+    @Test
+    public void convertsCodes() {
+        assertEquals("United States of America (the)", mappedTranslator.fromCountryCode("usa"));
+        assertEquals("CAN", mappedTranslator.fromCountry("Canada"));
+        assertEquals("English", mappedTranslator.fromLanguageCode("en"));
+        assertEquals("de", mappedTranslator.fromLanguage("German"));
+        assertNull(mappedTranslator.fromLanguage("Klingon"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void rejectsOtherFiles() {
+        new MappedTranslator(ByteBuffer.allocate(128));
+    }
+
+    @Test
+    public void rewritingLeavesOpenMappingsIntact() throws Exception {
+        Path snapshot = folder.newFolder().toPath().resolve("translations.snapshot");
+        SnapshotCompiler.write(jsonTranslator.getTable(), new CountryCodeConverter(), new LanguageCodeConverter(),
+                snapshot);
+        MappedTranslator old = MappedTranslator.open(snapshot);
+        TranslationTable smaller = TranslationLoader.load(
+                new StringReader("[{\"alpha3\": \"can\", \"de\": \"Kanada\"}]"));
+        SnapshotCompiler.write(smaller, new CountryCodeConverter(), new LanguageCodeConverter(), snapshot);
+
+        assertEquals(jsonTranslator.getCountries(), old.getCountries());
+        assertEquals("Frankreich", old.translate("fra", "de"));
+        MappedTranslator reopened = MappedTranslator.open(snapshot);
+        assertEquals(1, reopened.getCountries().size());
+        assertEquals("Kanada", reopened.translate("can", "de"));
+        try (Stream<Path> files = Files.list(snapshot.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+}
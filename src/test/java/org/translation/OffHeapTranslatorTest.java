@@ -0,0 +1,158 @@
+package org.translation;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OffHeapTranslatorTest {
+
+    private final OffHeapTranslator translator = OffHeapTranslator.load("sample.json");
+
+    @Test
+    public void translatesLikeJsonTranslator() {
+        JSONTranslator json = new JSONTranslator();
+        assertEquals(json.getCountries(), translator.getCountries());
+        for (String country : json.getCountries()) {
+            assertEquals(json.getCountryLanguages(country), translator.getCountryLanguages(country));
+            for (String language : json.getCountryLanguages(country)) {
+                assertEquals(json.translate(country, language), translator.translate(country, language));
+            }
+        }
+        assertEquals(translator.getCountries(), OffHeapTranslator.of(json.getTable()).getCountries());
+    }
+
+    @Test
+    public void missingTranslationsAreNull() {
+        assertEquals("Canada", translator.translate("CAN", "en"));
+        assertNull(translator.translate("can", "xx"));
+        assertNull(translator.translate("xyz", "en"));
+        assertNull(translator.translate(null, "en"));
+        assertNull(translator.translate("can", null));
+    }
+
+    @Test
+    public void writesUtf8BytesToASink() {
+        ByteBuffer sink = ByteBuffer.allocate(64);
+        int length = translator.translateTo(new StringBuilder("can"), "ja", sink);
+        assertEquals(translator.translate("can", "ja"), new String(sink.array(), 0, length, StandardCharsets.UTF_8));
+        assertEquals(length, sink.position());
+        assertEquals(OffHeapTranslator.NOT_FOUND, translator.translateTo("xyz", "ja", sink));
+        assertEquals(length, sink.position());
+    }
+
+    @Test
+    public void overflowingTheSinkWritesNothing() {
+        ByteBuffer sink = ByteBuffer.allocate(2);
+        try {
+            translator.translateTo("can", "en", sink);
+            fail("Expected a BufferOverflowException");
+        }
+        catch (BufferOverflowException expected) {
+            assertEquals(0, sink.position());
+        }
+    }
+
+    @Test
+    public void translateToAllocatesNothing() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+        ByteBuffer sink = ByteBuffer.allocateDirect(64);
+        StringBuilder country = new StringBuilder("CAN");
+
+        int bytes = writeAll(sink, country);
+        long before = allocations.getThreadAllocatedBytes(thread);
+        bytes += writeAll(sink, country);
+        long allocated = allocations.getThreadAllocatedBytes(thread) - before;
+        assertTrue(bytes > 0);
+        assertTrue(allocated + " bytes allocated", allocated < 4096);
+    }
+
+    private int writeAll(ByteBuffer sink, CharSequence country) {
+        int bytes = 0;
+        for (int i = 0; i < 10_000; i++) {
+            sink.clear();
+            bytes += translator.translateTo(country, "de", sink);
+        }
+        return bytes;
+    }
+
+    @Test
+    public void builderMergesRowsAndReplacesNames() {
+        OffHeapTranslator.Builder builder = new OffHeapTranslator.Builder();
+        int row = builder.addRow("abc");
+        builder.put(row, "en", "First");
+        builder.put(builder.addRow("xyz"), "en", "Other");
+        assertEquals(row, builder.addRow("ABC"));
+        builder.put(row, "en", "Second");
+        builder.put(row, "fr", "Deuxième");
+        OffHeapTranslator built = builder.build();
+        assertEquals(List.of("abc", "xyz"), built.getCountries());
+        assertEquals("Second", built.translate("abc", "en"));
+        assertEquals("Deuxième", built.translate("Abc", "fr"));
+        assertEquals(List.of("en", "fr"), built.getCountryLanguages("abc"));
+        assertEquals(List.of("en"), built.getCountryLanguages("xyz"));
+        try {
+            builder.build();
+            fail("Expected an IllegalStateException");
+        }
+        catch (IllegalStateException expected) {
+            // a builder hands its buffers to the translator it built
+        }
+    }
+
+    @Test
+    public void rowsWithDifferentLanguagesKeepTheirOwnNames() {
+        OffHeapTranslator.Builder builder = new OffHeapTranslator.Builder();
+        int first = builder.addRow("aaa");
+        int second = builder.addRow("bbb");
+        builder.put(first, "fr", "A-fr").put(second, "de", "B-de").put(first, "en", "A-en");
+        builder.put(second, "fr", "B-fr").put(first, "fr", "A-fr2").put(second, "de", "B-de2");
+        builder.addRow("ccc");
+        OffHeapTranslator built = builder.build();
+        assertEquals(List.of("fr", "en"), built.getCountryLanguages("aaa"));
+        assertEquals(List.of("fr", "de"), built.getCountryLanguages("bbb"));
+        assertEquals(List.of(), built.getCountryLanguages("ccc"));
+        assertEquals("A-fr2", built.translate("aaa", "fr"));
+        assertEquals("A-en", built.translate("aaa", "en"));
+        assertNull(built.translate("aaa", "de"));
+        assertEquals("B-de2", built.translate("bbb", "de"));
+        assertEquals("B-fr", built.translate("bbb", "fr"));
+        assertNull(built.translate("bbb", "en"));
+        assertNull(built.translate("ccc", "fr"));
+    }
+
+    @Test
+    public void growsPastItsInitialBuffers() {
+        StringBuilder json = new StringBuilder("[");
+        int countries = 20_000;
+        for (int i = 0; i < countries; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"alpha3\":\"c").append(i).append("\",\"en\":\"Country ").append(i)
+                    .append("\",\"de\":\"Land ").append(i).append("\",\"eo\":\"Lando\"}");
+        }
+        OffHeapTranslator large = OffHeapTranslator.load(new StringReader(json.append(']').toString()));
+        assertEquals(countries, large.getCountries().size());
+        for (int i = 0; i < countries; i += 997) {
+            assertEquals("Country " + i, large.translate("C" + i, "en"));
+            assertEquals("Land " + i, large.translate("c" + i, "de"));
+            assertEquals("Lando", large.translate("c" + i, "eo"));
+        }
+        assertEquals("c19999", large.getCountries().get(countries - 1));
+        assertTrue(large.offHeapBytes() > 0);
+    }
+}
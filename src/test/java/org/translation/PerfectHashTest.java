@@ -0,0 +1,53 @@
+package org.translation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PerfectHashTest {
+
+    @Test
+    public void findsEveryKeyAtItsIndex() {
+        String[] keys = new String[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key" + i;
+        }
+        PerfectHash hash = PerfectHash.build(keys, false);
+        assertEquals(keys.length, hash.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i, hash.indexOf(keys[i]));
+            assertEquals(i, hash.indexOf(new StringBuilder(keys[i])));
+        }
+    }
+
+    @Test
+    public void rejectsUnknownKeys() {
+        PerfectHash hash = PerfectHash.build(new String[] {"can", "usa", "fra"}, false);
+        assertEquals(PerfectHash.NOT_FOUND, hash.indexOf("deu"));
+        assertEquals(PerfectHash.NOT_FOUND, hash.indexOf("CAN"));
+        assertEquals(PerfectHash.NOT_FOUND, hash.indexOf(""));
+        assertEquals(PerfectHash.NOT_FOUND, hash.indexOf(null));
+    }
+
+    @Test
+    public void ignoresCaseWhenAsked() {
+        PerfectHash hash = PerfectHash.build(new String[] {"can", "USA", "Fra"}, true);
+        assertEquals(0, hash.indexOf("CAN"));
+        assertEquals(1, hash.indexOf("usa"));
+        assertEquals(2, hash.indexOf("fRA"));
+        assertEquals(PerfectHash.NOT_FOUND, hash.indexOf("deu"));
+    }
+
+    @Test
+    public void lastDuplicateWins() {
+        PerfectHash hash = PerfectHash.build(new String[] {"a", "b", "a"}, false);
+        assertEquals(2, hash.size());
+        assertEquals(2, hash.indexOf("a"));
+        assertEquals(1, hash.indexOf("b"));
+    }
+
+    @Test
+    public void emptyHashFindsNothing() {
+        assertEquals(PerfectHash.NOT_FOUND, PerfectHash.build(new String[0], false).indexOf("a"));
+    }
+}
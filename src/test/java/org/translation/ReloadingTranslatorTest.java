@@ -0,0 +1,78 @@
+package org.translation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class ReloadingTranslatorTest {
+
+    private static final long TIMEOUT_MILLIS = 20_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path write(String fileName, String json) throws Exception {
+        Path file = folder.getRoot().toPath().resolve(fileName);
+        Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void reloadSwapsInNewData() throws Exception {
+        Path file = write("data.json", "[{\"alpha3\": \"can\", \"en\": \"Canada\"}]");
+        try (ReloadingTranslator translator = new ReloadingTranslator(file)) {
+            assertEquals(0, translator.getVersion());
+            write("data.json", "[{\"alpha3\": \"can\", \"en\": \"Dominion of Canada\"}, {\"alpha3\": \"fra\"}]");
+            translator.reload();
+            assertTrue(translator.getVersion() >= 1);
+            assertEquals("Dominion of Canada", translator.translate("can", "en"));
+            assertEquals(2, translator.getCountryCount());
+        }
+    }
+
+    @Test
+    public void fileChangesAreWatched() throws Exception {
+        Path file = write("data.json", "[{\"alpha3\": \"can\", \"en\": \"Canada\"}]");
+        try (ReloadingTranslator translator = new ReloadingTranslator(file)) {
+            write("data.json", "[{\"alpha3\": \"can\", \"en\": \"Kanada\"}]");
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (!"Kanada".equals(translator.translate("can", "en")) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals("Kanada", translator.translate("can", "en"));
+        }
+    }
+
+    @Test
+    public void failedReloadKeepsOldData() throws Exception {
+        Path file = write("data.json", "[{\"alpha3\": \"can\", \"en\": \"Canada\"}]");
+        try (ReloadingTranslator translator = new ReloadingTranslator(file)) {
+            write("data.json", "[{\"alpha3\": \"can\", ");
+            try {
+                translator.reload();
+                fail("expected the truncated file to be rejected");
+            }
+            catch (RuntimeException expected) {
+                assertEquals("Canada", translator.translate("can", "en"));
+                assertEquals(0, translator.getVersion());
+            }
+        }
+    }
+
+    @Test
+    public void convertersCanBeReloadedToo() throws Exception {
+        Path file = write("codes.txt", "Country\tAlpha-2 code\tAlpha-3 code\tNumeric\nCanada\tCA\tCAN\t124\n");
+        try (FileReloader<CountryCodeConverter> reloader = new FileReloader<>(file, CountryCodeConverter::new)) {
+            assertEquals("Canada", reloader.current().fromCountryCode("can"));
+            write("codes.txt", "Country\tAlpha-2 code\tAlpha-3 code\tNumeric\nKanada\tCA\tCAN\t124\n");
+            reloader.reload();
+            assertEquals("Kanada", reloader.current().fromCountryCode("can"));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.translation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class ResourceLoaderTest {
+
+    private static final String CODES = "Country\tAlpha-2 code\tAlpha-3 code\tNumeric\n"
+            + "Canada\tCA\tCAN\t124\nGermany\tDE\tDEU\t276\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsResources() throws IOException {
+        List<String> lines = ResourceLoader.readLines("language-codes.txt");
+        assertEquals("Abkhazian\tab", lines.get(1));
+        assertTrue(ResourceLoader.readString("sample.json").startsWith("["));
+    }
+
+    @Test
+    public void readsFilesystemPaths() throws IOException {
+        Path file = folder.newFile("codes.txt").toPath();
+        Files.writeString(file, CODES);
+        assertEquals(List.of(CODES.split("\n")), ResourceLoader.readLines(file.toString()));
+        assertEquals(ResourceLoader.readLines(file), ResourceLoader.readLines(file.toString()));
+        assertEquals("Germany", new CountryCodeConverter(file.toString()).fromCountryCode("deu"));
+    }
+
+    @Test
+    public void decompressesGzip() throws IOException {
+        Path file = folder.newFile("codes.txt.gz").toPath();
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(CODES.getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(CODES, ResourceLoader.readString(file.toString()));
+        assertEquals("CAN", new CountryCodeConverter(file).fromCountry("Canada"));
+    }
+
+    @Test
+    public void readsResourcesInsideAJar() throws IOException {
+        Path jar = folder.newFile("data.jar").toPath();
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("data/codes.txt"));
+            out.write(CODES.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {jar.toUri().toURL()}, null)) {
+            try (BufferedReader reader = ResourceLoader.open("data/codes.txt", loader)) {
+                assertEquals(CODES.substring(0, CODES.indexOf('\n')), reader.readLine());
+            }
+        }
+    }
+
+    @Test(expected = MalformedInputException.class)
+    public void rejectsMalformedUtf8() throws IOException {
+        Path file = folder.newFile("bad.txt").toPath();
+        Files.write(file, new byte[] {'a', (byte) 0xC3, '\t'});
+        ResourceLoader.readLines(file);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void missingResourceFails() throws IOException {
+        ResourceLoader.open("no-such-file.txt");
+    }
+}
@@ -0,0 +1,47 @@
+package org.translation;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ReverseTranslationIndexTest {
+
+    private final JSONTranslator translator = new JSONTranslator();
+
+    @Test
+    public void findsCountryFromAnyLanguage() {
+        assertEquals("deu", translator.findCountry("Allemagne"));
+        assertEquals("deu", translator.findCountry("Deutschland"));
+        assertEquals("deu", translator.findCountry("ドイツ"));
+        assertEquals("deu", translator.findCountry("  GERMANY "));
+        assertNull(translator.findCountry("Atlantis"));
+    }
+
+    @Test
+    public void normalizesUnicodeForms() {
+        // "Österreich" written with a combining diaeresis instead of the precomposed letter
+        assertEquals("aut", translator.findCountry("O\u0308sterreich"));
+        // full-width Latin letters fold to their ASCII forms
+        assertEquals("can", translator.findCountry("ＣＡＮＡＤＡ"));
+    }
+
+    @Test
+    public void reportsEveryMatchingLanguage() {
+        List<ReverseTranslationIndex.Match> matches = translator.getReverseIndex().lookup("Kanada");
+        assertTrue(matches.size() > 1);
+        for (ReverseTranslationIndex.Match match : matches) {
+            assertEquals("can", match.getCountry());
+            assertEquals("Kanada", translator.translate("can", match.getLanguage()));
+        }
+    }
+
+    @Test
+    public void indexIsBuiltOnceOnFirstUse() {
+        ReverseTranslationIndex index = translator.getReverseIndex();
+        assertSame(index, translator.getReverseIndex());
+        assertEquals("deu", translator.findCountry("Allemagne"));
+        assertSame(index, translator.getReverseIndex());
+    }
+}
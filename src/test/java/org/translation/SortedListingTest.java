@@ -0,0 +1,84 @@
+package org.translation;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SortedListingTest {
+
+    private static Map<String, String> names() {
+        Map<String, String> names = new LinkedHashMap<>();
+        names.put("EGY", "Égypte");
+        names.put("ZMB", "Zambie");
+        names.put("ALA", "Åland");
+        names.put("ECU", "Équateur");
+        names.put("AUT", "Autriche");
+        names.put("ESP", "Espagne");
+        return names;
+    }
+
+    @Test
+    public void sortsWithTheLocaleCollator() {
+        SortedListing listing = SortedListing.of(names(), Locale.FRENCH);
+        // natural String order would put every accented name after "Zambie"
+        assertEquals(Arrays.asList("Åland", "Autriche", "Égypte", "Équateur", "Espagne", "Zambie"),
+                listing.getNames());
+        assertEquals(Arrays.asList("ALA", "AUT", "EGY", "ECU", "ESP", "ZMB"), listing.getCodes());
+        assertEquals(Locale.FRENCH, listing.getLocale());
+        assertEquals(6, listing.size());
+    }
+
+    @Test
+    public void differentLocalesSortDifferently() {
+        // Swedish sorts Å after Z
+        List<String> swedish = SortedListing.of(names(), new Locale("sv")).getNames();
+        assertEquals("Åland", swedish.get(swedish.size() - 1));
+    }
+
+    @Test
+    public void namesOfKeepsTheSortedOrder() {
+        SortedListing listing = SortedListing.of(names(), Locale.FRENCH);
+        assertEquals(Arrays.asList("Égypte", "Zambie"), listing.namesOf(Arrays.asList("ZMB", "XXX", "EGY")));
+        assertTrue(listing.namesOf(List.of()).isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void namesAreUnmodifiable() {
+        SortedListing.of(names(), Locale.FRENCH).getNames().add("Atlantis");
+    }
+
+    @Test
+    public void convertersCacheOneListingPerLocale() {
+        CountryCodeConverter countries = new CountryCodeConverter();
+        SortedListing english = countries.getSortedNames(Locale.ENGLISH);
+        assertSame(english, countries.getSortedNames(Locale.ENGLISH));
+        assertNotSame(english, countries.getSortedNames(Locale.FRENCH));
+        assertEquals(countries.getNumCountries(), english.size());
+        // "Åland Islands" sorts with the A's rather than after "Zimbabwe"
+        assertTrue(english.getNames().indexOf("Åland Islands") < english.getNames().indexOf("Albania"));
+
+        LanguageCodeConverter languages = new LanguageCodeConverter();
+        SortedListing languageNames = languages.getSortedNames(Locale.ENGLISH);
+        assertSame(languageNames, languages.getSortedNames(Locale.ENGLISH));
+        assertEquals(Arrays.asList("English", "German"), languageNames.namesOf(Arrays.asList("en", "de")));
+    }
+
+    @Test
+    public void translatorListsCountriesInOneLanguage() {
+        JSONTranslator translator = new JSONTranslator();
+        SortedListing german = translator.getSortedCountries("de", Locale.GERMAN);
+        assertSame(german, translator.getSortedCountries("de", Locale.GERMAN));
+        assertEquals(translator.translateLanguage("de").size(), german.size());
+        int austria = german.getCodes().indexOf("aut");
+        assertEquals("Österreich", german.getNames().get(austria));
+        // German collation sorts Ö with O, before "Pakistan"
+        assertTrue(austria < german.getNames().indexOf("Pakistan"));
+        assertEquals(0, translator.getSortedCountries("xx", Locale.GERMAN).size());
+    }
+}
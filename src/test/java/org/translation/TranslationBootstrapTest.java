@@ -0,0 +1,56 @@
+package org.translation;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class TranslationBootstrapTest {
+
+    @After
+    public void tearDown() {
+        ConverterRegistry.invalidateAll();
+    }
+
+    @Test
+    public void loadsAllThreeFiles() {
+        TranslationBootstrap bootstrap = TranslationBootstrap.load();
+        assertEquals("Kanada", bootstrap.getTranslator().translate("can", "de"));
+        assertEquals("Canada", bootstrap.getCountryCodes().fromCountryCode("CAN"));
+        assertEquals("en", bootstrap.getLanguageCodes().fromLanguage("English"));
+        // the converters were loaded through the registry, so it hands out the same instances
+        assertSame(bootstrap.getCountryCodes(), ConverterRegistry.countryCodes());
+        assertSame(bootstrap.getLanguageCodes(), ConverterRegistry.languageCodes());
+    }
+
+    @Test
+    public void timesEveryStage() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            TranslationBootstrap bootstrap = TranslationBootstrap.load(pool, "sample.json", "country-codes.txt",
+                    "language-codes.txt");
+            Map<String, Long> stages = bootstrap.getStageNanos();
+            assertEquals(5, stages.size());
+            assertTrue(stages.containsKey("sample.json read"));
+            assertTrue(stages.containsKey("sample.json parse"));
+            assertTrue(stages.containsKey("sample.json index"));
+            assertTrue(stages.containsKey("country-codes.txt"));
+            assertTrue(stages.containsKey("language-codes.txt"));
+            long slowestFile = Math.max(stages.get("country-codes.txt"), stages.get("language-codes.txt"));
+            assertTrue(bootstrap.getTotalNanos() >= slowestFile);
+            assertTrue(bootstrap.report().contains("total (wall clock)"));
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void missingResourceFails() {
+        TranslationBootstrap.load(ForkJoinPool.commonPool(), "missing.json", "country-codes.txt",
+                "language-codes.txt");
+    }
+}
@@ -0,0 +1,95 @@
+package org.translation;
+
+import org.json.JSONException;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class TranslationLoaderTest {
+
+    @Test
+    public void loadsOneObjectAtATime() {
+        String jsonData = "[ {\"id\": 124, \"alpha2\": \"ca\", \"alpha3\": \"can\","
+                + " \"en\": \"Canada\", \"de\": \"Kanada\"},\n"
+                + "  {\"alpha3\": \"kor\", \"en\": \"Korea, Republic of\"} ]";
+        TranslationTable table = TranslationLoader.load(new StringReader(jsonData));
+        assertEquals(2, table.rowCount());
+        assertEquals("Kanada", table.translate("can", "de"));
+        assertEquals("Korea, Republic of", table.translate("kor", "en"));
+        assertEquals(TranslationTable.ABSENT, table.columnOf("alpha2"));
+    }
+
+    @Test
+    public void loadsEmptyArray() {
+        assertEquals(0, TranslationLoader.load(new StringReader(" [ ] ")).rowCount());
+    }
+
+    @Test(expected = JSONException.class)
+    public void rejectsNonArray() {
+        TranslationLoader.load(new StringReader("{\"alpha3\": \"can\"}"));
+    }
+
+    @Test(expected = JSONException.class)
+    public void rejectsNonObjectElements() {
+        TranslationLoader.load(new StringReader("[\"can\"]"));
+    }
+
+    @Test
+    public void parallelLoadMatchesSerialLoad() throws Exception {
+        String json;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("sample.json")) {
+            json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        TranslationTable serial = TranslationLoader.load(new StringReader(json));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int chunks : new int[] {1, 3, 16, 1000}) {
+                assertSameTable(serial, TranslationLoader.loadParallel(json, pool, chunks));
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelLoadKeepsBracketsAndCommasInsideStrings() {
+        String jsonData = "[{\"alpha3\": \"a]{\", \"en\": \"x, \\\"y\\\" [z]\"},"
+                + " {\"alpha3\": \"b\", \"en\": \"}\"}, {\"alpha3\": \"a]{\", \"de\": \",\"}]";
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            TranslationTable table = TranslationLoader.loadParallel(jsonData, pool, 3);
+            assertSameTable(TranslationLoader.load(new StringReader(jsonData)), table);
+            assertEquals(2, table.rowCount());
+            assertEquals("x, \"y\" [z]", table.translate("a]{", "en"));
+            assertEquals(",", table.translate("a]{", "de"));
+            assertEquals(0, TranslationLoader.loadParallel(" [ ] ", pool, 3).rowCount());
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = JSONException.class)
+    public void parallelLoadRejectsUnterminatedArray() {
+        TranslationLoader.loadParallel("[{\"alpha3\": \"can\"}", ForkJoinPool.commonPool(), 2);
+    }
+
+    private static void assertSameTable(TranslationTable expected, TranslationTable actual) {
+        assertEquals(expected.rowCount(), actual.rowCount());
+        assertEquals(expected.columnCount(), actual.columnCount());
+        assertEquals(expected.poolSize(), actual.poolSize());
+        for (int row = 0; row < expected.rowCount(); row++) {
+            assertEquals(expected.countryCode(row), actual.countryCode(row));
+            for (int column = 0; column < expected.columnCount(); column++) {
+                assertEquals(expected.languageCode(column), actual.languageCode(column));
+                assertEquals(expected.name(row, column), actual.name(row, column));
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.translation;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.Assert.*;
+
+public class TranslationMetricsTest {
+
+    @Test
+    public void histogramPercentilesAreBucketUpperBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5000);
+        assertEquals(100, histogram.count());
+        assertEquals(149, histogram.meanNanos());
+        // 100 falls in [64, 128) and 5000 in [4096, 8192)
+        assertEquals(127, histogram.percentileNanos(0.5));
+        assertEquals(127, histogram.percentileNanos(0.99));
+        assertEquals(8191, histogram.percentileNanos(1.0));
+    }
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.meanNanos());
+        assertEquals(0, histogram.percentileNanos(0.99));
+    }
+
+    @Test
+    public void methodMetricsCountCallsAndMisses() {
+        MethodMetrics metrics = TranslationMetrics.method("TranslationMetricsTest.lookup");
+        assertSame(metrics, TranslationMetrics.method("TranslationMetricsTest.lookup"));
+        metrics.record(System.nanoTime(), true);
+        metrics.record(System.nanoTime(), false);
+        metrics.record(System.nanoTime(), true);
+        assertEquals(3, metrics.getCalls());
+        assertEquals(1, metrics.getMisses());
+        assertEquals(3, metrics.getLatency().count());
+        assertTrue(metrics.toString().startsWith("TranslationMetricsTest.lookup calls=3 misses=1"));
+    }
+
+    @Test
+    public void recordsHitsAndMissesPerLanguage() {
+        TranslationMetrics metrics = TranslationMetrics.get();
+        metrics.recordTranslation("can", "x-test", true);
+        metrics.recordTranslation("can", "x-test", true);
+        metrics.recordTranslation("zzz", "x-test", false);
+        assertEquals(2, metrics.getLanguageHits("x-test"));
+        assertEquals(1, metrics.getLanguageMisses("x-test"));
+        assertEquals(0, metrics.getLanguageHits("x-unused"));
+        String dump = metrics.dump();
+        assertTrue(dump, dump.contains("language x-test hits=2 misses=1"));
+        assertTrue(dump, dump.contains("country can hits="));
+    }
+
+    @Test
+    public void disabledByDefault() {
+        assertFalse(TranslationMetrics.ENABLED);
+        long calls = TranslationMetrics.get().getTranslateCalls();
+        assertEquals("Canada", new JSONTranslator().translate("can", "en"));
+        assertEquals(calls, TranslationMetrics.get().getTranslateCalls());
+    }
+
+    @Test
+    public void registersAsMBean() throws Exception {
+        TranslationMetrics.get().register();
+        TranslationMetrics.get().register();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(TranslationMetrics.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        assertEquals(TranslationMetrics.get().getTranslateCalls(), server.getAttribute(name, "TranslateCalls"));
+        assertTrue(server.invoke(name, "dump", null, null) instanceof String);
+    }
+}
@@ -0,0 +1,103 @@
+package org.translation;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class TranslationServerTest {
+
+    private static TranslationServer server;
+    private static HttpClient client;
+
+    @BeforeClass
+    public static void startServer() throws Exception {
+        server = new TranslationServer(new JSONTranslator(), 0);
+        server.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void translate() throws Exception {
+        HttpResponse<String> response = get("/translate?country=can&language=zh");
+        assertEquals(200, response.statusCode());
+        assertEquals("加拿大", new JSONObject(response.body()).getString("translation"));
+        assertEquals(404, get("/translate?country=xyz&language=zh").statusCode());
+        assertEquals(400, get("/translate?country=can").statusCode());
+    }
+
+    @Test
+    public void listings() throws Exception {
+        assertEquals(193, new JSONArray(get("/countries").body()).length());
+        assertEquals(35, new JSONArray(get("/languages?country=can").body()).length());
+    }
+
+    @Test
+    public void batch() throws Exception {
+        assertEquals("Kanada", new JSONObject(get("/batch?country=can").body()).getString("de"));
+        assertEquals(193, new JSONObject(get("/batch?language=en").body()).length());
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/batch"))
+                .POST(HttpRequest.BodyPublishers.ofString("[[\"can\",\"de\"],[\"fra\",\"en\"],[\"xyz\",\"en\"]]"))
+                .build();
+        JSONArray result = new JSONArray(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+        assertEquals("Kanada", result.getString(0));
+        assertEquals("France", result.getString(1));
+        assertTrue(result.isNull(2));
+    }
+
+    @Test
+    public void loadGeneratorReports() throws Exception {
+        String report = TranslationLoadGenerator.run("http://localhost:" + server.getPort(),
+                new JSONTranslator(), 2, 1);
+        assertTrue(report, report.contains("req/s"));
+    }
+
+    @Test
+    public void wrongMethodsAreNotAllowed() throws Exception {
+        HttpRequest post = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/countries"))
+                .POST(HttpRequest.BodyPublishers.ofString("[]"))
+                .build();
+        HttpResponse<String> response = client.send(post, HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, response.statusCode());
+        assertEquals("GET", response.headers().firstValue("Allow").orElse(null));
+        HttpRequest delete = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/batch"))
+                .DELETE()
+                .build();
+        assertEquals(405, client.send(delete, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    public void oversizedBatchBodiesAreRejected() throws Exception {
+        // a raw socket, as a client still sending the body would see the connection closed under it
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            String request = "POST /batch HTTP/1.1\r\nHost: localhost\r\nContent-Length: " + (2 << 20) + "\r\n\r\n";
+            socket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+            socket.getOutputStream().flush();
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            assertTrue(reader.readLine().startsWith("HTTP/1.1 413"));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.translation;
+
+import org.json.JSONArray;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class TranslationTableTest {
+
+    @Test
+    public void namesWithCommasStayAligned() {
+        String jsonData = "[{\"id\": 410, \"alpha2\": \"kr\", \"alpha3\": \"kor\","
+                + " \"en\": \"Korea, Republic of\", \"de\": \"Südkorea\", \"fr\": \"Corée, République de\"}]";
+        TranslationTable table = TranslationTable.fromJson(new JSONArray(jsonData));
+        assertEquals("Korea, Republic of", table.translate("kor", "en"));
+        assertEquals("Südkorea", table.translate("kor", "de"));
+        assertEquals("Corée, République de", table.translate("kor", "fr"));
+        assertEquals(Set.of("en", "de", "fr"), new HashSet<>(table.languagesOf(table.rowOf("kor"))));
+    }
+
+    @Test
+    public void duplicateNamesArePooled() {
+        String jsonData = "[{\"alpha3\": \"can\", \"en\": \"Canada\", \"fr\": \"Canada\", \"de\": \"Kanada\"}]";
+        TranslationTable table = TranslationTable.fromJson(new JSONArray(jsonData));
+        assertEquals(2, table.poolSize());
+        assertEquals(3, table.columnCount());
+    }
+
+    @Test
+    public void rowsWithFewerLanguagesReturnNull() {
+        String jsonData = "[{\"alpha3\": \"aaa\", \"en\": \"A\"},"
+                + " {\"alpha3\": \"bbb\", \"en\": \"B\", \"de\": \"Be\"}]";
+        TranslationTable table = TranslationTable.fromJson(new JSONArray(jsonData));
+        assertNull(table.translate("aaa", "de"));
+        assertEquals("Be", table.translate("BBB", "de"));
+        assertEquals(TranslationTable.ABSENT, table.rowOf("ccc"));
+    }
+}
@@ -0,0 +1,121 @@
+package org.translation;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the listing contract every Translator implementation shares: getCountries and
+ * getCountryLanguages return unmodifiable lists which are built once, so repeat calls
+ * return the same instance and allocate nothing.
+ */
+@RunWith(Parameterized.class)
+public class TranslatorContractTest {
+
+    private static final int CALLS = 10_000;
+    // generous slack for the measurement itself; one list per call would be hundreds of kilobytes
+    private static final long ALLOCATION_SLACK_BYTES = 4096;
+
+    private final Supplier<Translator> factory;
+    private Translator translator;
+
+    public TranslatorContractTest(String name, Supplier<Translator> factory) {
+        this.factory = factory;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> translators() {
+        Supplier<Translator> json = JSONTranslator::new;
+        Supplier<Translator> byHand = InLabByHandTranslator::new;
+        Supplier<Translator> mapped = () -> new MappedTranslator(SnapshotCompiler.compile(
+                new JSONTranslator().getTable(), new CountryCodeConverter(), new LanguageCodeConverter()));
+        Supplier<Translator> composite = () -> new CompositeTranslator(
+                List.of(new InLabByHandTranslator(), new JSONTranslator()));
+        Supplier<Translator> caching = () -> new CachingTranslator(new JSONTranslator(), 100);
+        Supplier<Translator> fallback = () -> new FallbackTranslator(new JSONTranslator(), FallbackChains.standard());
+        return Arrays.asList(new Object[][] {
+            {"JSONTranslator", json},
+            {"InLabByHandTranslator", byHand},
+            {"MappedTranslator", mapped},
+            {"CompositeTranslator", composite},
+            {"CachingTranslator", caching},
+            {"FallbackTranslator", fallback},
+            {"GeneratedTranslator", (Supplier<Translator>) GeneratedTranslator::new},
+            {"OffHeapTranslator", (Supplier<Translator>) () -> OffHeapTranslator.load("sample.json")},
+            {"DeltaTranslator", (Supplier<Translator>) () -> new DeltaTranslator(new JSONTranslator().getTable())},
+        });
+    }
+
+    @Before
+    public void setUp() {
+        translator = factory.get();
+    }
+
+    @Test
+    public void countriesAreUnmodifiable() {
+        assertUnmodifiable(translator.getCountries());
+    }
+
+    @Test
+    public void countryLanguagesAreUnmodifiable() {
+        assertUnmodifiable(translator.getCountryLanguages("can"));
+        assertUnmodifiable(translator.getCountryLanguages("no-such-country"));
+        assertTrue(translator.getCountryLanguages("no-such-country").isEmpty());
+    }
+
+    @Test
+    public void repeatCallsReturnTheSameList() {
+        assertSame(translator.getCountries(), translator.getCountries());
+        assertSame(translator.getCountryLanguages("can"), translator.getCountryLanguages("can"));
+        assertTrue(translator.getCountries().contains("can"));
+        assertTrue(translator.getCountryLanguages("can").contains("de"));
+    }
+
+    @Test
+    public void repeatCallsAllocateNothing() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+
+        int sizes = listSizes(CALLS);
+        long before = allocations.getThreadAllocatedBytes(thread);
+        sizes += listSizes(CALLS);
+        long allocated = allocations.getThreadAllocatedBytes(thread) - before;
+        assertTrue(sizes > 0);
+        assertTrue(allocated + " bytes allocated by " + CALLS + " calls", allocated < ALLOCATION_SLACK_BYTES);
+    }
+
+    private int listSizes(int calls) {
+        int sizes = 0;
+        for (int i = 0; i < calls; i++) {
+            sizes += translator.getCountries().size();
+            sizes += translator.getCountryLanguages("can").size();
+            sizes += translator.getCountryLanguages("no-such-country").size();
+        }
+        return sizes;
+    }
+
+    private static void assertUnmodifiable(List<String> list) {
+        try {
+            list.add("xx");
+            fail("Expected an unmodifiable list");
+        }
+        catch (UnsupportedOperationException expected) {
+            // expected
+        }
+    }
+}